@@ -3,6 +3,9 @@ setlocal
 
 :: Variables pour la librairie FrontServlet
 set "SRC_DIR=src\main\java"
+set "BENCH_SRC_DIR=src\bench\java"
+set "TEST_SRC_DIR=src\test\java"
+set "TEST_CLASSES=servlet.util.views.template.TemplateRenderTest servlet.util.routing.RouteTableTest servlet.util.security.TokenSecurityContextProviderTest servlet.util.paging.CursorSignerTest"
 set "BUILD_DIR=build"
 set "LIB_DIR=lib"
 set "SERVLET_API_JAR=%LIB_DIR%\servlet-api.jar"
@@ -15,12 +18,19 @@ set "JAR_NAME=servlet.jar"
 
 :: Helper: afficher usage
 if "%~1"=="help" (
-    echo Usage: %~n0 [build^|clean^|help]
+    echo Usage: %~n0 [build^|test^|bench^|load^|clean^|help]
     echo   build - compile les sources et creer %JAR_NAME%
+    echo   test  - build puis lance les tests de %TEST_SRC_DIR%
+    echo   bench - build puis lance les bancs de mesure de %BENCH_SRC_DIR%
+    echo   load  - build puis lance le test de charge sur serveur embarque
     echo   clean - supprime le dossier %BUILD_DIR%
     goto :eof
 )
 
+set "BENCH_MAIN="
+if "%~1"=="bench" set "BENCH_MAIN=servlet.bench.DispatchBenchmarks"
+if "%~1"=="load" set "BENCH_MAIN=servlet.bench.load.LoadTest"
+
 if "%~1"=="clean" (
     echo Nettoyage: suppression de "%BUILD_DIR%"
     if exist "%BUILD_DIR%" (
@@ -81,5 +91,37 @@ jar -cvf "%~dp0%JAR_NAME%" * > nul
 popd
 
 echo JAR genere: %~dp0%JAR_NAME%
+
+:: Tests : compiles a part, hors du JAR ; chaque classe *Test a un main qui echoue par une AssertionError
+if "%~1"=="test" (
+    set "TEST_FILES="
+    for /r "%TEST_SRC_DIR%" %%F in (*.java) do set "TEST_FILES=!TEST_FILES! "%%F""
+    mkdir "%BUILD_DIR%\test"
+    javac -encoding UTF-8 -d "%BUILD_DIR%\test" -classpath "%CLASSPATH%" !TEST_FILES!
+    if errorlevel 1 (
+        echo Erreur pendant la compilation des tests.
+        exit /b 1
+    )
+    for %%T in (%TEST_CLASSES%) do (
+        java -ea -classpath "%LIB_DIR%\*;%BUILD_DIR%\classes;%BUILD_DIR%\test" %%T
+        if errorlevel 1 (
+            echo Echec des tests : %%T
+            exit /b 1
+        )
+    )
+)
+
+:: Bancs de mesure : compiles a part, hors du JAR
+if defined BENCH_MAIN (
+    set "BENCH_FILES="
+    for /r "%BENCH_SRC_DIR%" %%F in (*.java) do set "BENCH_FILES=!BENCH_FILES! "%%F""
+    mkdir "%BUILD_DIR%\bench"
+    javac -encoding UTF-8 -d "%BUILD_DIR%\bench" -classpath "%CLASSPATH%" !BENCH_FILES!
+    if errorlevel 1 (
+        echo Erreur pendant la compilation des bancs de mesure.
+        exit /b 1
+    )
+    java %BENCH_OPTS% -classpath "%LIB_DIR%\*;%BUILD_DIR%\classes;%BUILD_DIR%\bench" %BENCH_MAIN%
+)
 endlocal
 exit /b 0
\ No newline at end of file
@@ -0,0 +1,173 @@
+package servlet.bench;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Mini-harnais de micro-benchmarks (sans dépendance) : itérations de préchauffage puis de mesure
+ * à durée fixe, débit en ops/s et allocation en octets par opération, lue via le compteur
+ * d'allocation par thread de la JVM (équivalent de gc.alloc.rate.norm du profiler gc de JMH).
+ *
+ * Propriétés système :
+ * - bench.filter     : expression régulière sur le nom des benchmarks
+ * - bench.warmup     : itérations de préchauffage (défaut 3)
+ * - bench.iterations : itérations mesurées (défaut 5)
+ * - bench.time       : durée d'une itération en ms (défaut 1000)
+ * - bench.out        : fichier CSV où écrire les résultats
+ * - bench.baseline   : fichier CSV d'une version précédente, pour afficher les écarts
+ */
+public final class BenchmarkRunner {
+
+    // Opération mesurée
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    public static final class Result {
+        final String name;
+        final double opsPerSecond;
+        final double error;
+        final double bytesPerOp;
+
+        Result(String name, double opsPerSecond, double error, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.error = error;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        // Débit d'allocation en Mo/s
+        double allocationRate() {
+            return opsPerSecond * bytesPerOp / (1024 * 1024);
+        }
+    }
+
+    private static final int BATCH = 64;
+
+    private final Pattern filter;
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationNanos;
+    private final com.sun.management.ThreadMXBean threads;
+    private final List<Result> results = new ArrayList<>();
+
+    public BenchmarkRunner() {
+        this.filter = Pattern.compile(System.getProperty("bench.filter", ".*"));
+        this.warmupIterations = Integer.getInteger("bench.warmup", 3);
+        this.measureIterations = Integer.getInteger("bench.iterations", 5);
+        this.iterationNanos = Long.getLong("bench.time", 1000L) * 1_000_000L;
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public boolean accepts(String name) {
+        return filter.matcher(name).find();
+    }
+
+    /**
+     * Mesure une opération (ignorée si son nom ne correspond pas au filtre)
+     * 
+     * @param name      Le nom du benchmark
+     * @param operation L'opération, exécutée en boucle sur le thread courant
+     */
+    public void run(String name, Operation operation) throws Exception {
+        if (!accepts(name)) return;
+
+        System.out.printf(Locale.ROOT, "# %s%n", name);
+        for (int i = 0; i < warmupIterations; i++) {
+            double[] sample = iteration(operation);
+            System.out.printf(Locale.ROOT, "  préchauffage %d : %,.0f ops/s%n", i + 1, sample[0]);
+        }
+
+        double[] throughput = new double[measureIterations];
+        double bytes = 0;
+        for (int i = 0; i < measureIterations; i++) {
+            double[] sample = iteration(operation);
+            throughput[i] = sample[0];
+            bytes += sample[1];
+            System.out.printf(Locale.ROOT, "  itération %d : %,.0f ops/s, %,.0f o/op%n", i + 1, sample[0], sample[1]);
+        }
+
+        double mean = 0;
+        for (double value : throughput) mean += value;
+        mean /= throughput.length;
+        double variance = 0;
+        for (double value : throughput) variance += (value - mean) * (value - mean);
+        double stddev = throughput.length > 1 ? Math.sqrt(variance / (throughput.length - 1)) : 0;
+
+        results.add(new Result(name, mean, stddev, bytes / measureIterations));
+    }
+
+    // Une itération : [ops/s, octets alloués par op]
+    private double[] iteration(Operation operation) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long operations = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < BATCH; i++) {
+                operation.run();
+            }
+            operations += BATCH;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new double[] { operations * 1e9 / elapsed, (double) allocated / operations };
+    }
+
+    /**
+     * Affiche le tableau des résultats, l'écrit en CSV si demandé et le compare à une référence
+     */
+    public void report() throws IOException {
+        Map<String, Result> baseline = readBaseline(System.getProperty("bench.baseline"));
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-40s %15s %12s %12s %12s %10s%n",
+                "Benchmark", "Score (ops/s)", "Erreur", "o/op", "Mo/s alloc", "vs réf.");
+        for (Result result : results) {
+            Result reference = baseline.get(result.name);
+            String delta = reference == null ? ""
+                    : String.format(Locale.ROOT, "%+.1f%%", (result.opsPerSecond / reference.opsPerSecond - 1) * 100);
+            System.out.printf(Locale.ROOT, "%-40s %,15.0f %,12.0f %,12.0f %,12.1f %10s%n",
+                    result.name, result.opsPerSecond, result.error, result.bytesPerOp, result.allocationRate(), delta);
+        }
+
+        String out = System.getProperty("bench.out");
+        if (out != null) {
+            StringBuilder csv = new StringBuilder("benchmark,ops_per_s,error,bytes_per_op\n");
+            for (Result result : results) {
+                csv.append(String.format(Locale.ROOT, "%s,%.2f,%.2f,%.2f%n",
+                        result.name, result.opsPerSecond, result.error, result.bytesPerOp));
+            }
+            Files.writeString(Paths.get(out), csv, StandardCharsets.UTF_8);
+            System.out.println("\nRésultats écrits dans " + out);
+        }
+    }
+
+    private static Map<String, Result> readBaseline(String file) throws IOException {
+        Map<String, Result> baseline = new HashMap<>();
+        if (file == null) return baseline;
+        Path path = Paths.get(file);
+        if (!Files.exists(path)) return baseline;
+
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (int i = 1; i < lines.size(); i++) {
+            String[] columns = lines.get(i).split(",");
+            if (columns.length < 4) continue;
+            baseline.put(columns[0], new Result(columns[0], Double.parseDouble(columns[1]),
+                    Double.parseDouble(columns[2]), Double.parseDouble(columns[3])));
+        }
+        return baseline;
+    }
+}
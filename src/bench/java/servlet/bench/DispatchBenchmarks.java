@@ -0,0 +1,107 @@
+package servlet.bench;
+
+import servlet.bench.app.BenchController;
+import servlet.bench.support.BenchEnvironment;
+import servlet.bench.support.FixedContentDispatcher;
+import servlet.bench.support.InMemoryRequest;
+import servlet.bench.support.InMemoryResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Bancs de mesure du pipeline DispatcherServlet.service, sans conteneur :
+ * routage selon la taille de la table, extraction des @PathParam, binding de formulaire
+ * vers un objet imbriqué, sérialisation @ResponseJSON et rendu des ModelView.
+ */
+public final class DispatchBenchmarks {
+
+    private static final String TEMPLATE = """
+            <html><head><title>{{ title }}</title></head><body>
+            <ul>
+            {% for item in items %}<li>{{ item.id }} - {{ item.label }} : {{ item.price }}</li>
+            {% endfor %}</ul>
+            </body></html>
+            """;
+
+    private DispatchBenchmarks() {}
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+
+        for (int routes : new int[] { 10, 100, 1000 }) {
+            BenchEnvironment env = BenchEnvironment.builder()
+                    .controllers(BenchController.class)
+                    .syntheticRoutes(routes)
+                    .build();
+            measure(runner, "routing.routes" + routes, env, env.request("GET", "/users/42"));
+        }
+
+        BenchEnvironment env = BenchEnvironment.builder().controllers(BenchController.class).build();
+
+        measure(runner, "pathParams.twoParams", env, env.request("GET", "/users/42/orders/7"));
+
+        measure(runner, "binding.nestedForm", env, env.request("POST", "/people")
+                .param("name", "Ada")
+                .param("age", "36")
+                .param("active", "on")
+                .param("birthDate", "1815-12-10")
+                .param("address.street", "12 rue des Lilas")
+                .param("address.city", "Paris")
+                .param("address.zip", "75011")
+                .param("tags[]", "math", "", "engine"));
+
+        if (jsonAvailable()) {
+            measure(runner, "json.small", env, env.request("GET", "/api/items/small"));
+            measure(runner, "json.large", env, env.request("GET", "/api/items/large"));
+        } else if (runner.accepts("json.small") || runner.accepts("json.large")) {
+            System.err.println("json.small, json.large ignorés : jackson-annotations absent du classpath "
+                    + "(jackson-annotations-2.20.jar à copier dans lib/)");
+        }
+
+        env.getContext().registerDispatcher("*", new FixedContentDispatcher("<html>forwarded</html>"));
+        measure(runner, "modelView.forward", env, env.request("GET", "/pages/items"));
+
+        // Même page rendue par le moteur de templates natif
+        Path documentRoot = Files.createTempDirectory("bench-views");
+        Files.writeString(documentRoot.resolve("items.tpl"), TEMPLATE, StandardCharsets.UTF_8);
+        BenchEnvironment templates = BenchEnvironment.builder()
+                .documentRoot(documentRoot)
+                .initParameter("viewEngines", "servlet.util.views.template.TemplateViewEngine")
+                .controllers(BenchController.class)
+                .build();
+        measure(runner, "modelView.template", templates, templates.request("GET", "/pages/items-template"));
+
+        runner.report();
+    }
+
+    // jackson-databind ne s'initialise pas sans jackson-annotations, qui n'est pas livré dans lib/
+    private static boolean jsonAvailable() {
+        try {
+            Class.forName("com.fasterxml.jackson.annotation.JsonView");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static void measure(BenchmarkRunner runner, String name, BenchEnvironment env, InMemoryRequest req)
+            throws Exception {
+        if (!runner.accepts(name)) return;
+
+        InMemoryResponse resp = new InMemoryResponse();
+
+        // Vérifier que le scénario aboutit avant de le mesurer
+        env.dispatch(req, resp);
+        if (resp.getStatus() >= 400 || resp.getBodyLength() == 0) {
+            throw new IllegalStateException(name + " : réponse inattendue (statut " + resp.getStatus() + ")");
+        }
+
+        runner.run(name, () -> {
+            req.reset();
+            resp.reset();
+            env.dispatch(req, resp);
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package servlet.bench.app;
+
+public class Address {
+    private String street;
+    private String city;
+    private int zip;
+
+    public String getStreet() { return street; }
+    public String getCity() { return city; }
+    public int getZip() { return zip; }
+}
@@ -0,0 +1,79 @@
+package servlet.bench.app;
+
+import servlet.annotation.Controller;
+import servlet.annotation.json.ResponseJSON;
+import servlet.annotation.mappings.GetMapping;
+import servlet.annotation.mappings.PostMapping;
+import servlet.annotation.parameters.PathParam;
+import servlet.models.ModelView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Controller d'exemple couvrant les chemins du pipeline mesurés par les bancs
+@Controller
+public class BenchController {
+
+    public static final List<Item> SMALL = Collections.singletonList(new Item(1, "Item 1", 9.5));
+    public static final List<Item> LARGE = items(1000);
+
+    @GetMapping(url = "/users/{id}")
+    public String user(@PathParam("id") int id) {
+        return "user";
+    }
+
+    @GetMapping(url = "/users/{id}/orders/{orderId}")
+    public String order(@PathParam("id") int id, @PathParam("orderId") long orderId) {
+        return "order";
+    }
+
+    @PostMapping(url = "/people")
+    public String bind(Person person) {
+        return person.getAddress() != null ? person.getAddress().getCity() : "none";
+    }
+
+    @PostMapping(url = "/upload")
+    public String upload(Map<String, byte[]> files) {
+        int total = 0;
+        for (byte[] content : files.values()) total += content.length;
+        return "uploaded " + total;
+    }
+
+    @GetMapping(url = "/api/items/small")
+    @ResponseJSON
+    public List<Item> smallJson() {
+        return SMALL;
+    }
+
+    @GetMapping(url = "/api/items/large")
+    @ResponseJSON
+    public List<Item> largeJson() {
+        return LARGE;
+    }
+
+    @GetMapping(url = "/pages/items")
+    public ModelView forwardPage() {
+        ModelView mv = new ModelView("items.jsp");
+        mv.addData("items", LARGE.subList(0, 50));
+        mv.addData("title", "Items");
+        return mv;
+    }
+
+    @GetMapping(url = "/pages/items-template")
+    public ModelView templatePage() {
+        ModelView mv = new ModelView("items.tpl");
+        mv.addData("items", LARGE.subList(0, 50));
+        mv.addData("title", "Items");
+        return mv;
+    }
+
+    public static List<Item> items(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(i, "Item <" + i + ">", i * 1.25));
+        }
+        return Collections.unmodifiableList(items);
+    }
+}
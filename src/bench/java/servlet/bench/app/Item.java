@@ -0,0 +1,17 @@
+package servlet.bench.app;
+
+public class Item {
+    private final int id;
+    private final String label;
+    private final double price;
+
+    public Item(int id, String label, double price) {
+        this.id = id;
+        this.label = label;
+        this.price = price;
+    }
+
+    public int getId() { return id; }
+    public String getLabel() { return label; }
+    public double getPrice() { return price; }
+}
@@ -0,0 +1,20 @@
+package servlet.bench.app;
+
+import java.time.LocalDate;
+
+// Objet lié depuis un formulaire, avec un objet imbriqué et un tableau
+public class Person {
+    private String name;
+    private int age;
+    private boolean active;
+    private LocalDate birthDate;
+    private Address address;
+    private String[] tags;
+
+    public String getName() { return name; }
+    public int getAge() { return age; }
+    public boolean isActive() { return active; }
+    public LocalDate getBirthDate() { return birthDate; }
+    public Address getAddress() { return address; }
+    public String[] getTags() { return tags; }
+}
@@ -0,0 +1,193 @@
+package servlet.bench.load;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import servlet.bench.support.BenchEnvironment;
+import servlet.bench.support.InMemoryPart;
+import servlet.bench.support.InMemoryRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Conteneur HTTP embarqué minimal (com.sun.net.httpserver du JDK) : chaque échange est converti
+ * en requête/réponse Servlet puis traité par le DispatcherServlet du BenchEnvironment.
+ * Gère la query string, les formulaires urlencoded et multipart/form-data.
+ */
+public final class EmbeddedServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final BenchEnvironment environment;
+
+    public EmbeddedServer(BenchEnvironment environment, int workerThreads) throws IOException {
+        this.environment = environment;
+        // Sans TCP_NODELAY, l'envoi en deux temps (headers puis corps) subit ~40 ms d'ACK retardé
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.workers = Executors.newFixedThreadPool(workerThreads);
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + environment.getContext().getContextPath();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String contextPath = environment.getContext().getContextPath();
+            String uri = exchange.getRequestURI().getRawPath();
+            if (!uri.startsWith(contextPath)) {
+                send(exchange, 404, new LinkedHashMap<>(), new byte[0]);
+                return;
+            }
+
+            InMemoryRequest req = environment.request(exchange.getRequestMethod(), uri.substring(contextPath.length()));
+            copyHeaders(exchange.getRequestHeaders(), req);
+            parseQuery(exchange.getRequestURI().getRawQuery(), req);
+            readBody(exchange, req);
+            req.remoteAddr(exchange.getRemoteAddress().getAddress().getHostAddress());
+
+            ExchangeResponse resp = new ExchangeResponse();
+            environment.dispatch(req, resp);
+            send(exchange, resp.getStatus(), resp.headers(), resp.toByteArray());
+
+        } catch (Throwable e) {
+            // Error comprise (NoClassDefFoundError...) : une réponse 500 mesurée plutôt qu'un thread du pool perdu
+            byte[] message = ("Erreur serveur embarqué : " + e).getBytes(StandardCharsets.UTF_8);
+            try {
+                send(exchange, 500, new LinkedHashMap<>(), message);
+            } catch (IOException sendFailure) {
+                // Réponse déjà commencée : l'échange est fermé ci-dessous
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, List<String>> headers, byte[] body)
+            throws IOException {
+        headers.forEach((name, values) -> exchange.getResponseHeaders().put(name, values));
+        boolean noBody = "HEAD".equals(exchange.getRequestMethod()) || status == 204 || status == 304;
+        exchange.sendResponseHeaders(status, noBody ? -1 : (body.length == 0 ? -1 : body.length));
+        if (!noBody && body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static void copyHeaders(Headers headers, InMemoryRequest req) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (!header.getValue().isEmpty()) req.header(header.getKey(), header.getValue().get(0));
+        }
+    }
+
+    private static void readBody(HttpExchange exchange, InMemoryRequest req) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        if (body.length == 0) return;
+
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        req.body(body, contentType);
+        if (contentType == null) return;
+
+        if (contentType.startsWith("application/x-www-form-urlencoded")) {
+            parseQuery(new String(body, StandardCharsets.ISO_8859_1), req);
+        } else if (contentType.startsWith("multipart/form-data")) {
+            parseMultipart(body, contentType, req);
+        }
+    }
+
+    private static void parseQuery(String query, InMemoryRequest req) {
+        if (query == null || query.isEmpty()) return;
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            values.computeIfAbsent(name, n -> new ArrayList<>()).add(value);
+        }
+        values.forEach((name, list) -> req.param(name, list.toArray(new String[0])));
+    }
+
+    // Découpage multipart simple : suffisant pour les scénarios de charge (pas de streaming)
+    private static void parseMultipart(byte[] body, String contentType, InMemoryRequest req) {
+        int index = contentType.indexOf("boundary=");
+        if (index < 0) return;
+        byte[] delimiter = ("--" + contentType.substring(index + 9).replace("\"", "").trim())
+                .getBytes(StandardCharsets.ISO_8859_1);
+
+        int position = indexOf(body, delimiter, 0);
+        while (position >= 0) {
+            int start = position + delimiter.length;
+            if (start + 1 < body.length && body[start] == '-' && body[start + 1] == '-') break;
+            start += 2; // CRLF
+
+            int headerEnd = indexOf(body, "\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1), start);
+            int next = indexOf(body, delimiter, start);
+            if (headerEnd < 0 || next < 0) break;
+
+            String headers = new String(body, start, headerEnd - start, StandardCharsets.UTF_8);
+            byte[] content = java.util.Arrays.copyOfRange(body, headerEnd + 4, next - 2);
+
+            String name = attribute(headers, "name");
+            String fileName = attribute(headers, "filename");
+            if (name != null) {
+                req.part(new InMemoryPart(name, fileName, header(headers, "Content-Type"), content));
+                if (fileName == null) req.param(name, new String(content, StandardCharsets.UTF_8));
+            }
+            position = next;
+        }
+    }
+
+    private static String attribute(String headers, String attribute) {
+        for (String separator : new String[] { " ", ";" }) {
+            String marker = separator + attribute + "=\"";
+            int start = headers.indexOf(marker);
+            if (start < 0) continue;
+            int end = headers.indexOf('"', start + marker.length());
+            return end < 0 ? null : headers.substring(start + marker.length(), end);
+        }
+        return null;
+    }
+
+    private static String header(String headers, String name) {
+        for (String line : headers.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase(name)) {
+                return line.substring(colon + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
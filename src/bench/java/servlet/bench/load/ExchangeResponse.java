@@ -0,0 +1,184 @@
+package servlet.bench.load;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import servlet.bench.support.Unsupported;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Réponse bufferisée en mémoire, recopiée ensuite dans l'échange HTTP du serveur embarqué
+final class ExchangeResponse extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private PrintWriter writer;
+    private int status = SC_OK;
+    private String contentType;
+
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override
+        public void write(int b) { body.write(b); }
+
+        @Override
+        public void write(byte[] b, int off, int len) { body.write(b, off, len); }
+
+        @Override
+        public boolean isReady() { return true; }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+    };
+
+    ExchangeResponse() {
+        super(Unsupported.proxy(HttpServletResponse.class));
+    }
+
+    byte[] toByteArray() {
+        if (writer != null) writer.flush();
+        return body.toByteArray();
+    }
+
+    Map<String, List<String>> headers() { return headers; }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), false) {
+                @Override
+                public void close() {
+                    flush();
+                }
+            };
+        }
+        return writer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() { return outputStream; }
+
+    @Override
+    public void setStatus(int sc) { status = sc; }
+
+    @Override
+    public int getStatus() { return status; }
+
+    @Override
+    public void sendError(int sc) { status = sc; }
+
+    @Override
+    public void sendError(int sc, String msg) { status = sc; }
+
+    @Override
+    public void sendRedirect(String location) {
+        status = SC_FOUND;
+        setHeader("Location", location);
+    }
+
+    @Override
+    public void setContentType(String type) {
+        contentType = type;
+        setHeader("Content-Type", type);
+    }
+
+    @Override
+    public String getContentType() { return contentType; }
+
+    @Override
+    public void setCharacterEncoding(String charset) {}
+
+    @Override
+    public String getCharacterEncoding() { return "UTF-8"; }
+
+    @Override
+    public void setContentLength(int len) {}
+
+    @Override
+    public void setContentLengthLong(long len) {}
+
+    @Override
+    public void setHeader(String name, String value) {
+        List<String> values = new ArrayList<>(1);
+        values.add(value);
+        headers.put(name, values);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.computeIfAbsent(name, n -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) { setHeader(name, Integer.toString(value)); }
+
+    @Override
+    public void addIntHeader(String name, int value) { addHeader(name, Integer.toString(value)); }
+
+    @Override
+    public void setDateHeader(String name, long date) { setHeader(name, Long.toString(date)); }
+
+    @Override
+    public void addDateHeader(String name, long date) { addHeader(name, Long.toString(date)); }
+
+    @Override
+    public boolean containsHeader(String name) { return headers.containsKey(name); }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? List.of() : values;
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() { return headers.keySet(); }
+
+    @Override
+    public void flushBuffer() {}
+
+    @Override
+    public boolean isCommitted() { return false; }
+
+    @Override
+    public void reset() {
+        body.reset();
+        headers.clear();
+        status = SC_OK;
+    }
+
+    @Override
+    public void resetBuffer() { body.reset(); }
+
+    @Override
+    public void setBufferSize(int size) {}
+
+    @Override
+    public int getBufferSize() { return 8192; }
+
+    @Override
+    public String encodeURL(String url) { return url; }
+
+    @Override
+    public String encodeRedirectURL(String url) { return url; }
+}
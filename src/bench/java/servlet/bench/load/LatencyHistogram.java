@@ -0,0 +1,98 @@
+package servlet.bench.load;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de latences à précision relative bornée (même principe que HdrHistogram) :
+ * valeurs exactes jusqu'à 255 µs, puis 128 sous-intervalles par puissance de deux (< 1 % d'erreur).
+ * L'enregistrement est sans verrou et peut être fait par plusieurs threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR = 256;
+    private static final int SUB_BUCKETS = 128;
+    private static final int MAX_EXPONENT = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LINEAR + (MAX_EXPONENT - 7) * SUB_BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    // Enregistre une latence en microsecondes
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getTotalCount() { return total.get(); }
+
+    public long getMax() { return max.get(); }
+
+    public double getMean() {
+        long count = total.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    /**
+     * Valeur au percentile demandé
+     * 
+     * @param percentile Le percentile, entre 0 et 100
+     * @return La latence en microsecondes (borne haute de l'intervalle)
+     */
+    public long percentile(double percentile) {
+        long count = total.get();
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Écrit la distribution au format texte "percentile distribution" de HdrHistogram (.hgrm),
+     * exploitable par les outils de tracé habituels
+     * 
+     * @param out Le writer de sortie
+     */
+    public void writePercentileDistribution(Writer out) throws IOException {
+        out.write(String.format(Locale.ROOT, "%12s %14s %10s %14s%n%n", "Value", "Percentile", "TotalCount", "1/(1-Percentile)"));
+        long count = total.get();
+        long seen = 0;
+        for (int i = 0; i < counts.length() && count > 0; i++) {
+            long c = counts.get(i);
+            if (c == 0) continue;
+            seen += c;
+            double fraction = (double) seen / count;
+            String inverse = fraction < 1 ? String.format(Locale.ROOT, "%14.2f", 1 / (1 - fraction)) : "";
+            out.write(String.format(Locale.ROOT, "%12.3f %2.12f %10d %s%n",
+                    Math.min(upperBound(i), max.get()) / 1000.0, fraction, seen, inverse));
+        }
+        out.write(String.format(Locale.ROOT, "#[Mean    = %12.3f, Max     = %12.3f]%n", getMean() / 1000.0, max.get() / 1000.0));
+        out.write(String.format(Locale.ROOT, "#[Total count    = %12d]%n", count));
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) return LINEAR + (MAX_EXPONENT - 8) * SUB_BUCKETS + SUB_BUCKETS - 1;
+        int sub = (int) (value >>> (exponent - 7)) - SUB_BUCKETS;
+        return LINEAR + (exponent - 8) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR) return index;
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 8;
+        int sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return (((long) sub + 1) << (exponent - 7)) - 1;
+    }
+}
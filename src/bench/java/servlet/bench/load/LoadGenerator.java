@@ -0,0 +1,120 @@
+package servlet.bench.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Générateur de charge HTTP :
+ * - boucle fermée : N clients envoient une requête, attendent la réponse, puis recommencent ;
+ * - boucle ouverte : les requêtes partent à débit fixe, indépendamment des réponses, et la latence
+ *   est mesurée depuis l'instant d'envoi prévu (correction de la "coordinated omission").
+ */
+public final class LoadGenerator {
+
+    public enum Mode { CLOSED, OPEN }
+
+    private final HttpClient client;
+    private final Mode mode;
+    private final int concurrency;
+    private final double ratePerSecond;
+
+    public LoadGenerator(Mode mode, int concurrency, double ratePerSecond) {
+        this.mode = mode;
+        this.concurrency = concurrency;
+        this.ratePerSecond = ratePerSecond;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, concurrency), daemonThreads()))
+                .build();
+    }
+
+    public static final class Outcome {
+        public final LatencyHistogram histogram = new LatencyHistogram();
+        public final AtomicLong errors = new AtomicLong();
+        public volatile double elapsedSeconds;
+
+        public double throughput() {
+            return elapsedSeconds == 0 ? 0 : histogram.getTotalCount() / elapsedSeconds;
+        }
+    }
+
+    /**
+     * Lance la charge pendant la durée donnée
+     * 
+     * @param requests Fabrique des requêtes à envoyer (appelée pour chaque envoi)
+     * @param duration La durée de la phase
+     * @param record   false pour une phase de préchauffage (latences ignorées)
+     * @return Les latences et le nombre d'erreurs observés
+     */
+    public Outcome run(Supplier<HttpRequest> requests, Duration duration, boolean record) throws InterruptedException {
+        Outcome outcome = new Outcome();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        if (mode == Mode.CLOSED) {
+            runClosed(requests, end, record, outcome);
+        } else {
+            runOpen(requests, start, end, record, outcome);
+        }
+
+        outcome.elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return outcome;
+    }
+
+    private void runClosed(Supplier<HttpRequest> requests, long end, boolean record, Outcome outcome)
+            throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.submit(() -> {
+                while (System.nanoTime() < end) {
+                    send(requests.get(), System.nanoTime(), record, outcome);
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private void runOpen(Supplier<HttpRequest> requests, long start, long end, boolean record, Outcome outcome)
+            throws InterruptedException {
+        // File non bornée : si le serveur ralentit, l'attente fait partie de la latence mesurée
+        ExecutorService senders = Executors.newFixedThreadPool(concurrency);
+        long interval = (long) (1e9 / ratePerSecond);
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+            long scheduled = intended;
+            senders.submit(() -> send(requests.get(), scheduled, record, outcome));
+        }
+        senders.shutdown();
+        senders.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonThreads() {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "load-client");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private void send(HttpRequest request, long startNanos, boolean record, Outcome outcome) {
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() >= 400) outcome.errors.incrementAndGet();
+        } catch (Exception e) {
+            outcome.errors.incrementAndGet();
+        }
+        if (record) {
+            outcome.histogram.record((System.nanoTime() - startNanos) / 1000);
+        }
+    }
+}
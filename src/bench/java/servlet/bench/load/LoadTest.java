@@ -0,0 +1,139 @@
+package servlet.bench.load;
+
+import servlet.bench.app.BenchController;
+import servlet.bench.support.BenchEnvironment;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Test de charge de bout en bout : le framework tourne dans un serveur HTTP embarqué sur localhost
+ * (FrameworkInitializer + controllers d'exemple) et chaque scénario est chargé séparément.
+ * Rapporte p50/p99/p999 par route et écrit, si demandé, un histogramme .hgrm par route.
+ *
+ * Propriétés système :
+ * - load.mode        : closed (défaut) ou open
+ * - load.concurrency : clients simultanés en boucle fermée / envois simultanés max en boucle ouverte (défaut 16)
+ * - load.rate        : requêtes/s par scénario en boucle ouverte (défaut 500)
+ * - load.warmup      : durée du préchauffage en secondes (défaut 5)
+ * - load.duration    : durée de la mesure en secondes (défaut 20)
+ * - load.serverThreads : threads du serveur embarqué (défaut 32)
+ * - load.scenarios   : expression régulière sur le nom des scénarios
+ * - load.out         : répertoire où écrire les fichiers .hgrm
+ */
+public final class LoadTest {
+
+    private static final String BOUNDARY = "----load-test-boundary";
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadGenerator.Mode mode = LoadGenerator.Mode.valueOf(System.getProperty("load.mode", "closed").toUpperCase(Locale.ROOT));
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        double rate = Double.parseDouble(System.getProperty("load.rate", "500"));
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 5L));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 20L));
+        Pattern filter = Pattern.compile(System.getProperty("load.scenarios", ".*"));
+        String out = System.getProperty("load.out");
+
+        Path documentRoot = Files.createTempDirectory("load-webapp");
+        Files.createDirectories(documentRoot.resolve("static"));
+        Files.write(documentRoot.resolve("static/app.css"), ".row{margin:0}\n".repeat(1500).getBytes(StandardCharsets.UTF_8));
+
+        BenchEnvironment environment = BenchEnvironment.builder()
+                .documentRoot(documentRoot)
+                .dispatcher("default", new StaticFileDispatcher(documentRoot))
+                .controllers(BenchController.class)
+                .build();
+
+        try (EmbeddedServer server = new EmbeddedServer(environment, Integer.getInteger("load.serverThreads", 32))) {
+            String base = server.baseUrl();
+            LoadGenerator generator = new LoadGenerator(mode, concurrency, rate);
+            Map<String, LoadGenerator.Outcome> results = new LinkedHashMap<>();
+
+            for (Map.Entry<String, Supplier<HttpRequest>> scenario : scenarios(base).entrySet()) {
+                if (!filter.matcher(scenario.getKey()).find()) continue;
+
+                System.out.printf(Locale.ROOT, "# %s (%s, %d clients%s)%n", scenario.getKey(), mode,
+                        concurrency, mode == LoadGenerator.Mode.OPEN ? ", " + rate + " req/s" : "");
+                generator.run(scenario.getValue(), warmup, false);
+                LoadGenerator.Outcome outcome = generator.run(scenario.getValue(), duration, true);
+                results.put(scenario.getKey(), outcome);
+
+                if (out != null) {
+                    Path file = Paths.get(out).resolve(scenario.getKey().replaceAll("[^A-Za-z0-9._-]+", "_") + ".hgrm");
+                    Files.createDirectories(file.getParent());
+                    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                        outcome.histogram.writePercentileDistribution(writer);
+                    }
+                }
+            }
+
+            report(results);
+        }
+    }
+
+    private static Map<String, Supplier<HttpRequest>> scenarios(String base) throws IOException {
+        Map<String, Supplier<HttpRequest>> scenarios = new LinkedHashMap<>();
+
+        scenarios.put("json.small GET /api/items/small", () -> get(base + "/api/items/small"));
+        scenarios.put("json.large GET /api/items/large", () -> get(base + "/api/items/large"));
+
+        String form = "name=Ada&age=36&active=on&birthDate=1815-12-10&address.city=Paris&address.zip=75011"
+                + "&tags%5B%5D=math&tags%5B%5D=engine";
+        scenarios.put("form POST /people", () -> HttpRequest.newBuilder(URI.create(base + "/people"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build());
+
+        byte[] multipart = multipartBody("fichier", "report.bin", new byte[64 * 1024]);
+        scenarios.put("upload POST /upload", () -> HttpRequest.newBuilder(URI.create(base + "/upload"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart))
+                .build());
+
+        scenarios.put("static GET /static/app.css", () -> get(base + "/static/app.css"));
+        return scenarios;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static byte[] multipartBody(String field, String fileName, byte[] content) {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        byte[] body = new byte[head.length + content.length + tail.length];
+        System.arraycopy(head, 0, body, 0, head.length);
+        System.arraycopy(content, 0, body, head.length, content.length);
+        System.arraycopy(tail, 0, body, head.length + content.length, tail.length);
+        return body;
+    }
+
+    private static void report(Map<String, LoadGenerator.Outcome> results) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-36s %10s %8s %10s %10s %10s %10s%n",
+                "Route", "req/s", "erreurs", "p50 (ms)", "p99 (ms)", "p999 (ms)", "max (ms)");
+        results.forEach((route, outcome) -> System.out.printf(Locale.ROOT,
+                "%-36s %,10.0f %8d %10.3f %10.3f %10.3f %10.3f%n",
+                route, outcome.throughput(), outcome.errors.get(),
+                outcome.histogram.percentile(50) / 1000.0,
+                outcome.histogram.percentile(99) / 1000.0,
+                outcome.histogram.percentile(99.9) / 1000.0,
+                outcome.histogram.getMax() / 1000.0));
+    }
+}
@@ -0,0 +1,39 @@
+package servlet.bench.load;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Servlet "default" simulée : sert les fichiers du documentRoot
+final class StaticFileDispatcher implements RequestDispatcher {
+
+    private final Path documentRoot;
+
+    StaticFileDispatcher(Path documentRoot) {
+        this.documentRoot = documentRoot;
+    }
+
+    @Override
+    public void forward(ServletRequest request, ServletResponse response) throws IOException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        String path = req.getRequestURI().substring(req.getContextPath().length());
+        Path file = documentRoot.resolve(path.substring(1)).normalize();
+        if (!file.startsWith(documentRoot) || !Files.isRegularFile(file)) {
+            ((jakarta.servlet.http.HttpServletResponse) response).sendError(404);
+            return;
+        }
+        String mime = Files.probeContentType(file);
+        response.setContentType(mime != null ? mime : "application/octet-stream");
+        Files.copy(file, response.getOutputStream());
+    }
+
+    @Override
+    public void include(ServletRequest request, ServletResponse response) throws IOException {
+        forward(request, response);
+    }
+}
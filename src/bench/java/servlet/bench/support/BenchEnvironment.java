@@ -0,0 +1,153 @@
+package servlet.bench.support;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.DispatcherServlet;
+import servlet.FrameworkInitializer;
+import servlet.util.ControllerInfo;
+import servlet.util.PathPattern;
+import servlet.util.routing.RouteTable;
+import servlet.util.routing.RouteTableHolder;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Framework démarré sans conteneur : ServletContext en mémoire, FrameworkInitializer
+ * exécuté normalement, puis DispatcherServlet initialisé et invocable directement.
+ */
+public class BenchEnvironment {
+
+    private final InMemoryServletContext context;
+    private final DispatcherServlet servlet = new DispatcherServlet();
+
+    private BenchEnvironment(InMemoryServletContext context) {
+        this.context = context;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public InMemoryServletContext getContext() { return context; }
+
+    public DispatcherServlet getServlet() { return servlet; }
+
+    public InMemoryRequest request(String method, String path) {
+        return new InMemoryRequest(context, method, path);
+    }
+
+    // Traite une requête de bout en bout, comme le ferait le conteneur
+    public void dispatch(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        servlet.service(req, resp);
+    }
+
+    public static final class Builder {
+        private String contextPath = "/app";
+        private Path documentRoot;
+        private final Map<String, String> initParameters = new LinkedHashMap<>();
+        private Class<?>[] controllers = new Class<?>[0];
+        private final Map<String, RequestDispatcher> dispatchers = new LinkedHashMap<>();
+        private int syntheticRoutes;
+
+        public Builder contextPath(String contextPath) {
+            this.contextPath = contextPath;
+            return this;
+        }
+
+        public Builder documentRoot(Path documentRoot) {
+            this.documentRoot = documentRoot;
+            return this;
+        }
+
+        public Builder initParameter(String name, String value) {
+            initParameters.put(name, value);
+            return this;
+        }
+
+        public Builder controllers(Class<?>... controllers) {
+            this.controllers = controllers;
+            return this;
+        }
+
+        // Dispatcher nommé ("default" pour les fichiers statiques) ou associé à un chemin ("*" = tous)
+        public Builder dispatcher(String name, RequestDispatcher dispatcher) {
+            dispatchers.put(name, dispatcher);
+            return this;
+        }
+
+        // Routes supplémentaires "/generated/r{i}/{id}" pour mesurer le coût du routage selon la taille de la table
+        public Builder syntheticRoutes(int count) {
+            this.syntheticRoutes = count;
+            return this;
+        }
+
+        public BenchEnvironment build() throws ServletException {
+            InMemoryServletContext context = new InMemoryServletContext(contextPath, documentRoot);
+            initParameters.forEach(context::setInitParameter);
+            context.registerClasses(controllers);
+            context.registerDispatcher("default", new FixedContentDispatcher("static"));
+            dispatchers.forEach(context::registerDispatcher);
+
+            new FrameworkInitializer().contextInitialized(new ServletContextEvent(context));
+            addSyntheticRoutes(context);
+
+            BenchEnvironment environment = new BenchEnvironment(context);
+            environment.servlet.init(new ServletConfig() {
+                @Override
+                public String getServletName() { return "dispatcher"; }
+
+                @Override
+                public ServletContext getServletContext() { return context; }
+
+                @Override
+                public String getInitParameter(String name) { return null; }
+
+                @Override
+                public Enumeration<String> getInitParameterNames() { return Collections.emptyEnumeration(); }
+            });
+            return environment;
+        }
+
+        private void addSyntheticRoutes(ServletContext context) {
+            if (syntheticRoutes <= 0) return;
+            RouteTableHolder holder = (RouteTableHolder) context.getAttribute("routeTableHolder");
+            Map<PathPattern, ControllerInfo> routes = new LinkedHashMap<>();
+            Method target = SyntheticRoute.METHOD;
+            for (int i = 0; i < syntheticRoutes; i++) {
+                PathPattern pattern = new PathPattern("/generated/r" + i + "/{id}", "GET");
+                routes.put(pattern, new ControllerInfo(SyntheticRoute.class, target, pattern));
+            }
+            // Trois segments dont deux littéraux : plus spécifiques que /users/{id}, donc testées avant elle
+            routes.putAll(holder.get().getRoutes());
+            holder.set(new RouteTable(routes, holder.get().getExceptionHandlers()));
+        }
+    }
+
+    // Cible des routes synthétiques
+    public static class SyntheticRoute {
+        static final Method METHOD;
+
+        static {
+            try {
+                METHOD = SyntheticRoute.class.getMethod("handle");
+            } catch (NoSuchMethodException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        public String handle() {
+            return "synthetic";
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package servlet.bench.support;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Writer de réponse réutilisable : le contenu est compté puis jeté, sans allocation.
+ * close() ne ferme rien, pour que le même writer serve à toutes les invocations.
+ */
+public final class DiscardWriter extends PrintWriter {
+
+    private final Sink sink;
+
+    public DiscardWriter() {
+        this(new Sink());
+    }
+
+    private DiscardWriter(Sink sink) {
+        super(sink, false);
+        this.sink = sink;
+    }
+
+    // Nombre de caractères écrits depuis la dernière remise à zéro
+    public long getCount() {
+        return sink.count;
+    }
+
+    public void reset() {
+        sink.count = 0;
+    }
+
+    // Contenu conservé seulement si demandé (vérification des scénarios)
+    public void capture(boolean enabled) {
+        sink.capture = enabled ? new StringBuilder() : null;
+    }
+
+    public String captured() {
+        return sink.capture == null ? "" : sink.capture.toString();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private static final class Sink extends Writer {
+        private long count;
+        private StringBuilder capture;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+            if (capture != null) capture.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+            if (capture != null) capture.append(str, off, off + len);
+        }
+
+        @Override
+        public void write(int c) {
+            count++;
+            if (capture != null) capture.append((char) c);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
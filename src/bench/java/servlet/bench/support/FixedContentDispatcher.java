@@ -0,0 +1,27 @@
+package servlet.bench.support;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+
+// Dispatcher simulé (servlet "default", JSP...) : écrit un contenu fixe
+public class FixedContentDispatcher implements RequestDispatcher {
+
+    private final String content;
+
+    public FixedContentDispatcher(String content) {
+        this.content = content;
+    }
+
+    @Override
+    public void forward(ServletRequest request, ServletResponse response) throws IOException {
+        response.getWriter().write(content);
+    }
+
+    @Override
+    public void include(ServletRequest request, ServletResponse response) throws IOException {
+        response.getWriter().write(content);
+    }
+}
@@ -0,0 +1,65 @@
+package servlet.bench.support;
+
+import jakarta.servlet.http.Part;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Partie multipart en mémoire (champ de formulaire ou fichier)
+public class InMemoryPart implements Part {
+
+    private final String name;
+    private final String submittedFileName;
+    private final byte[] content;
+    private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    public InMemoryPart(String name, String submittedFileName, String contentType, byte[] content) {
+        this.name = name;
+        this.submittedFileName = submittedFileName;
+        this.content = content;
+        headers.put("Content-Disposition", "form-data; name=\"" + name + "\""
+                + (submittedFileName != null ? "; filename=\"" + submittedFileName + "\"" : ""));
+        if (contentType != null) headers.put("Content-Type", contentType);
+    }
+
+    @Override
+    public InputStream getInputStream() { return new ByteArrayInputStream(content); }
+
+    @Override
+    public String getContentType() { return headers.get("Content-Type"); }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public String getSubmittedFileName() { return submittedFileName; }
+
+    @Override
+    public long getSize() { return content.length; }
+
+    @Override
+    public void write(String fileName) throws IOException { Files.write(Paths.get(fileName), content); }
+
+    @Override
+    public void delete() {}
+
+    @Override
+    public String getHeader(String name) { return headers.get(name); }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        String value = headers.get(name);
+        return value == null ? Collections.emptyList() : List.of(value);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() { return headers.keySet(); }
+}
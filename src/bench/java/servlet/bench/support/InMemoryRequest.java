@@ -0,0 +1,274 @@
+package servlet.bench.support;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.Part;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Requête HTTP en mémoire, réutilisable d'une invocation à l'autre (reset() vide les attributs).
+ * Seules les méthodes utilisées par le framework sont simulées ; les autres lèvent
+ * UnsupportedOperationException.
+ */
+public class InMemoryRequest extends HttpServletRequestWrapper {
+
+    private final InMemoryServletContext context;
+    private final String method;
+    private final String requestURI;
+    private final Map<String, String[]> parameters = new LinkedHashMap<>();
+    private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final List<Cookie> cookies = new ArrayList<>();
+    private final List<Part> parts = new ArrayList<>();
+    private Map<String, String[]> parameterView = Collections.unmodifiableMap(parameters);
+    private InMemorySession session;
+    private byte[] body = new byte[0];
+    private String remoteAddr = "127.0.0.1";
+
+    public InMemoryRequest(InMemoryServletContext context, String method, String path) {
+        super(Unsupported.proxy(HttpServletRequest.class));
+        this.context = context;
+        this.method = method;
+        this.requestURI = context.getContextPath() + path;
+    }
+
+    // --- Construction ---
+
+    public InMemoryRequest param(String name, String... values) {
+        parameters.put(name, values);
+        parameterView = Collections.unmodifiableMap(parameters);
+        return this;
+    }
+
+    public InMemoryRequest header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public InMemoryRequest cookie(String name, String value) {
+        cookies.add(new Cookie(name, value));
+        return this;
+    }
+
+    public InMemoryRequest session(InMemorySession session) {
+        this.session = session;
+        return this;
+    }
+
+    public InMemoryRequest body(byte[] body, String contentType) {
+        this.body = body;
+        headers.put("Content-Type", contentType);
+        return this;
+    }
+
+    public InMemoryRequest part(Part part) {
+        parts.add(part);
+        return this;
+    }
+
+    public InMemoryRequest remoteAddr(String remoteAddr) {
+        this.remoteAddr = remoteAddr;
+        return this;
+    }
+
+    // Remise à zéro de l'état modifié par le traitement d'une requête
+    public void reset() {
+        attributes.clear();
+    }
+
+    // --- HttpServletRequest ---
+
+    @Override
+    public String getMethod() { return method; }
+
+    @Override
+    public String getRequestURI() { return requestURI; }
+
+    @Override
+    public StringBuffer getRequestURL() { return new StringBuffer("http://localhost").append(requestURI); }
+
+    @Override
+    public String getContextPath() { return context.getContextPath(); }
+
+    @Override
+    public String getServletPath() { return ""; }
+
+    @Override
+    public String getPathInfo() { return requestURI.substring(context.getContextPath().length()); }
+
+    @Override
+    public String getQueryString() { return null; }
+
+    @Override
+    public ServletContext getServletContext() { return context; }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public String[] getParameterValues(String name) { return parameters.get(name); }
+
+    @Override
+    public Enumeration<String> getParameterNames() { return Collections.enumeration(parameters.keySet()); }
+
+    @Override
+    public Map<String, String[]> getParameterMap() { return parameterView; }
+
+    @Override
+    public String getHeader(String name) { return headers.get(name); }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = headers.get(name);
+        return value == null ? Collections.emptyEnumeration() : Collections.enumeration(List.of(value));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() { return Collections.enumeration(headers.keySet()); }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = headers.get(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public String getContentType() { return headers.get("Content-Type"); }
+
+    @Override
+    public int getContentLength() { return body.length; }
+
+    @Override
+    public long getContentLengthLong() { return body.length; }
+
+    @Override
+    public String getCharacterEncoding() { return "UTF-8"; }
+
+    @Override
+    public DispatcherType getDispatcherType() { return DispatcherType.REQUEST; }
+
+    @Override
+    public void setCharacterEncoding(String env) {}
+
+    @Override
+    public Cookie[] getCookies() { return cookies.isEmpty() ? null : cookies.toArray(new Cookie[0]); }
+
+    @Override
+    public Object getAttribute(String name) { return attributes.get(name); }
+
+    @Override
+    public Enumeration<String> getAttributeNames() { return Collections.enumeration(attributes.keySet()); }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) { attributes.remove(name); }
+
+    @Override
+    public HttpSession getSession() { return getSession(true); }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if ((session == null || !session.isValid()) && create) {
+            session = new InMemorySession(Long.toHexString(System.nanoTime()), context);
+        }
+        return session != null && session.isValid() ? session : null;
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) { return context.getRequestDispatcher(path); }
+
+    @Override
+    public String getRemoteAddr() { return remoteAddr; }
+
+    @Override
+    public String getRemoteHost() { return remoteAddr; }
+
+    @Override
+    public String getScheme() { return "http"; }
+
+    @Override
+    public String getServerName() { return "localhost"; }
+
+    @Override
+    public int getServerPort() { return 80; }
+
+    @Override
+    public String getProtocol() { return "HTTP/1.1"; }
+
+    @Override
+    public boolean isSecure() { return false; }
+
+    @Override
+    public boolean isAsyncStarted() { return false; }
+
+    @Override
+    public boolean isAsyncSupported() { return false; }
+
+    @Override
+    public Collection<Part> getParts() { return Collections.unmodifiableList(parts); }
+
+    @Override
+    public Part getPart(String name) {
+        for (Part part : parts) {
+            if (part.getName().equals(name)) return part;
+        }
+        return null;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public int read() { return in.read(); }
+
+            @Override
+            public int read(byte[] b, int off, int len) { return in.read(b, off, len); }
+
+            @Override
+            public boolean isFinished() { return in.available() == 0; }
+
+            @Override
+            public boolean isReady() { return true; }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package servlet.bench.support;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Réponse HTTP en mémoire, réutilisable : le corps est compté puis jeté (voir DiscardWriter).
+ * reset() remet le statut, les headers et les compteurs à zéro entre deux invocations.
+ */
+public class InMemoryResponse extends HttpServletResponseWrapper {
+
+    private final DiscardWriter writer = new DiscardWriter();
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private long bytesWritten;
+    private int status = SC_OK;
+    private String contentType;
+    private String characterEncoding = "UTF-8";
+    private String redirectLocation;
+    private boolean committed;
+    private ByteArrayOutputStream capturedBytes;
+
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+            bytesWritten++;
+            if (capturedBytes != null) capturedBytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytesWritten += len;
+            if (capturedBytes != null) capturedBytes.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() { return true; }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+    };
+
+    public InMemoryResponse() {
+        super(Unsupported.proxy(HttpServletResponse.class));
+    }
+
+    @Override
+    public void reset() {
+        writer.reset();
+        if (capturedBytes != null) capturedBytes.reset();
+        headers.clear();
+        bytesWritten = 0;
+        status = SC_OK;
+        contentType = null;
+        redirectLocation = null;
+        committed = false;
+    }
+
+    // Conserver le corps écrit (pour vérifier un scénario avant de le mesurer)
+    public void capture(boolean enabled) {
+        writer.capture(enabled);
+        capturedBytes = enabled ? new ByteArrayOutputStream() : null;
+    }
+
+    // Corps écrit par le writer puis par le flux binaire (décodé en UTF-8)
+    public String getCapturedBody() {
+        return capturedBytes == null ? writer.captured() : writer.captured() + capturedBytes.toString(StandardCharsets.UTF_8);
+    }
+
+    public byte[] getCapturedBytes() { return capturedBytes == null ? new byte[0] : capturedBytes.toByteArray(); }
+
+    public long getBodyLength() { return writer.getCount() + bytesWritten; }
+
+    public String getRedirectLocation() { return redirectLocation; }
+
+    @Override
+    public PrintWriter getWriter() { return writer; }
+
+    @Override
+    public ServletOutputStream getOutputStream() { return outputStream; }
+
+    @Override
+    public void setStatus(int sc) { this.status = sc; }
+
+    @Override
+    public int getStatus() { return status; }
+
+    @Override
+    public void sendError(int sc) { sendError(sc, null); }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        this.status = sc;
+        this.committed = true;
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        this.status = SC_FOUND;
+        this.redirectLocation = location;
+        this.committed = true;
+    }
+
+    @Override
+    public void setContentType(String type) { this.contentType = type; }
+
+    @Override
+    public String getContentType() { return contentType; }
+
+    @Override
+    public void setCharacterEncoding(String charset) { this.characterEncoding = charset; }
+
+    @Override
+    public String getCharacterEncoding() { return characterEncoding; }
+
+    @Override
+    public void setContentLength(int len) {}
+
+    @Override
+    public void setContentLengthLong(long len) {}
+
+    @Override
+    public void setHeader(String name, String value) {
+        List<String> values = new ArrayList<>(1);
+        values.add(value);
+        headers.put(name, values);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.computeIfAbsent(name, n -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) { setHeader(name, Integer.toString(value)); }
+
+    @Override
+    public void addIntHeader(String name, int value) { addHeader(name, Integer.toString(value)); }
+
+    @Override
+    public void setDateHeader(String name, long date) { setHeader(name, Long.toString(date)); }
+
+    @Override
+    public void addDateHeader(String name, long date) { addHeader(name, Long.toString(date)); }
+
+    @Override
+    public boolean containsHeader(String name) { return headers.containsKey(name); }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? List.of() : values;
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() { return headers.keySet(); }
+
+    @Override
+    public void flushBuffer() { committed = true; }
+
+    @Override
+    public boolean isCommitted() { return committed; }
+
+    @Override
+    public void resetBuffer() { writer.reset(); }
+
+    @Override
+    public void setBufferSize(int size) {}
+
+    @Override
+    public int getBufferSize() { return 8192; }
+
+    @Override
+    public String encodeURL(String url) { return url; }
+
+    @Override
+    public String encodeRedirectURL(String url) { return url; }
+}
@@ -0,0 +1,282 @@
+package servlet.bench.support;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterRegistration;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRegistration;
+import jakarta.servlet.SessionCookieConfig;
+import jakarta.servlet.SessionTrackingMode;
+import jakarta.servlet.descriptor.JspConfigDescriptor;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EventListener;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ServletContext en mémoire pour les bancs de mesure : attributs et paramètres d'init,
+ * ressources lues dans un répertoire local (documentRoot), dispatchers simulés.
+ * Les fonctions d'enregistrement dynamique (servlets, filtres, listeners) ne sont pas simulées.
+ */
+public class InMemoryServletContext implements ServletContext {
+
+    private final String contextPath;
+    private final Path documentRoot;
+    private final Map<String, String> initParameters = new HashMap<>();
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final Map<String, RequestDispatcher> dispatchers = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> classResources = new HashMap<>();
+
+    public InMemoryServletContext(String contextPath, Path documentRoot) {
+        this.contextPath = contextPath;
+        this.documentRoot = documentRoot;
+    }
+
+    /**
+     * Déclare le dispatcher renvoyé pour un chemin (JSP simulée, servlet "default"...)
+     * 
+     * @param path       Le chemin de la ressource, ou le nom du dispatcher nommé
+     * @param dispatcher Le dispatcher à renvoyer
+     */
+    public void registerDispatcher(String path, RequestDispatcher dispatcher) {
+        dispatchers.put(path, dispatcher);
+    }
+
+    /**
+     * Expose des classes comme si elles étaient déployées sous /WEB-INF/classes,
+     * pour que FrameworkInitializer les découvre par son scan habituel
+     * 
+     * @param classes Les classes à exposer (controllers notamment)
+     */
+    public void registerClasses(Class<?>... classes) {
+        for (Class<?> clazz : classes) {
+            String child = "/WEB-INF/classes/" + clazz.getName().replace('.', '/') + ".class";
+            String parent = child.substring(0, child.lastIndexOf('/') + 1);
+            while (!parent.equals("/WEB-INF/")) {
+                classResources.computeIfAbsent(parent, p -> new java.util.TreeSet<>()).add(child);
+                child = parent;
+                parent = parent.substring(0, parent.lastIndexOf('/', parent.length() - 2) + 1);
+            }
+        }
+    }
+
+    @Override
+    public String getContextPath() { return contextPath; }
+
+    @Override
+    public ServletContext getContext(String uripath) { return this; }
+
+    @Override
+    public int getMajorVersion() { return 6; }
+
+    @Override
+    public int getMinorVersion() { return 0; }
+
+    @Override
+    public int getEffectiveMajorVersion() { return 6; }
+
+    @Override
+    public int getEffectiveMinorVersion() { return 0; }
+
+    @Override
+    public String getMimeType(String file) { return null; }
+
+    @Override
+    public Set<String> getResourcePaths(String path) { return classResources.get(path); }
+
+    @Override
+    public URL getResource(String path) {
+        Path file = resolve(path);
+        try {
+            return file != null && Files.isRegularFile(file) ? file.toUri().toURL() : null;
+        } catch (java.net.MalformedURLException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String path) {
+        Path file = resolve(path);
+        try {
+            return file != null && Files.isRegularFile(file) ? Files.newInputStream(file) : null;
+        } catch (java.io.IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        RequestDispatcher dispatcher = dispatchers.get(path);
+        return dispatcher != null ? dispatcher : dispatchers.get("*");
+    }
+
+    @Override
+    public RequestDispatcher getNamedDispatcher(String name) { return dispatchers.get(name); }
+
+    @Override
+    public void log(String msg) {}
+
+    @Override
+    public void log(String message, Throwable throwable) {}
+
+    @Override
+    public String getRealPath(String path) {
+        Path file = resolve(path);
+        if (file == null) return null;
+        // Comme Tomcat : un répertoire est renvoyé avec son séparateur final
+        return Files.isDirectory(file) ? file.toString() + java.io.File.separator : file.toString();
+    }
+
+    @Override
+    public String getServerInfo() { return "in-memory"; }
+
+    @Override
+    public String getInitParameter(String name) { return initParameters.get(name); }
+
+    @Override
+    public java.util.Enumeration<String> getInitParameterNames() {
+        return Collections.enumeration(initParameters.keySet());
+    }
+
+    @Override
+    public boolean setInitParameter(String name, String value) {
+        return initParameters.putIfAbsent(name, value) == null;
+    }
+
+    @Override
+    public Object getAttribute(String name) { return attributes.get(name); }
+
+    @Override
+    public java.util.Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object object) {
+        if (object == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, object);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) { attributes.remove(name); }
+
+    @Override
+    public String getServletContextName() { return "bench"; }
+
+    @Override
+    public ClassLoader getClassLoader() { return getClass().getClassLoader(); }
+
+    @Override
+    public String getVirtualServerName() { return "localhost"; }
+
+    @Override
+    public int getSessionTimeout() { return 30; }
+
+    @Override
+    public void setSessionTimeout(int sessionTimeout) {}
+
+    @Override
+    public String getRequestCharacterEncoding() { return "UTF-8"; }
+
+    @Override
+    public void setRequestCharacterEncoding(String encoding) {}
+
+    @Override
+    public String getResponseCharacterEncoding() { return "UTF-8"; }
+
+    @Override
+    public void setResponseCharacterEncoding(String encoding) {}
+
+    // --- Enregistrement dynamique : non simulé ---
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, String className) { throw unsupported(); }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, Servlet servlet) { throw unsupported(); }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, Class<? extends Servlet> servletClass) { throw unsupported(); }
+
+    @Override
+    public ServletRegistration.Dynamic addJspFile(String servletName, String jspFile) { throw unsupported(); }
+
+    @Override
+    public <T extends Servlet> T createServlet(Class<T> clazz) { throw unsupported(); }
+
+    @Override
+    public ServletRegistration getServletRegistration(String servletName) { return null; }
+
+    @Override
+    public Map<String, ? extends ServletRegistration> getServletRegistrations() { return Collections.emptyMap(); }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, String className) { throw unsupported(); }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, Filter filter) { throw unsupported(); }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, Class<? extends Filter> filterClass) { throw unsupported(); }
+
+    @Override
+    public <T extends Filter> T createFilter(Class<T> clazz) { throw unsupported(); }
+
+    @Override
+    public FilterRegistration getFilterRegistration(String filterName) { return null; }
+
+    @Override
+    public Map<String, ? extends FilterRegistration> getFilterRegistrations() { return Collections.emptyMap(); }
+
+    @Override
+    public SessionCookieConfig getSessionCookieConfig() { throw unsupported(); }
+
+    @Override
+    public void setSessionTrackingModes(Set<SessionTrackingMode> sessionTrackingModes) {}
+
+    @Override
+    public Set<SessionTrackingMode> getDefaultSessionTrackingModes() { return Collections.emptySet(); }
+
+    @Override
+    public Set<SessionTrackingMode> getEffectiveSessionTrackingModes() { return Collections.emptySet(); }
+
+    @Override
+    public void addListener(String className) { throw unsupported(); }
+
+    @Override
+    public <T extends EventListener> void addListener(T t) { throw unsupported(); }
+
+    @Override
+    public void addListener(Class<? extends EventListener> listenerClass) { throw unsupported(); }
+
+    @Override
+    public <T extends EventListener> T createListener(Class<T> clazz) { throw unsupported(); }
+
+    @Override
+    public JspConfigDescriptor getJspConfigDescriptor() { return null; }
+
+    @Override
+    public void declareRoles(String... roleNames) {}
+
+    private Path resolve(String path) {
+        if (documentRoot == null || path == null) return null;
+        String relative = path.startsWith("/") ? path.substring(1) : path;
+        Path file = documentRoot.resolve(relative).normalize();
+        return file.startsWith(documentRoot) ? file : null;
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Non simulé par le banc de test");
+    }
+}
@@ -0,0 +1,72 @@
+package servlet.bench.support;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Session HTTP en mémoire, sans expiration
+public class InMemorySession implements HttpSession {
+
+    private final String id;
+    private final ServletContext context;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final long creationTime = System.currentTimeMillis();
+    private int maxInactiveInterval = 1800;
+    private boolean valid = true;
+
+    public InMemorySession(String id, ServletContext context) {
+        this.id = id;
+        this.context = context;
+    }
+
+    public boolean isValid() { return valid; }
+
+    @Override
+    public long getCreationTime() { return creationTime; }
+
+    @Override
+    public String getId() { return id; }
+
+    @Override
+    public long getLastAccessedTime() { return creationTime; }
+
+    @Override
+    public ServletContext getServletContext() { return context; }
+
+    @Override
+    public void setMaxInactiveInterval(int interval) { this.maxInactiveInterval = interval; }
+
+    @Override
+    public int getMaxInactiveInterval() { return maxInactiveInterval; }
+
+    @Override
+    public Object getAttribute(String name) { return attributes.get(name); }
+
+    @Override
+    public Enumeration<String> getAttributeNames() { return Collections.enumeration(attributes.keySet()); }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) { attributes.remove(name); }
+
+    @Override
+    public void invalidate() {
+        attributes.clear();
+        valid = false;
+    }
+
+    @Override
+    public boolean isNew() { return false; }
+}
@@ -0,0 +1,18 @@
+package servlet.bench.support;
+
+import java.lang.reflect.Proxy;
+
+// Implémentation d'interface dont toutes les méthodes échouent : sert de cible aux wrappers de la Servlet API
+public final class Unsupported {
+
+    private Unsupported() {}
+
+    @SuppressWarnings("unchecked")
+    public static <T> T proxy(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (method.getName().equals("toString")) return "Unsupported(" + type.getSimpleName() + ")";
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+                    + " n'est pas simulé par le banc de test");
+        });
+    }
+}
@@ -10,20 +10,57 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.servlet.http.Part;
 import servlet.util.ControllerInfo;
-import servlet.util.PathPattern;
+import servlet.util.batch.BatchProcessor;
+import servlet.util.body.BodyPipeline;
+import servlet.util.body.DeferredResponse;
+import servlet.util.codec.Codec;
+import servlet.util.codec.CodecRegistry;
+import servlet.util.projection.FieldProjection;
+import servlet.util.paging.Pagination;
+import servlet.util.preload.EarlyHints;
+import servlet.util.preload.PreloadHints;
 import servlet.util.cast.UtilCast;
 import servlet.util.controllers.ControllerMapping;
+import servlet.util.controllers.RequestContext;
+import servlet.util.exceptions.ClientErrorException;
+import servlet.util.exceptions.ErrorLogger;
+import servlet.util.exceptions.ErrorResponseWriter;
+import servlet.util.exceptions.ExceptionHandlerMethod;
+import servlet.util.exceptions.ExceptionHandlerRegistry;
+import servlet.util.limits.PermitRelease;
+import servlet.util.limits.RouteLimiter;
+import servlet.util.limits.RouteLimitsReport;
+import servlet.util.maps.RequestParameterMap;
+import servlet.util.monitoring.InFlightRequest;
+import servlet.util.monitoring.SlowRequestDetector;
+import servlet.util.monitoring.SlowRequestReport;
+import servlet.util.routing.PathParameters;
+import servlet.util.routing.RouteGroup;
+import servlet.util.routing.RouteTable;
+import servlet.util.routing.RouteTableHolder;
+import servlet.util.routing.RouteTableReport;
+import servlet.util.security.SecurityContext;
+import servlet.util.security.SecurityContextProvider;
+import servlet.util.session.SessionAttributeMap;
+import servlet.util.streaming.EventStreams;
+import servlet.util.tracing.OtlpJsonWriter;
+import servlet.util.tracing.RequestTrace;
+import servlet.util.tracing.Span;
+import servlet.util.tracing.SuspendedTrace;
+import servlet.util.tracing.Tracer;
+import servlet.util.session.SessionWriteBack;
 import servlet.util.uploads.FileManager;
+import servlet.util.views.ViewResolver;
 import servlet.annotation.parameters.PathParam;
+import servlet.annotation.parameters.RequestBody;
 import servlet.annotation.parameters.RequestParam;
 import servlet.annotation.parameters.SessionParam;
 import servlet.annotation.security.Authorized;
 import servlet.models.ApiResponse;
 import servlet.models.ModelView;
+import servlet.models.PageRequest;
 import servlet.annotation.json.ResponseJSON;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -44,14 +81,54 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Flow;
 
 public class DispatcherServlet extends HttpServlet {
 
     private RequestDispatcher defaultDispatcher;
+    private SecurityContextProvider securityContextProvider;
+    private ViewResolver viewResolver;
+    private String sessionDataKey;
+    private RouteTableHolder routeTableHolder;
+    private ErrorLogger errorLogger;
+    private String limitsPath;
+    private String routesPath;
+    private BatchProcessor batchProcessor;
+    private EventStreams eventStreams;
+    private BodyPipeline bodyPipeline;
+    private CodecRegistry codecs;
+    private FieldProjection fieldProjection;
+    private Pagination pagination;
+    private EarlyHints earlyHints;
+    private Tracer tracer;
+    private String tracesPath;
+    private SlowRequestDetector slowRequests;
+    private String slowPath;
+    private final ErrorResponseWriter errorWriter = new ErrorResponseWriter();
 
     @Override
     public void init() {
+        // Configuration lue une seule fois (préparée par FrameworkInitializer)
         defaultDispatcher = getServletContext().getNamedDispatcher("default");
+        securityContextProvider = (SecurityContextProvider) getServletContext()
+                .getAttribute("securityContextProvider");
+        viewResolver = (ViewResolver) getServletContext().getAttribute("viewResolver");
+        sessionDataKey = (String) getServletContext().getAttribute("sessionDataKey");
+        routeTableHolder = (RouteTableHolder) getServletContext().getAttribute("routeTableHolder");
+        errorLogger = (ErrorLogger) getServletContext().getAttribute("errorLogger");
+        limitsPath = (String) getServletContext().getAttribute("limitsPath");
+        routesPath = (String) getServletContext().getAttribute("routesPath");
+        batchProcessor = (BatchProcessor) getServletContext().getAttribute("batchProcessor");
+        eventStreams = (EventStreams) getServletContext().getAttribute("eventStreams");
+        bodyPipeline = (BodyPipeline) getServletContext().getAttribute("bodyPipeline");
+        codecs = (CodecRegistry) getServletContext().getAttribute("codecRegistry");
+        fieldProjection = (FieldProjection) getServletContext().getAttribute("fieldProjection");
+        pagination = (Pagination) getServletContext().getAttribute("pagination");
+        earlyHints = (EarlyHints) getServletContext().getAttribute("earlyHints");
+        tracer = (Tracer) getServletContext().getAttribute("tracer");
+        tracesPath = (String) getServletContext().getAttribute("tracesPath");
+        slowRequests = (SlowRequestDetector) getServletContext().getAttribute("slowRequests");
+        slowPath = (String) getServletContext().getAttribute("slowPath");
     }
 
     @Override
@@ -60,22 +137,141 @@ public class DispatcherServlet extends HttpServlet {
         String path = extractRequestPath(req);
         String httpMethod = req.getMethod();
 
-        // Vérification si la ressource demandée est un fichier statique
-        if (isStaticResource(path)) {
-            defaultServe(req, resp);
+        // Compteurs de refus des routes limitées (désactivé sans paramètre d'init limitsPath)
+        if (path.equals(limitsPath)) {
+            handleLimitsReport(resp);
             return;
         }
 
-        // Recherche du mapping controller correspondant au chemin
-        ControllerMapping mapping = findControllerMapping(path, httpMethod);
+        // Table de routage et compteurs par route (désactivé hors devMode sans paramètre d'init routesPath)
+        if (path.equals(routesPath)) {
+            handleRoutesReport(resp);
+            return;
+        }
 
-        if (mapping != null) {
-            // Traitement de la requête via le controller mappé
-            handleControllerRequest(req, resp, mapping);
-        } else {
+        // Derniers spans enregistrés, en OTLP/JSON (désactivé hors devMode sans paramètre d'init tracesPath)
+        if (path.equals(tracesPath)) {
+            handleTracesReport(req, resp);
+            return;
+        }
+
+        // Piles des requêtes lentes (désactivé hors devMode sans paramètre d'init slowPath)
+        if (path.equals(slowPath)) {
+            handleSlowReport(req, resp);
+            return;
+        }
+
+        // Lot de sous-requêtes (désactivé sans paramètre d'init batchPath)
+        if (batchProcessor != null && path.equals(batchProcessor.getPath())) {
+            handleBatch(req, resp);
+            return;
+        }
+
+        // Trace de la requête : phases mesurées, publiées à la fin du dispatch
+        RequestTrace trace = tracer != null ? tracer.start(req) : RequestTrace.NONE;
+        try {
+            if (dispatch(req, resp, path, httpMethod, trace) && tracer != null) {
+                tracer.suspend(trace);
+                // Lecture du corps en échec (400, 408, 413) : fin de l'async sans redispatch
+                try {
+                    req.getAsyncContext().addListener(new SuspendedTrace(tracer, trace, req, resp));
+                } catch (IllegalStateException e) {
+                    // Async déjà terminé : la trace est publiée tout de suite
+                    tracer.finishSuspended(trace, req, resp);
+                }
+                trace = null;
+            }
+        } finally {
+            if (tracer != null && trace != null) {
+                tracer.finish(trace, req, resp);
+            }
+        }
+    }
+
+    /**
+     * Sert une ressource statique ou aiguille la requête vers son controller
+     * 
+     * @param req        La requête HTTP
+     * @param resp       La réponse HTTP
+     * @param path       Le chemin de la requête
+     * @param httpMethod La méthode HTTP
+     * @param trace      La trace de la requête
+     * @return true si le traitement reprendra au redispatch ASYNC (corps lu sans bloquer)
+     */
+    private boolean dispatch(HttpServletRequest req, HttpServletResponse resp, String path, String httpMethod,
+            RequestTrace trace) throws ServletException, IOException {
+
+        // Vérification si la ressource demandée est un fichier statique
+        long phase = trace.clock();
+        boolean staticResource = isStaticResource(path);
+        trace.phase("static", phase);
+        if (staticResource) {
+            defaultServe(req, resp);
+            return false;
+        }
+
+        // Recherche du groupe de routes du chemin qui sert la méthode HTTP, à défaut du premier groupe du chemin
+        // (un seul instantané de la table par requête, même si elle est rechargée entre-temps)
+        phase = trace.clock();
+        RouteTable routeTable = routeTableHolder != null ? routeTableHolder.get() : null;
+        RouteGroup routes = findRouteGroup(routeTable, path, httpMethod);
+        if (routes == null) {
             // Aucun mapping trouvé : retour d'une erreur 404 personnalisée
             customServe(req, resp);
+            return false;
+        }
+
+        // OPTIONS sans route dédiée (dont preflight CORS) : réponse directe depuis la table de routage
+        if ("OPTIONS".equals(httpMethod) && routes.get(httpMethod) == null) {
+            handleOptions(req, resp, routeTable, path);
+            return false;
         }
+
+        // Action avec @RequestBody : corps lu sans bloquer, le traitement reprend au redispatch ASYNC
+        // (corps annoncé trop gros : 413 déjà écrit, la requête se termine ici)
+        ControllerInfo target = routes.get(httpMethod);
+        if (bodyPipeline != null && target != null && target.hasRequestBody()) {
+            BodyPipeline.ReadOutcome outcome = bodyPipeline.readAsync(req, resp);
+            if (outcome != BodyPipeline.ReadOutcome.NOT_STARTED) {
+                trace.phase("route", phase);
+                return outcome == BodyPipeline.ReadOutcome.SUSPENDED;
+            }
+        }
+        // Au redispatch, la réponse est produite en mémoire puis envoyée sans bloquer
+        HttpServletResponse out = bodyPipeline != null ? bodyPipeline.deferOutput(req, resp) : resp;
+
+        // Objets de travail de la requête, recyclés sur le thread
+        RequestContext context = RequestContext.acquire();
+        context.setTrace(trace);
+        try {
+            // Recherche du mapping controller correspondant à la méthode HTTP
+            ControllerMapping mapping = findControllerMapping(routes, path, httpMethod, context);
+            trace.phase("route", phase);
+
+            if (mapping != null) {
+                // Traitement de la requête via le controller mappé, suivi par le détecteur de requêtes lentes
+                // (sauf flux SSE, ouverts aussi longtemps que le client écoute)
+                InFlightRequest inFlight = slowRequests != null && !mapping.getControllerInfo().isStreaming()
+                        ? slowRequests.enter(mapping.getControllerInfo())
+                        : null;
+                try {
+                    handleControllerRequest(req, out, mapping, routeTable.getExceptionHandlers());
+                } finally {
+                    if (inFlight != null) {
+                        slowRequests.exit(inFlight);
+                    }
+                }
+            } else {
+                // Chemin connu mais méthode acceptée par aucun de ses motifs : 405, Allow de tous ces motifs
+                methodNotAllowed(req, out, routeTable.allowHeader(path));
+            }
+        } finally {
+            context.release();
+            if (bodyPipeline != null) {
+                bodyPipeline.finish(req, out);
+            }
+        }
+        return false;
     }
 
     /**
@@ -104,32 +300,42 @@ public class DispatcherServlet extends HttpServlet {
     }
 
     /**
-     * Recherche le mapping controller correspondant au chemin et méthode HTTP
+     * Recherche le groupe de routes du chemin qui sert la méthode HTTP
      * 
+     * @param routeTable L'instantané de la table de routage
      * @param path       Le chemin de la requête
-     * @param httpMethod La méthode HTTP (GET, POST, PUT, DELETE)
-     * @return Un objet ControllerMapping contenant les infos du controller, ou null
-     *         si non trouvé
+     * @param httpMethod La méthode HTTP de la requête
+     * @return Le groupe de routes (une action par méthode HTTP) qui sert la méthode, à défaut le premier
+     *         groupe du chemin, ou null si non trouvé
      */
-    private ControllerMapping findControllerMapping(String path, String httpMethod) {
-        Map<PathPattern, ControllerInfo> urlMap = (Map<PathPattern, ControllerInfo>) getServletContext()
-                .getAttribute("urlMap");
-
-        if (urlMap == null) {
+    private RouteGroup findRouteGroup(RouteTable routeTable, String path, String httpMethod) {
+        if (routeTable == null) {
             return null;
         }
 
-        // Parcours des patterns pour trouver une correspondance
-        for (Entry<PathPattern, ControllerInfo> entry : urlMap.entrySet()) {
-            PathPattern pattern = entry.getKey();
-            if (pattern.matches(path, httpMethod)) {
-                ControllerInfo info = entry.getValue();
-                Map<String, String> pathParams = pattern.extractParameters(path);
-                return new ControllerMapping(info, pathParams);
-            }
+        return routeTable.findGroup(path, httpMethod);
+    }
+
+    /**
+     * Recherche le mapping controller correspondant au chemin et méthode HTTP
+     * 
+     * @param routes     Le groupe de routes correspondant au chemin
+     * @param path       Le chemin de la requête
+     * @param httpMethod La méthode HTTP (GET, HEAD, POST, PUT, PATCH, DELETE...)
+     * @param context    Le contexte de la requête, qui fournit le mapping réutilisable
+     * @return Un objet ControllerMapping contenant les infos du controller, ou null
+     *         si la méthode n'est pas acceptée
+     */
+    private ControllerMapping findControllerMapping(RouteGroup routes, String path, String httpMethod,
+            RequestContext context) {
+        ControllerInfo info = routes.get(httpMethod);
+        if (info == null) {
+            return null;
         }
 
-        return null;
+        info.recordHit();
+        context.getTrace().route(info.getPathPattern().getPath(), info.getActionName());
+        return context.map(info, path);
     }
 
     /**
@@ -137,54 +343,265 @@ public class DispatcherServlet extends HttpServlet {
      * 
      * @param req     La requête HTTP
      * @param resp    La réponse HTTP
-     * @param mapping Le mapping contenant les informations du controller
+     * @param mapping           Le mapping contenant les informations du controller
+     * @param exceptionHandlers Les handlers d'exception de la table de routage courante
      */
-    private void handleControllerRequest(HttpServletRequest req, HttpServletResponse resp, ControllerMapping mapping)
-            throws ServletException, IOException {
+    private void handleControllerRequest(HttpServletRequest req, HttpServletResponse resp, ControllerMapping mapping,
+            ExceptionHandlerRegistry exceptionHandlers) throws ServletException, IOException {
 
         ControllerInfo info = mapping.getControllerInfo();
-        Method method = info.getMethod();
 
-        if(method.isAnnotationPresent(Authorized.class)) {
-            Authorized authAnnotation = method.getAnnotation(Authorized.class);
-            String[] allowedRoles = authAnnotation.roles();
+        // Headers CORS de la requête effective (avant toute écriture du corps)
+        String origin = req.getHeader("Origin");
+        if (origin != null && info.getCorsPolicy() != null) {
+            info.getCorsPolicy().applyToResponse(origin, resp);
+        }
 
-            HttpSession session = req.getSession();
-            String sessionRoleKey = (String) getServletContext().getAttribute("sessionRoleKey");
-            if (session == null || session.getAttribute(sessionRoleKey) == null) {
-                resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                resp.getWriter().println("Accès non autorisé : utilisateur non authentifié.");
-                return;
-            }
+        // Paramètre de chemin non convertible vers le type de l'argument : 400 sans instancier le controller
+        String invalidParam = info.findInvalidPathParam(mapping.getPathParams());
+        if (invalidParam != null) {
+            errorWriter.write(req, resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "Paramètre de chemin invalide : " + invalidParam,
+                    info.getMethod().isAnnotationPresent(ResponseJSON.class));
+            return;
+        }
+
+        // Contrôle d'admission de la route : débit puis concurrence
+        RouteLimiter limiter = info.getLimiter();
+        if (limiter == null) {
+            invokeController(req, resp, mapping, exceptionHandlers);
+            return;
+        }
+        if (!admit(req, resp, info, limiter)) {
+            return;
+        }
+        try {
+            invokeController(req, resp, mapping, exceptionHandlers);
+        } finally {
+            releaseWhenDone(req, resp, limiter);
+        }
+    }
 
-            String userRole = (String) session.getAttribute(sessionRoleKey);
-            if (allowedRoles.length > 0 && !Arrays.asList(allowedRoles).contains(userRole)) {
-                resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                resp.getWriter().println("Accès refusé : rôle utilisateur insuffisant.");
+    /**
+     * Libère la place de concurrence à la fin réelle de la requête : tout de suite pour une réponse
+     * synchrone, à la fin de l'async pour un flux SSE ou un envoi différé non bloquant
+     * 
+     * @param req     La requête HTTP
+     * @param resp    La réponse HTTP
+     * @param limiter Le limiteur de la route
+     */
+    private void releaseWhenDone(HttpServletRequest req, HttpServletResponse resp, RouteLimiter limiter) {
+        if (req.isAsyncStarted()) {
+            try {
+                req.getAsyncContext().addListener(new PermitRelease(limiter));
                 return;
+            } catch (IllegalStateException e) {
+                // Async déjà terminé : rien ne reste en cours
             }
+        } else if (resp instanceof DeferredResponse deferred && !deferred.isPassThrough()) {
+            deferred.afterSend(new PermitRelease(limiter));
+            return;
+        }
+        limiter.release();
+    }
+
+    /**
+     * Applique @RateLimit et @MaxConcurrent ; une requête refusée reçoit 429 ou 503 avec Retry-After
+     * 
+     * @param req     La requête HTTP
+     * @param resp    La réponse HTTP
+     * @param info    Les informations du controller
+     * @param limiter Le limiteur de la route
+     * @return true si la requête est admise (une place de concurrence est alors réservée)
+     */
+    private boolean admit(HttpServletRequest req, HttpServletResponse resp, ControllerInfo info,
+            RouteLimiter limiter) throws IOException {
+        boolean json = info.getMethod().isAnnotationPresent(ResponseJSON.class);
+
+        String retryAfter = limiter.checkRate(req);
+        if (retryAfter != null) {
+            resp.setHeader("Retry-After", retryAfter);
+            errorWriter.write(req, resp, 429, "Trop de requêtes, réessayez plus tard.", json);
+            return false;
+        }
+
+        if (!limiter.tryEnter()) {
+            resp.setHeader("Retry-After", limiter.getConcurrencyRetryAfter());
+            errorWriter.write(req, resp, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    "Service saturé, réessayez plus tard.", json);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Vérifie l'autorisation puis invoque la méthode du controller
+     * 
+     * @param req     La requête HTTP
+     * @param resp    La réponse HTTP
+     * @param mapping           Le mapping contenant les informations du controller
+     * @param exceptionHandlers Les handlers d'exception de la table de routage courante
+     */
+    private void invokeController(HttpServletRequest req, HttpServletResponse resp, ControllerMapping mapping,
+            ExceptionHandlerRegistry exceptionHandlers) throws ServletException, IOException {
+
+        ControllerInfo info = mapping.getControllerInfo();
+        Method method = info.getMethod();
+
+        if (method.isAnnotationPresent(Authorized.class) && !checkAuthorization(req, resp, method)) {
+            return;
         }
 
+        // Ressources critiques de la page (@Preload) : Link / 103 Early Hints avant l'exécution du controller
+        if (info.getPreloadHints() != null && "GET".equals(req.getMethod())) {
+            earlyHints.emit(req, resp, info.getPreloadHints());
+        }
+
+        RequestTrace trace = mapping.getContext().getTrace();
+        Object controllerInstance = null;
         try {
             // Création d'une instance du controller
-            Object controllerInstance = info.getControllerClass().getDeclaredConstructor().newInstance();
+            long phase = trace.clock();
+            controllerInstance = info.newControllerInstance();
 
             // Préparation des arguments de la méthode à partir de la requête
-            Object[] args = prepareMethodArguments(req, method, mapping.getPathParams());
+            Object[] args = prepareMethodArguments(req, method, mapping.getPathParams(), mapping.getContext());
+            trace.phase("arguments", phase);
 
             // Invocation de la méthode du controller
+            phase = trace.clock();
             Object returnObject = method.invoke(controllerInstance, args);
+            trace.phase("invoke", phase);
 
-            // Traitement du résultat retourné par la méthode
+            // Traitement du résultat retourné par la méthode (Server-Timing avant l'écriture du corps)
+            trace.writeServerTiming(resp);
+            phase = trace.clock();
             handleMethodReturn(req, resp, method, returnObject, info);
+            trace.phase("render", phase);
+
+        } catch (InvocationTargetException e) {
+            // Exception levée par la méthode du controller elle-même
+            trace.error(e.getCause());
+            handleException(req, resp, info, controllerInstance, e.getCause(), exceptionHandlers);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Instanciation du controller, conversion des arguments ou rendu du résultat
+            trace.error(e);
+            handleException(req, resp, info, controllerInstance, e, exceptionHandlers);
+        }
+    }
+
+    /**
+     * Traite une exception levée pendant le traitement d'une requête : @ExceptionHandler du controller,
+     * puis des @ControllerAdvice, sinon réponse d'erreur standard et journalisation limitée en débit
+     * 
+     * @param req                La requête HTTP
+     * @param resp               La réponse HTTP
+     * @param info               Les informations du controller
+     * @param controllerInstance L'instance du controller (null si la création a échoué)
+     * @param error              L'exception à traiter
+     * @param exceptionHandlers  Les handlers d'exception de la table de routage courante
+     */
+    private void handleException(HttpServletRequest req, HttpServletResponse resp, ControllerInfo info,
+            Object controllerInstance, Throwable error, ExceptionHandlerRegistry exceptionHandlers)
+            throws ServletException, IOException {
+
+        ExceptionHandlerMethod handler = exceptionHandlers != null
+                ? exceptionHandlers.resolve(info.getControllerClass(), error.getClass())
+                : null;
+
+        if (handler != null && !resp.isCommitted()) {
+            try {
+                Object result = handler.invoke(controllerInstance, error, req, resp);
+                renderExceptionHandlerResult(req, resp, handler, result, info);
+                return;
+            } catch (InvocationTargetException e) {
+                error = e.getCause();
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                error = e;
+            }
+        }
+
+        // Corps de requête, pagination... refusés : erreur du client, pas du serveur
+        if (error instanceof ClientErrorException) {
+            errorWriter.write(req, resp, ((ClientErrorException) error).getStatus(), error.getMessage(),
+                    info.getMethod().isAnnotationPresent(ResponseJSON.class));
+            return;
+        }
+
+        if (errorLogger != null) {
+            errorLogger.log(req.getMethod() + " " + req.getRequestURI(), error);
+        }
+        errorWriter.write(req, resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                "Erreur interne du serveur.", info.getMethod().isAnnotationPresent(ResponseJSON.class));
+    }
+
+    /**
+     * Écrit le résultat d'un @ExceptionHandler avec son statut : enveloppe ApiResponse d'erreur pour
+     * un handler @ResponseJSON, traitement habituel des types de retour sinon
+     * 
+     * @param req     La requête HTTP
+     * @param resp    La réponse HTTP
+     * @param handler Le handler invoqué
+     * @param result  L'objet retourné par le handler
+     * @param info    Les informations du controller
+     */
+    private void renderExceptionHandlerResult(HttpServletRequest req, HttpServletResponse resp,
+            ExceptionHandlerMethod handler, Object result, ControllerInfo info) throws ServletException, IOException {
+
+        resp.resetBuffer();
+        resp.setStatus(handler.getStatus());
+
+        // Le handler a écrit la réponse lui-même
+        if (result == null && handler.getMethod().getReturnType() == void.class) {
+            return;
+        }
+
+        if (handler.getMethod().isAnnotationPresent(ResponseJSON.class)) {
+            ApiResponse<?> body;
+            if (result instanceof ApiResponse) {
+                body = (ApiResponse<?>) result;
+            } else if (result instanceof String) {
+                body = new ApiResponse<>("error", handler.getStatus(), (String) result);
+            } else {
+                body = new ApiResponse<Object>("error", handler.getStatus(), result);
+            }
+            errorWriter.writeJson(resp, body);
+            return;
+        }
 
-        } catch (InstantiationException | IllegalArgumentException | NoSuchMethodException | SecurityException e) {
-            System.err.println("Erreur lors de la création de l'instance du controller : " + e.getMessage());
-            e.printStackTrace();
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            System.err.println("Erreur lors de l'invocation de la méthode : " + e.getMessage());
-            e.printStackTrace();
+        handleMethodReturn(req, resp, handler.getMethod(), result, info);
+    }
+
+    /**
+     * Vérifie l'accès à une méthode annotée @Authorized via le SecurityContextProvider configuré
+     * 
+     * @param req    La requête HTTP
+     * @param resp   La réponse HTTP
+     * @param method La méthode du controller
+     * @return true si l'accès est accordé, false si une réponse 401/403 a été envoyée
+     */
+    private boolean checkAuthorization(HttpServletRequest req, HttpServletResponse resp, Method method)
+            throws IOException {
+        String[] allowedRoles = method.getAnnotation(Authorized.class).roles();
+
+        SecurityContext securityContext = securityContextProvider != null
+                ? securityContextProvider.resolve(req)
+                : null;
+        if (securityContext == null) {
+            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            resp.getWriter().println("Accès non autorisé : utilisateur non authentifié.");
+            return false;
         }
+
+        if (!securityContext.hasAnyRole(allowedRoles)) {
+            resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            resp.getWriter().println("Accès refusé : rôle utilisateur insuffisant.");
+            return false;
+        }
+
+        // Rendre l'identité disponible pour le controller et la vue
+        req.setAttribute("securityContext", securityContext);
+        return true;
     }
 
     /**
@@ -193,18 +610,19 @@ public class DispatcherServlet extends HttpServlet {
      * @param req        La requête HTTP
      * @param method     La méthode à invoquer
      * @param pathParams Les paramètres extraits du chemin
+     * @param context    Le contexte de la requête (tableau d'arguments recyclé)
      * @return Un tableau d'objets représentant les arguments de la méthode
      */
-    private Object[] prepareMethodArguments(HttpServletRequest req, Method method, Map<String, String> pathParams)
-            throws ServletException, IOException {
+    private Object[] prepareMethodArguments(HttpServletRequest req, Method method, Map<String, String> pathParams,
+            RequestContext context) throws ServletException, IOException {
 
         Parameter[] methodParams = method.getParameters();
-        Object[] args = new Object[methodParams.length];
+        Object[] args = context.arguments(methodParams.length);
 
         // Traitement de chaque paramètre de la méthode
         for (int i = 0; i < methodParams.length; i++) {
             Parameter param = methodParams[i];
-            args[i] = resolveMethodParameter(req, param, pathParams);
+            args[i] = resolveMethodParameter(req, param, pathParams, context);
         }
 
         return args;
@@ -217,10 +635,11 @@ public class DispatcherServlet extends HttpServlet {
      * @param req        La requête HTTP
      * @param param      Le paramètre à résoudre
      * @param pathParams Les paramètres du chemin
+     * @param context    Le contexte de la requête
      * @return La valeur résolue du paramètre
      */
-    private Object resolveMethodParameter(HttpServletRequest req, Parameter param, Map<String, String> pathParams)
-            throws ServletException, IOException {
+    private Object resolveMethodParameter(HttpServletRequest req, Parameter param, Map<String, String> pathParams,
+            RequestContext context) throws ServletException, IOException {
 
         // Gestion des paramètres annotés @PathParam
         if (param.isAnnotationPresent(PathParam.class)) {
@@ -232,13 +651,31 @@ public class DispatcherServlet extends HttpServlet {
             return resolveRequestParam(req, param);
         }
 
+        // Page demandée (?page=, ?size=, ?cursor=), taille plafonnée
+        if (param.getType() == PageRequest.class) {
+            return pagination.resolve(req, param);
+        }
+
+        // Trace de la requête : propagation (traceparent) et spans de l'action
+        if (param.getType() == RequestTrace.class) {
+            return context.getTrace();
+        }
+
+        // Corps de la requête (déjà lu en non bloquant si la servlet est async)
+        if (param.isAnnotationPresent(RequestBody.class)) {
+            if (bodyPipeline == null) {
+                throw new ServletException("Lecture des corps de requête non initialisée");
+            }
+            return bodyPipeline.resolve(req, param);
+        }
+
         // Gestion des paramètres de type Map<String, Object> ou Map<String, byte[]>
         if (param.getType() == Map.class) {
             return resolveMapParameter(req, param);
         }
 
         // Gestion des objets complexes (binding automatique)
-        return resolveComplexObject(req, param);
+        return resolveComplexObject(req, param, context);
     }
 
     /**
@@ -250,6 +687,11 @@ public class DispatcherServlet extends HttpServlet {
      */
     private Object resolvePathParam(Parameter param, Map<String, String> pathParams) {
         String name = param.getAnnotation(PathParam.class).value();
+
+        // CharSequence : vue sur l'URI, sans copie (utile pour un long reste de chemin {path*})
+        if (param.getType() == CharSequence.class && pathParams instanceof PathParameters) {
+            return ((PathParameters) pathParams).getSequence(name);
+        }
         String value = pathParams.get(name);
 
         if (value != null) {
@@ -320,47 +762,22 @@ public class DispatcherServlet extends HttpServlet {
      * Extrait tous les attributs de session dans une Map
      * 
      * @param req La requête HTTP
-     * @return Une Map contenant tous les attributs de session
+     * @return Une SessionAttributeMap contenant tous les attributs de session
      */
     private Map<String, Object> extractSessionAttributes(HttpServletRequest req) {
-        HttpSession session = req.getSession();
-        Map<String, Object> sessionMap = new HashMap<>();
-
-        Enumeration<String> attributeNames = session.getAttributeNames();
-        while (attributeNames.hasMoreElements()) {
-            String key = attributeNames.nextElement();
-            Object value = session.getAttribute(key);
-            sessionMap.put(key, value);
-            System.out.println("Clé de session : " + key + " = " + value);
-        }
-
-        return sessionMap;
+        // Vue paresseuse sur la session, qui trace les écritures pour une réécriture différentielle
+        return new SessionAttributeMap(req.getSession());
     }
 
     /**
      * Extrait tous les paramètres de la requête dans une Map
      * 
      * @param req La requête HTTP
-     * @return Une Map contenant tous les paramètres
+     * @return Une vue Map (copie à l'écriture) sur tous les paramètres
      */
     private Map<String, Object> extractRequestParameters(HttpServletRequest req) {
-        Map<String, String[]> parameterMap = req.getParameterMap();
-        Map<String, Object> paramMap = new HashMap<>();
-
-        for (Entry<String, String[]> entry : parameterMap.entrySet()) {
-            String key = entry.getKey();
-            String[] values = entry.getValue();
-
-            if (values != null && values.length == 1) {
-                paramMap.put(key, values[0]); // Valeur unique
-            } else {
-                paramMap.put(key, values); // Valeurs multiples
-            }
-
-            System.out.println("Clé : " + key + " = [" + String.join(",", values) + "]");
-        }
-
-        return paramMap;
+        // Vue paresseuse : aucune copie tant que le controller ne fait que lire
+        return new RequestParameterMap(req.getParameterMap());
     }
 
     /**
@@ -393,10 +810,11 @@ public class DispatcherServlet extends HttpServlet {
      * de front)
      * 
      * @param req   La requête HTTP
-     * @param param Le paramètre de la méthode
+     * @param param   Le paramètre de la méthode
+     * @param context Le contexte de la requête (tampons de binding)
      * @return L'instance de l'objet avec ses propriétés remplies
      */
-    private Object resolveComplexObject(HttpServletRequest req, Parameter param) {
+    private Object resolveComplexObject(HttpServletRequest req, Parameter param, RequestContext context) {
         Class<?> paramType = param.getType();
 
         // Ignorer les types primitifs et classes Java standard
@@ -421,7 +839,7 @@ public class DispatcherServlet extends HttpServlet {
 
                 // Gestion des tableaux (paramètres avec [])
                 if (key.contains("[]")) {
-                    bindArrayProperty(instance, key, values, paramType);
+                    bindArrayProperty(instance, key, values, paramType, context);
                 } else if (values.length == 1) {
                     // Gestion des valeurs simples
                     bindSingleProperty(instance, key, values[0], paramType);
@@ -434,8 +852,12 @@ public class DispatcherServlet extends HttpServlet {
             return instance;
 
         } catch (Exception e) {
-            System.err.println("Erreur binding objet complexe : " + paramType.getName() + " → " + e.getMessage());
-            e.printStackTrace();
+            String description = req.getMethod() + " " + req.getRequestURI() + " (binding " + paramType.getName() + ")";
+            if (errorLogger != null) {
+                errorLogger.log(description, e);
+            } else {
+                System.err.println("Erreur binding objet complexe : " + description + " → " + e);
+            }
             return null;
         }
     }
@@ -447,17 +869,34 @@ public class DispatcherServlet extends HttpServlet {
      * @param key       La clé du paramètre (avec [])
      * @param values    Les valeurs du tableau
      * @param paramType Le type de l'objet
+     * @param context   Le contexte de la requête (tampons de binding)
      */
-    private void bindArrayProperty(Object instance, String key, String[] values, Class<?> paramType) {
-        String arrayKey = key.replace("[]", "");
-
-        // Filtrage des valeurs non vides
-        String[] nonEmptyValues = Arrays.stream(values)
-                .filter(v -> v != null && !v.isEmpty())
-                .toArray(String[]::new);
+    private void bindArrayProperty(Object instance, String key, String[] values, Class<?> paramType,
+            RequestContext context) {
+        // Suppression des "[]" dans le StringBuilder recyclé
+        StringBuilder keyBuilder = context.builder();
+        for (int i = 0; i < key.length(); i++) {
+            if (key.startsWith("[]", i)) {
+                i++;
+            } else {
+                keyBuilder.append(key.charAt(i));
+            }
+        }
+        String arrayKey = keyBuilder.toString();
+
+        // Filtrage des valeurs non vides dans le tableau de travail, puis copie à la taille exacte
+        // (le tableau est conservé par l'objet lié)
+        String[] scratch = context.scratch(values.length);
+        int count = 0;
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                scratch[count++] = value;
+            }
+        }
 
-        if (nonEmptyValues.length > 0) {
-            UtilCast.setPropertyValue(instance, arrayKey, nonEmptyValues, paramType);
+        if (count > 0) {
+            String[] nonEmptyValues = count == values.length ? values.clone() : Arrays.copyOf(scratch, count);
+            UtilCast.setPropertyValue(instance, arrayKey, nonEmptyValues, paramType, errorLogger);
         }
     }
 
@@ -471,12 +910,12 @@ public class DispatcherServlet extends HttpServlet {
      */
     private void bindSingleProperty(Object instance, String key, String value, Class<?> paramType) {
         if (value != null && !value.isEmpty()) {
-            UtilCast.setPropertyValue(instance, key, value, paramType);
+            UtilCast.setPropertyValue(instance, key, value, paramType, errorLogger);
         }
     }
 
     /**
-     * Traite le retour de la méthode du controller (JSON, String, ou ModelView)
+     * Traite le retour de la méthode du controller (flux SSE, JSON, String, ou ModelView)
      * 
      * @param req          La requête HTTP
      * @param resp         La réponse HTTP
@@ -487,9 +926,27 @@ public class DispatcherServlet extends HttpServlet {
     private void handleMethodReturn(HttpServletRequest req, HttpServletResponse resp, Method method,
             Object returnObject, ControllerInfo info) throws ServletException, IOException {
 
+        // Flux d'événements (EventStream ou Flow.Publisher) : text/event-stream, la requête passe en async
+        if (returnObject instanceof Flow.Publisher) {
+            if (slowRequests != null) {
+                slowRequests.detach(); // flux retourné par une action déclarée sans type de flux
+            }
+            if (resp instanceof DeferredResponse) {
+                ((DeferredResponse) resp).passThrough();
+            }
+            eventStreams.stream(req, resp, (Flow.Publisher<?>) returnObject);
+            return;
+        }
+
+        // HEAD servi par une route GET : en-têtes seulement, le corps n'est pas produit
+        if ("HEAD".equals(req.getMethod()) && !"HEAD".equals(info.getPathPattern().getHttpMethod())) {
+            handleHeadResponse(req, resp, method, returnObject);
+            return;
+        }
+
         // Réponse JSON si l'annotation @ResponseJSON est présente
         if (method.isAnnotationPresent(ResponseJSON.class)) {
-            handleJSONResponse(resp, returnObject);
+            handleJSONResponse(req, resp, method, returnObject);
             return;
         }
 
@@ -511,31 +968,87 @@ public class DispatcherServlet extends HttpServlet {
     }
 
     /**
-     * Traite une réponse JSON avec l'annotation @ResponseJSON
+     * Répond à une requête HEAD avec les en-têtes qu'aurait produits le GET, sans sérialiser de corps
      * 
+     * @param req          La requête HTTP
      * @param resp         La réponse HTTP
-     * @param returnObject L'objet à sérialiser en JSON
+     * @param method       La méthode invoquée
+     * @param returnObject L'objet retourné par la méthode
      */
-    private void handleJSONResponse(HttpServletResponse resp, Object returnObject) throws IOException {
-        resp.setContentType("application/json;charset=UTF-8");
-        resp.setCharacterEncoding("UTF-8");
+    private void handleHeadResponse(HttpServletRequest req, HttpServletResponse resp, Method method,
+            Object returnObject) throws ServletException, IOException {
 
-        PrintWriter out = resp.getWriter();
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        if (method.isAnnotationPresent(ResponseJSON.class)) {
+            resp.setContentType(negotiateCodec(req, resp).getContentType());
+        } else if (returnObject instanceof ModelView && ViewResolver.isRedirect(((ModelView) returnObject).getView())) {
+            // Une redirection n'a pas de corps : traitement normal
+            processModelView(req, resp, (ModelView) returnObject, method);
+        } else if (returnObject instanceof ModelView) {
+            resp.setContentType("text/html;charset=UTF-8");
+        } else {
+            resp.setContentType("text/plain;charset=UTF-8");
+        }
+    }
 
+    /**
+     * Traite une réponse avec l'annotation @ResponseJSON, dans le format négocié sur Accept
+     * 
+     * @param req          La requête HTTP
+     * @param resp         La réponse HTTP
+     * @param method       La méthode invoquée
+     * @param returnObject L'objet à sérialiser
+     */
+    private void handleJSONResponse(HttpServletRequest req, HttpServletResponse resp, Method method,
+            Object returnObject) throws IOException {
+        Codec codec = negotiateCodec(req, resp);
+
+        byte[] body;
         try {
-            // Construction de la réponse API
-            ApiResponse<Object> apiResponse = buildApiResponse(returnObject);
-            String json = mapper.writeValueAsString(apiResponse);
-            out.print(json);
+            // Enveloppe ApiResponse pour JSON, résultat brut pour les formats binaires
+            Object payload = codec.isEnveloped() ? buildApiResponse(returnObject) : unwrapResult(returnObject);
+
+            // Projection ?fields=... si la route l'accepte (@ResponseJSON(fields = true)) ;
+            // count reste celui du résultat d'origine
+            String fields = req.getParameter("fields");
+            if (fields != null && method.getAnnotation(ResponseJSON.class).fields()) {
+                Object projected = fieldProjection.apply(unwrapResult(returnObject), fields);
+                if (payload instanceof ApiResponse) {
+                    ApiResponse<Object> envelope = new ApiResponse<>("success", 200, projected);
+                    envelope.setCount(((ApiResponse<?>) payload).getCount());
+                    projected = envelope;
+                }
+                payload = projected;
+            }
 
+            body = codec.encode(payload);
         } catch (Exception e) {
             // Gestion des erreurs de sérialisation
-            handleJSONError(resp, out, mapper, e);
+            handleJSONError(resp, e);
+            return;
         }
 
-        out.flush();
+        resp.setContentType(codec.getContentType());
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
+    }
+
+    /**
+     * Choisit le format de la réponse d'après Accept (une fois par requête, résultat mémorisé par valeur)
+     * 
+     * @param req  La requête HTTP
+     * @param resp La réponse HTTP, qui reçoit Vary: Accept si plusieurs formats sont possibles
+     * @return Le format à utiliser
+     */
+    private Codec negotiateCodec(HttpServletRequest req, HttpServletResponse resp) {
+        if (codecs.isNegotiated()) {
+            resp.addHeader("Vary", "Accept");
+        }
+        return codecs.negotiate(req.getHeader("Accept"));
+    }
+
+    // Résultat sans enveloppe : données du ModelView ou objet retourné
+    private Object unwrapResult(Object returnObject) {
+        return returnObject instanceof ModelView ? ((ModelView) returnObject).getData() : returnObject;
     }
 
     /**
@@ -558,23 +1071,14 @@ public class DispatcherServlet extends HttpServlet {
     }
 
     /**
-     * Gère les erreurs de sérialisation JSON
+     * Gère les erreurs de sérialisation : enveloppe d'erreur JSON avec un statut 500
      * 
-     * @param resp   La réponse HTTP
-     * @param out    Le writer de sortie
-     * @param mapper L'ObjectMapper JSON
-     * @param e      L'exception rencontrée
+     * @param resp La réponse HTTP
+     * @param e    L'exception rencontrée
      */
-    private void handleJSONError(HttpServletResponse resp, PrintWriter out, ObjectMapper mapper, Exception e) {
-        ApiResponse<String> error = new ApiResponse<>("error", 500,
-                "Erreur serveur : " + e.getMessage());
-
-        try {
-            out.print(mapper.writeValueAsString(error));
-            resp.setStatus(500);
-        } catch (Exception ex) {
-            out.print("{\"status\":\"error\",\"code\":500,\"message\":\"Erreur génération JSON.\"}");
-        }
+    private void handleJSONError(HttpServletResponse resp, Exception e) throws IOException {
+        resp.setStatus(500);
+        errorWriter.writeJson(resp, new ApiResponse<>("error", 500, "Erreur serveur : " + e.getMessage()));
     }
 
     /**
@@ -610,30 +1114,17 @@ public class DispatcherServlet extends HttpServlet {
     private void processModelView(HttpServletRequest req, HttpServletResponse resp, ModelView mv, Method method)
             throws ServletException, IOException {
         if (!mv.getData().isEmpty()) {
-            // Récupération des noms de paramètres Map<String,Object> annotés @SessionParam
-            HttpSession session = req.getSession();
-
-            for (String key : mv.getData().keySet()) {
-                Object value = mv.getData().get(key);
-                System.out.println("\n Clé du ModelView : " + key + " = " + value);
+            for (Map.Entry<String, Object> data : mv.getData().entrySet()) {
+                String key = data.getKey();
+                Object value = data.getValue();
 
                 // Vérifier si la clé correspond à un paramètre session Map<String,Object>
-                String sessionDataKey = (String) getServletContext().getAttribute("sessionDataKey");
-                if (key.compareTo(sessionDataKey) == 0 && value instanceof Map) {
-                    System.out.println("\n Variable de session trouvée dans le ModelView \n");
+                if (key.equals(sessionDataKey) && value instanceof Map) {
                     try {
                         Map<String, Object> dataMap = (Map<String, Object>) value;
 
-                        // Nettoyer la session
-                        Enumeration<String> attributeNames = session.getAttributeNames();
-                        while (attributeNames.hasMoreElements()) {
-                            session.removeAttribute(attributeNames.nextElement());
-                        }
-
-                        // Ajouter les nouvelles données en session
-                        for (Map.Entry<String, Object> entry : dataMap.entrySet()) {
-                            session.setAttribute(entry.getKey(), entry.getValue());
-                        }
+                        // N'écrire que les attributs ajoutés, modifiés ou supprimés
+                        SessionWriteBack.apply(req.getSession(), dataMap);
                     } catch (ClassCastException e) {
                         // Si ce n'est pas une Map<String,Object>, ignorer
                         req.setAttribute(key, value);
@@ -647,14 +1138,14 @@ public class DispatcherServlet extends HttpServlet {
         }
         resp.setContentType("text/html;charset=UTF-8");
         resp.setCharacterEncoding("UTF-8");
-        if(mv.getView().startsWith("/")) {
-            // Redirection
-            resp.sendRedirect(req.getContextPath() + mv.getView());
-        } else {
-            // Dispatch
-            RequestDispatcher dispatcher = req.getRequestDispatcher("/" + mv.getView());
-            dispatcher.forward(req, resp);
+
+        // Ressources à précharger ajoutées par le controller (mv.preload(...))
+        for (String path : mv.getPreloads()) {
+            resp.addHeader("Link", PreloadHints.link(req.getContextPath(), path));
         }
+
+        // Redirection ("redirect:" ou "/...") ou rendu via le moteur de vue (forward par défaut)
+        viewResolver.render(mv.getView(), mv.getData(), req, resp);
     }
 
     /**
@@ -708,6 +1199,124 @@ public class DispatcherServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Répond à une requête OPTIONS à partir de la table de routage, sans instancier de controller.
+     * Un preflight CORS reçoit les headers précalculés de la route visée par Access-Control-Request-Method.
+     * 
+     * @param req        La requête HTTP
+     * @param resp       La réponse HTTP
+     * @param routeTable L'instantané de la table de routage
+     * @param path       Le chemin demandé
+     */
+    private void handleOptions(HttpServletRequest req, HttpServletResponse resp, RouteTable routeTable,
+            String path) {
+        resp.setHeader("Allow", routeTable.allowHeader(path));
+        resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+
+        String origin = req.getHeader("Origin");
+        String requestedMethod = req.getHeader("Access-Control-Request-Method");
+        if (origin == null || requestedMethod == null) {
+            return;
+        }
+
+        ControllerInfo target = routeTable.findGroup(path, requestedMethod).get(requestedMethod);
+        if (target != null && target.getCorsPolicy() != null) {
+            target.getCorsPolicy().applyToPreflight(origin, req, resp);
+        }
+    }
+
+    private void handleLimitsReport(HttpServletResponse resp) throws IOException {
+        resp.setContentType("application/json;charset=UTF-8");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-store");
+        RouteLimitsReport.write(routeTableHolder != null ? routeTableHolder.get() : null, resp.getWriter());
+    }
+
+    /**
+     * Traite un lot : chaque entrée repasse par service() avec une requête et une réponse en mémoire
+     * 
+     * @param req  La requête de lot (POST, tableau JSON)
+     * @param resp La réponse de lot (tableau JSON d'enveloppes ApiResponse)
+     */
+    private void handleBatch(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!"POST".equals(req.getMethod())) {
+            resp.setHeader("Allow", "POST");
+            errorWriter.write(req, resp, HttpServletResponse.SC_METHOD_NOT_ALLOWED,
+                    "Un lot s'envoie en POST", true);
+            return;
+        }
+
+        String error = batchProcessor.process(req, resp, this::service);
+        if (error != null) {
+            errorWriter.write(req, resp, HttpServletResponse.SC_BAD_REQUEST, error, true);
+        }
+    }
+
+    private void handleRoutesReport(HttpServletResponse resp) throws IOException {
+        resp.setContentType("application/json;charset=UTF-8");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-store");
+        RouteTableReport.write(routeTableHolder != null ? routeTableHolder.get() : null, resp.getWriter());
+    }
+
+    /**
+     * Écrit les spans encore présents dans l'anneau (?trace= pour une seule trace), au format d'export
+     * 
+     * @param req  La requête HTTP
+     * @param resp La réponse HTTP
+     */
+    private void handleTracesReport(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        List<Span> spans = new ArrayList<>();
+        if (tracer != null) {
+            tracer.getRing().snapshot(spans);
+            String traceId = req.getParameter("trace");
+            if (traceId != null) {
+                spans.removeIf(span -> !span.getTraceId().equals(traceId));
+            }
+        }
+        resp.setContentType("application/json");
+        resp.setHeader("Cache-Control", "no-store");
+        OtlpJsonWriter.write(tracer != null ? tracer.getServiceName() : "", spans, resp.getOutputStream());
+    }
+
+    /**
+     * Écrit les piles échantillonnées des requêtes lentes au format "collapsed" (flamegraph.pl, speedscope),
+     * ou le résumé par route avec ?format=json
+     * 
+     * @param req  La requête HTTP
+     * @param resp La réponse HTTP
+     */
+    private void handleSlowReport(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-store");
+        if ("json".equals(req.getParameter("format"))) {
+            resp.setContentType("application/json;charset=UTF-8");
+            SlowRequestReport.write(slowRequests, resp.getWriter());
+            return;
+        }
+        resp.setContentType("text/plain;charset=UTF-8");
+        slowRequests.getStacks().write(resp.getWriter());
+    }
+
+    private void methodNotAllowed(HttpServletRequest req, HttpServletResponse resp, String allowHeader)
+            throws IOException {
+        resp.setHeader("Allow", allowHeader);
+        resp.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+        resp.setContentType("text/html;charset=UTF-8");
+        resp.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = resp.getWriter();
+        out.println("""
+                <html>
+                    <head><title>Method Not Allowed</title></head>
+                    <body>
+                        <h1>Method not allowed</h1>
+                        <p>The method <strong>%s</strong> is not supported by <strong>%s</strong> (allowed: %s)</p>
+                    </body>
+                </html>
+                """.formatted(req.getMethod(), req.getRequestURI(), allowHeader));
+    }
+
     private void defaultServe(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         defaultDispatcher.forward(req, resp);
     }
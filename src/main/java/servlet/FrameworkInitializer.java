@@ -4,16 +4,46 @@ import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import servlet.annotation.Controller;
+import servlet.annotation.exceptions.ControllerAdvice;
+import servlet.annotation.exceptions.ExceptionHandler;
 import servlet.annotation.mappings.DeleteMapping;
 import servlet.annotation.mappings.GetMapping;
+import servlet.annotation.mappings.PatchMapping;
 import servlet.annotation.mappings.PostMapping;
 import servlet.annotation.mappings.PutMapping;
 import servlet.annotation.mappings.URLMapping;
 import servlet.util.ControllerInfo;
 import servlet.util.PathPattern;
+import servlet.util.batch.BatchProcessor;
+import servlet.util.body.BodyPipeline;
+import servlet.util.body.ByteBufferPool;
+import servlet.util.codec.Codec;
+import servlet.util.codec.CodecRegistry;
+import servlet.util.projection.FieldProjection;
+import servlet.util.paging.CursorSigner;
+import servlet.util.paging.Pagination;
+import servlet.util.preload.EarlyHints;
+import servlet.util.exceptions.ErrorLogger;
+import servlet.util.exceptions.ExceptionHandlerMethod;
+import servlet.util.exceptions.ExceptionHandlerRegistry;
+import servlet.util.limits.RouteLimiter;
+import servlet.util.monitoring.SlowRequestDetector;
+import servlet.util.reload.HotReloader;
+import servlet.util.routing.RouteTable;
+import servlet.util.routing.RouteTableHolder;
+import servlet.util.security.SecurityContextProvider;
+import servlet.util.security.SessionSecurityContextProvider;
+import servlet.util.security.TokenSecurityContextProvider;
+import servlet.util.streaming.EventStreams;
+import servlet.util.tracing.SpanExporter;
+import servlet.util.tracing.SpanRing;
+import servlet.util.tracing.Tracer;
+import servlet.util.views.ViewEngine;
+import servlet.util.views.ViewResolver;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class FrameworkInitializer implements ServletContextListener {
@@ -21,49 +51,201 @@ public class FrameworkInitializer implements ServletContextListener {
     @Override
     public void contextInitialized(ServletContextEvent sce) {
         ServletContext context = sce.getServletContext();
-        Set<Class<?>> allClasses = scanClasses(context);
-        Map<PathPattern, ControllerInfo> urlMap = new HashMap<>();
+        Set<Class<?>> allClasses = scanClasses(context, FrameworkInitializer.class.getClassLoader());
+        RouteTable routeTable = buildRouteTable(allClasses);
+
+        // Stocker le nom de la variable de Map de session dans le contexte
+        String sessionDataKey = getSessionMapVariableName(context);
+        context.setAttribute("sessionDataKey", sessionDataKey);
+
+        // Stôcker la clé du rôle de l'utilisateur en session
+        String roleSessionKey = getRoleSessionKey(context);
+        context.setAttribute("sessionRoleKey", roleSessionKey);
+
+        // Stocker le fournisseur d'identité utilisé par @Authorized
+        context.setAttribute("securityContextProvider", createSecurityContextProvider(context, roleSessionKey));
+        
+        // Stocker le résolveur de vues des ModelView
+        context.setAttribute("viewResolver", new ViewResolver(context,
+                getInitParameter(context, "viewPrefix", "/"),
+                getInitParameter(context, "viewSuffix", ""),
+                createViewEngines(context)));
+
+        // Stocker la journalisation des erreurs non traitées
+        context.setAttribute("errorLogger", new ErrorLogger(
+                Integer.parseInt(getInitParameter(context, "errorTraceRate", "10")),
+                Integer.parseInt(getInitParameter(context, "errorSampleRate", "100"))));
+
+        // Chemin du rapport des refus @RateLimit / @MaxConcurrent (null : désactivé)
+        context.setAttribute("limitsPath", getInitParameter(context, "limitsPath", null));
+
+        // Chemin du rapport de la table de routage (/__routes par défaut en mode développement)
+        boolean devMode = Boolean.parseBoolean(getInitParameter(context, "devMode", "false"));
+        context.setAttribute("routesPath", getInitParameter(context, "routesPath", devMode ? "/__routes" : null));
+
+        // Point d'entrée des lots de sous-requêtes (désactivé sans paramètre d'init batchPath) : les entrées
+        // sont traitées par le DispatcherServlet sans repasser par les filtres ni les security-constraint
+        String batchPath = getInitParameter(context, "batchPath", null);
+        if (batchPath != null) {
+            context.setAttribute("batchProcessor", new BatchProcessor(batchPath,
+                    Integer.parseInt(getInitParameter(context, "batchMaxRequests", "50")),
+                    Integer.parseInt(getInitParameter(context, "batchThreads", "4"))));
+            System.out.println("Lots de sous-requêtes actifs sur " + batchPath
+                    + " : les filtres et security-constraint ne s'appliquent qu'au lot, pas à ses entrées");
+        }
+
+        // Flux SSE : intervalle des heartbeats et durée maximale d'un flux (secondes, 0 : illimitée)
+        context.setAttribute("eventStreams", new EventStreams(
+                Long.parseLong(getInitParameter(context, "sseHeartbeat", "15")) * 1000,
+                Long.parseLong(getInitParameter(context, "sseTimeout", "0")) * 1000));
+
+        // Formats de sérialisation négociés sur Accept / Content-Type (JSON par défaut, CBOR, JSON tramé, puis
+        // les classes du paramètre d'init "codecs")
+        CodecRegistry codecRegistry = CodecRegistry.withDefaults(createCodecs(context));
+        context.setAttribute("codecRegistry", codecRegistry);
+
+        // Projections ?fields= des routes @ResponseJSON(fields = true), mémorisées par (type, champs)
+        context.setAttribute("fieldProjection", new FieldProjection(
+                Integer.parseInt(getInitParameter(context, "projectionCacheSize", "256"))));
+
+        // Pagination : tailles de page et clé de signature des curseurs (aléatoire sans cursorSecret :
+        // les curseurs émis ne survivent alors pas à un redémarrage)
+        context.setAttribute("pagination", new Pagination(
+                Integer.parseInt(getInitParameter(context, "defaultPageSize", "20")),
+                Integer.parseInt(getInitParameter(context, "maxPageSize", "100")),
+                new CursorSigner(cursorSecret(context))));
+
+        // Préchargement @Preload : headers Link, 103 Early Hints selon le conteneur, push HTTP/2 sur option
+        context.setAttribute("earlyHints", new EarlyHints(
+                Boolean.parseBoolean(getInitParameter(context, "preloadPush", "false"))));
+
+        // Traçage des requêtes (actif par défaut en mode développement) : ratio d'échantillonnage des nouvelles
+        // traces, header Server-Timing, taille de l'anneau des spans, export OTLP/JSON vers un fichier ou un
+        // collecteur (traceExport, toutes les traceExportInterval secondes) et rapport /__traces
+        if (Boolean.parseBoolean(getInitParameter(context, "tracing", String.valueOf(devMode)))) {
+            Tracer tracer = new Tracer(
+                    getInitParameter(context, "traceServiceName", serviceName(context)),
+                    Double.parseDouble(getInitParameter(context, "traceSampleRatio", "1")),
+                    Boolean.parseBoolean(getInitParameter(context, "serverTiming", "false")),
+                    new SpanRing(Integer.parseInt(getInitParameter(context, "traceBufferSize", "4096"))));
+            context.setAttribute("tracer", tracer);
+            context.setAttribute("tracesPath", getInitParameter(context, "tracesPath", devMode ? "/__traces" : null));
+
+            String traceExport = getInitParameter(context, "traceExport", null);
+            if (traceExport != null) {
+                context.setAttribute("spanExporter", new SpanExporter(tracer, traceExport,
+                        Long.parseLong(getInitParameter(context, "traceExportInterval", "5")) * 1000));
+            }
+        }
+
+        // Requêtes lentes : seuil global (ms, 0 : détection désactivée, défaut hors devMode), fréquence du watchdog
+        // (ms), échantillons de pile par requête, piles distinctes conservées, fichier "collapsed" et rapport /__slow
+        long slowThreshold = Long.parseLong(getInitParameter(context, "slowThreshold", devMode ? "2000" : "0"));
+        if (slowThreshold > 0) {
+            context.setAttribute("slowRequests", new SlowRequestDetector(slowThreshold,
+                    Long.parseLong(getInitParameter(context, "slowSampleInterval", "100")),
+                    Integer.parseInt(getInitParameter(context, "slowMaxSamples", "20")),
+                    Integer.parseInt(getInitParameter(context, "slowMaxStacks", "4096")),
+                    getInitParameter(context, "slowStacksFile", null)));
+            context.setAttribute("slowPath", getInitParameter(context, "slowPath", devMode ? "/__slow" : null));
+        }
+
+        // Corps de requête @RequestBody : taille maximale (octets), délai de réception et d'envoi (secondes),
+        // taille des tampons et nombre de tampons conservés entre les requêtes
+        context.setAttribute("bodyPipeline", new BodyPipeline(codecRegistry,
+                Long.parseLong(getInitParameter(context, "maxBodySize", String.valueOf(10 * 1024 * 1024))),
+                Long.parseLong(getInitParameter(context, "bodyTimeout", "30")) * 1000,
+                new ByteBufferPool(Integer.parseInt(getInitParameter(context, "bodyChunkSize", "8192")),
+                        Integer.parseInt(getInitParameter(context, "bodyPoolSize", "256")))));
+
+        // Stocker la table de routage (routes regroupées par chemin), remplaçable par le rechargement à chaud
+        RouteTableHolder routeTableHolder = new RouteTableHolder(routeTable);
+        context.setAttribute("routeTableHolder", routeTableHolder);
+
+        // Mode développement : rechargement des controllers modifiés dans /WEB-INF/classes
+        if (devMode) {
+            startHotReload(context, routeTableHolder);
+        }
+    }
+
+    /**
+     * Construit la table de routage et les handlers d'exception à partir des classes scannées
+     * 
+     * @param allClasses Les classes de l'application
+     * @return La nouvelle table de routage
+     */
+    private RouteTable buildRouteTable(Set<Class<?>> allClasses) {
+        Map<PathPattern, ControllerInfo> urlMap = new LinkedHashMap<>();
+        ExceptionHandlerRegistry exceptionHandlers = new ExceptionHandlerRegistry();
+        // Un limiteur par méthode d'action, partagé par ses routes (verbes ou annotations multiples)
+        Map<Method, RouteLimiter> limiters = new HashMap<>();
 
         for (Class<?> clazz : allClasses) {
+            if (clazz.isAnnotationPresent(ControllerAdvice.class)) {
+                registerAdvice(clazz, exceptionHandlers);
+            }
             if (clazz.isAnnotationPresent(Controller.class)) {
                 Controller ctrlAnno = clazz.getAnnotation(Controller.class);
                 String basePath = normalizePath(ctrlAnno.path());
 
                 for (Method method : clazz.getDeclaredMethods()) {
                     if (method.isAnnotationPresent(URLMapping.class)) {
-                        String url = method.getAnnotation(URLMapping.class).url();
-                        registerMapping(method, "GET", basePath, normalizePath(url), clazz, urlMap); // ou toutes les méthodes
+                        URLMapping mapping = method.getAnnotation(URLMapping.class);
+                        for (String httpMethod : mapping.method()) {
+                            registerMapping(method, httpMethod, basePath, normalizePath(mapping.url()), clazz, urlMap, limiters);
+                        }
                     }
                     if (method.isAnnotationPresent(GetMapping.class)) {
                         String url = method.getAnnotation(GetMapping.class).url();
-                        registerMapping(method, "GET", basePath, normalizePath(url), clazz, urlMap);
+                        registerMapping(method, "GET", basePath, normalizePath(url), clazz, urlMap, limiters);
                     }
                     if (method.isAnnotationPresent(PostMapping.class)) {
                         String url = method.getAnnotation(PostMapping.class).url();
-                        registerMapping(method, "POST", basePath, normalizePath(url), clazz, urlMap);
+                        registerMapping(method, "POST", basePath, normalizePath(url), clazz, urlMap, limiters);
                     }
                     if (method.isAnnotationPresent(PutMapping.class)) {
                         String url = method.getAnnotation(PutMapping.class).url();
-                        registerMapping(method, "PUT", basePath, normalizePath(url), clazz, urlMap);
+                        registerMapping(method, "PUT", basePath, normalizePath(url), clazz, urlMap, limiters);
                     }
                     if (method.isAnnotationPresent(DeleteMapping.class)) {
                         String url = method.getAnnotation(DeleteMapping.class).url();
-                        registerMapping(method, "DELETE", basePath, normalizePath(url), clazz, urlMap);
+                        registerMapping(method, "DELETE", basePath, normalizePath(url), clazz, urlMap, limiters);
+                    }
+                    if (method.isAnnotationPresent(PatchMapping.class)) {
+                        String url = method.getAnnotation(PatchMapping.class).url();
+                        registerMapping(method, "PATCH", basePath, normalizePath(url), clazz, urlMap, limiters);
+                    }
+                    if (method.isAnnotationPresent(ExceptionHandler.class)) {
+                        exceptionHandlers.registerLocal(clazz, new ExceptionHandlerMethod(method, null));
                     }
                 }
             }
         }
 
-        // Stocker le nom de la variable de Map de session dans le contexte
-        String sessionDataKey = getSessionMapVariableName(context);
-        context.setAttribute("sessionDataKey", sessionDataKey);
+        RouteTable routeTable = new RouteTable(urlMap, exceptionHandlers);
+        for (String conflict : routeTable.getConflicts()) {
+            System.err.println("Avertissement : " + conflict);
+        }
+        return routeTable;
+    }
 
-        // Stôcker la clé du rôle de l'utilisateur en session
-        String roleSessionKey = getRoleSessionKey(context);
-        context.setAttribute("sessionRoleKey", roleSessionKey);
-        
-        // Stocker la map dans le contexte pour l'utiliser plus tard
-        context.setAttribute("urlMap", urlMap);
+    private void startHotReload(ServletContext context, RouteTableHolder routeTableHolder) {
+        String classesDir = context.getRealPath("/WEB-INF/classes");
+        if (classesDir == null) {
+            System.err.println("devMode : /WEB-INF/classes n'est pas un répertoire, rechargement à chaud désactivé");
+            return;
+        }
+
+        try {
+            HotReloader reloader = new HotReloader(Paths.get(classesDir),
+                    loader -> buildRouteTable(scanClasses(context, loader)),
+                    routeTableHolder,
+                    Long.parseLong(getInitParameter(context, "hotReloadDelay", "300")));
+            reloader.start();
+            context.setAttribute("hotReloader", reloader);
+        } catch (IOException e) {
+            System.err.println("devMode : surveillance de " + classesDir + " impossible : " + e.getMessage());
+        }
     }
 
     private void registerMapping(
@@ -72,31 +254,80 @@ public class FrameworkInitializer implements ServletContextListener {
         String basePath, 
         String methodPath,                      
         Class<?> clazz, 
-        Map<PathPattern, ControllerInfo> urlMap) {
+        Map<PathPattern, ControllerInfo> urlMap,
+        Map<Method, RouteLimiter> limiters) {
             String fullUrl = normalizePath(basePath + methodPath);
             PathPattern pattern = new PathPattern(fullUrl,httpMethod);
-            ControllerInfo info = new ControllerInfo(clazz, method, pattern);
-            
-            // Ajout dans la map
-            urlMap.put(pattern, info);
+            ControllerInfo info = new ControllerInfo(clazz, method, pattern,
+                    limiters.computeIfAbsent(method, RouteLimiter::of));
+
+            // Ajout dans la map (un même motif déclaré deux fois est une erreur de configuration)
+            ControllerInfo previous = urlMap.putIfAbsent(pattern, info);
+            if (previous != null) {
+                throw new IllegalStateException("Route en double " + httpMethod + " " + fullUrl + " : "
+                        + previous.getControllerClass().getName() + "." + previous.getMethod().getName()
+                        + " et " + clazz.getName() + "." + method.getName());
+            }
+    }
+
+    private void registerAdvice(Class<?> clazz, ExceptionHandlerRegistry exceptionHandlers) {
+        Object advice;
+        try {
+            advice = clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("@ControllerAdvice non instanciable : " + clazz.getName(), e);
+        }
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(ExceptionHandler.class)) {
+                exceptionHandlers.registerGlobal(new ExceptionHandlerMethod(method, advice));
+            }
+        }
     }
 
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
-        // Rien à faire ici
+        // Arrêt de la surveillance des classes en mode développement
+        HotReloader reloader = (HotReloader) sce.getServletContext().getAttribute("hotReloader");
+        if (reloader != null) {
+            reloader.close();
+        }
+
+        // Arrêt du thread des heartbeats SSE
+        EventStreams eventStreams = (EventStreams) sce.getServletContext().getAttribute("eventStreams");
+        if (eventStreams != null) {
+            eventStreams.close();
+        }
+
+        // Dernier export des spans puis arrêt du thread d'export
+        SpanExporter spanExporter = (SpanExporter) sce.getServletContext().getAttribute("spanExporter");
+        if (spanExporter != null) {
+            spanExporter.close();
+        }
+
+        // Arrêt du watchdog des requêtes lentes (dernière écriture du fichier des piles)
+        SlowRequestDetector slowRequests = (SlowRequestDetector) sce.getServletContext().getAttribute("slowRequests");
+        if (slowRequests != null) {
+            slowRequests.close();
+        }
+
+        // Arrêt du pool des lots de sous-requêtes
+        BatchProcessor batchProcessor = (BatchProcessor) sce.getServletContext().getAttribute("batchProcessor");
+        if (batchProcessor != null) {
+            batchProcessor.close();
+        }
     }
 
-    private Set<Class<?>> scanClasses(ServletContext context) {
+    private Set<Class<?>> scanClasses(ServletContext context, ClassLoader loader) {
         Set<Class<?>> classes = new HashSet<>();
         try {
-            scanDirectory("/WEB-INF/classes/", "", classes, context);
+            scanDirectory("/WEB-INF/classes/", "", classes, context, loader);
         } catch (Exception e) {
             e.printStackTrace(); // Loggez en production
         }
         return classes;
     }
 
-    private void scanDirectory(String path, String packageName, Set<Class<?>> classes, ServletContext context) throws IOException, ClassNotFoundException {
+    private void scanDirectory(String path, String packageName, Set<Class<?>> classes, ServletContext context, ClassLoader loader) throws IOException, ClassNotFoundException {
         Set<String> resourcePaths = context.getResourcePaths(path);
         if (resourcePaths == null) return;
 
@@ -104,14 +335,14 @@ public class FrameworkInitializer implements ServletContextListener {
             if (resourcePath.endsWith("/")) {
                 // Répertoire : récursion
                 String subPackage = resourcePath.substring(path.length()).replace("/", ".");
-                scanDirectory(resourcePath, packageName + subPackage, classes, context);
+                scanDirectory(resourcePath, packageName + subPackage, classes, context, loader);
             } else if (resourcePath.endsWith(".class")) {
                 // Fichier classe
                 String className = (packageName + resourcePath.substring(path.length(), resourcePath.length() - 6))
                         .replace("/", ".")
                         .replaceAll("^\\.", ""); // Nettoyer les points initiaux
                 try {
-                    Class<?> clazz = Class.forName(className);
+                    Class<?> clazz = Class.forName(className, true, loader);
                     classes.add(clazz);
                 } catch (ClassNotFoundException | NoClassDefFoundError e) {
                     // Ignorer les classes non chargeables (ex: anonymes ou dépendances manquantes)
@@ -136,4 +367,86 @@ public class FrameworkInitializer implements ServletContextListener {
         String key = context.getInitParameter("sessionRoleKey");
         return (key != null && !key.isEmpty()) ? key : null;
     }
+
+    // Nom du service dans les traces : display-name de l'application, sinon son chemin de contexte
+    private String serviceName(ServletContext context) {
+        String name = context.getServletContextName();
+        if (name != null && !name.isEmpty()) return name;
+        return context.getContextPath().isEmpty() ? "ROOT" : context.getContextPath().substring(1);
+    }
+
+    private String getInitParameter(ServletContext context, String name, String defaultValue) {
+        String value = context.getInitParameter(name);
+        return (value != null && !value.isEmpty()) ? value : defaultValue;
+    }
+
+    private List<ViewEngine> createViewEngines(ServletContext context) {
+        List<ViewEngine> engines = new ArrayList<>();
+        String classNames = getInitParameter(context, "viewEngines", null);
+        if (classNames == null) return engines;
+
+        for (String className : classNames.split(",")) {
+            if (className.isBlank()) continue;
+            try {
+                engines.add((ViewEngine) Class.forName(className.trim()).getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalStateException("Moteur de vue invalide : " + className.trim(), e);
+            }
+        }
+        return engines;
+    }
+
+    private byte[] cursorSecret(ServletContext context) {
+        String secret = getInitParameter(context, "cursorSecret", null);
+        if (secret != null) {
+            return secret.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        }
+        byte[] random = new byte[32];
+        new java.security.SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    private List<Codec> createCodecs(ServletContext context) {
+        List<Codec> codecs = new ArrayList<>();
+        String classNames = getInitParameter(context, "codecs", null);
+        if (classNames == null) return codecs;
+
+        for (String className : classNames.split(",")) {
+            if (className.isBlank()) continue;
+            try {
+                codecs.add((Codec) Class.forName(className.trim()).getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalStateException("Format de sérialisation invalide : " + className.trim(), e);
+            }
+        }
+        return codecs;
+    }
+
+    private SecurityContextProvider createSecurityContextProvider(ServletContext context, String roleSessionKey) {
+        String type = getInitParameter(context, "securityProvider", "session");
+
+        if ("session".equals(type)) {
+            return new SessionSecurityContextProvider(roleSessionKey);
+        }
+
+        if ("token".equals(type)) {
+            String secret = getInitParameter(context, "tokenSecret", null);
+            if (secret == null) {
+                throw new IllegalStateException("securityProvider=token exige le paramètre d'init tokenSecret");
+            }
+            return new TokenSecurityContextProvider(
+                    secret.getBytes(java.nio.charset.StandardCharsets.UTF_8),
+                    getInitParameter(context, "tokenHeader", "Authorization"),
+                    getInitParameter(context, "tokenCookie", null),
+                    getInitParameter(context, "tokenRoleClaim", "roles"),
+                    Integer.parseInt(getInitParameter(context, "tokenCacheSize", "1024")));
+        }
+
+        // Implémentation personnalisée désignée par son nom de classe
+        try {
+            return (SecurityContextProvider) Class.forName(type).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Fournisseur de sécurité invalide : " + type, e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package servlet.annotation.cors;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })  // Sur le controller (toutes ses routes) ou sur une méthode
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CrossOrigin {
+    String[] origins() default {};         // Origines autorisées ({} = "*")
+    String[] methods() default {};         // Méthodes autorisées ({} = méthode de la route)
+    String[] allowedHeaders() default {};  // Headers de requête autorisés ({} = ceux demandés)
+    String[] exposedHeaders() default {};  // Headers de réponse lisibles par le navigateur
+    String allowCredentials() default "";  // "true" ou "false" ("" = valeur du controller, sinon "false")
+    long maxAge() default -1;              // Durée de cache du preflight en secondes (-1 = valeur du controller,
+                                           // sinon 1800 ; 0 = pas de cache)
+}
@@ -0,0 +1,13 @@
+package servlet.annotation.exceptions;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Classe dont les méthodes @ExceptionHandler s'appliquent à tous les controllers
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ControllerAdvice {
+
+}
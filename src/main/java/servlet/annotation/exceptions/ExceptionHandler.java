@@ -0,0 +1,15 @@
+package servlet.annotation.exceptions;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)  // Applicable uniquement sur les méthodes
+@Retention(RetentionPolicy.RUNTIME)  // Disponible au runtime pour AOP
+public @interface ExceptionHandler {
+    // Types d'exception traités (par défaut : le type du paramètre Throwable de la méthode)
+    Class<? extends Throwable>[] value() default {};
+
+    int status() default 500; // Statut HTTP de la réponse d'erreur
+}
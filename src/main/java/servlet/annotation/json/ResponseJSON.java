@@ -8,5 +8,6 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)  // Applicable uniquement sur les méthodes
 @Retention(RetentionPolicy.RUNTIME)  // Disponible au runtime pour AOP
 public @interface ResponseJSON {
-    
+
+    boolean fields() default false; // ?fields=id,name : seules ces propriétés des objets retournés sont sérialisées
 }
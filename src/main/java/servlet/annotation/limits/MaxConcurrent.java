@@ -0,0 +1,14 @@
+package servlet.annotation.limits;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)  // Applicable uniquement sur les méthodes
+@Retention(RetentionPolicy.RUNTIME)  // Disponible au runtime pour AOP
+public @interface MaxConcurrent {
+    int value(); // Nombre maximal de requêtes traitées simultanément par la route
+
+    int retryAfter() default 1; // Valeur du header Retry-After (secondes) en cas de refus
+}
@@ -0,0 +1,22 @@
+package servlet.annotation.limits;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)  // Applicable uniquement sur les méthodes
+@Retention(RetentionPolicy.RUNTIME)  // Disponible au runtime pour AOP
+public @interface RateLimit {
+    double permitsPerSecond(); // Débit moyen autorisé
+
+    int burst() default 0; // Rafale tolérée (0 : arrondi supérieur du débit)
+
+    Key key() default Key.ROUTE; // Portée du compteur
+
+    enum Key {
+        ROUTE,     // un seul compteur pour la route
+        CLIENT_IP, // un compteur par adresse IP du client
+        SESSION    // un compteur par session (adresse IP à défaut de session)
+    }
+}
@@ -0,0 +1,13 @@
+package servlet.annotation.mappings;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.annotation.ElementType;
+
+@Target(ElementType.METHOD)
+// L’annotation doit être conservée à l’exécution (pour être lisible par réflexion)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PatchMapping {
+    String url() default "/";
+}
\ No newline at end of file
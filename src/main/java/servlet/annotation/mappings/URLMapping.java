@@ -10,5 +10,6 @@ import java.lang.annotation.ElementType;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface URLMapping {
     String url() default "/";
+    String[] method() default { "GET" }; // méthodes HTTP acceptées (ex: {"GET", "POST"})
 }
 
@@ -0,0 +1,12 @@
+package servlet.annotation.monitoring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })  // Sur le controller (toutes ses routes) ou sur une méthode
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SlowThreshold {
+    long value();  // Durée (ms) au-delà de laquelle une requête est lente et sa pile échantillonnée
+}
@@ -0,0 +1,15 @@
+package servlet.annotation.parameters;
+
+import java.lang.annotation.*;
+
+/**
+ * Tailles de page d'un paramètre PageRequest (à défaut : paramètres d'init defaultPageSize et maxPageSize)
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Paging {
+    int size() default 0; // taille sans ?size= (0 : valeur par défaut de l'application)
+
+    int maxSize() default 0; // taille maximale, une demande plus grande est ramenée à cette valeur
+}
@@ -0,0 +1,15 @@
+package servlet.annotation.parameters;
+
+import java.lang.annotation.*;
+
+/**
+ * Corps de la requête : byte[], String, ByteBuffer, InputStream, ou objet désérialisé selon son Content-Type
+ * (JSON par défaut, CBOR, JSON tramé...).
+ * En mode async, le corps est lu sans bloquer de thread avant l'appel du controller.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequestBody {
+    boolean required() default true; // corps vide refusé (400) si true
+}
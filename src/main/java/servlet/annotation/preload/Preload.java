@@ -0,0 +1,12 @@
+package servlet.annotation.preload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })  // Sur le controller (toutes ses routes) ou sur une méthode
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Preload {
+    String[] value();  // Ressources critiques de la page ("/css/app.css", "/js/app.js"...), relatives au contexte
+}
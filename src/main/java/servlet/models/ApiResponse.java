@@ -32,6 +32,9 @@ public class ApiResponse<T> {
         if (data instanceof List) {
             return ((List<?>) data).size();
         }
+        if (data instanceof Slice) {
+            return ((Slice<?>) data).getItems().size(); // éléments de la page, pas le total
+        }
         if (data.getClass().isArray()) {
             return java.lang.reflect.Array.getLength(data);
         }
@@ -1,6 +1,9 @@
 package servlet.models;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ModelView {
@@ -9,6 +12,8 @@ public class ModelView {
 
     private Map<String,Object> data;
 
+    private List<String> preloads; // ressources critiques propres à cette page (headers Link)
+
     public ModelView(){
         this.data = new HashMap<String,Object>();
     };
@@ -41,6 +46,19 @@ public class ModelView {
         this.data.put(key, value);
     }
 
+    // Ajoute des ressources à précharger, en plus de celles du @Preload de la route
+    public ModelView preload(String... paths) {
+        if (this.preloads == null) {
+            this.preloads = new ArrayList<>();
+        }
+        this.preloads.addAll(Arrays.asList(paths));
+        return this;
+    }
+
+    public List<String> getPreloads() {
+        return preloads == null ? List.of() : preloads;
+    }
+
     @Override
     public String toString() {
         return "ModelView [view=" + view + ", data=" + data + "]";
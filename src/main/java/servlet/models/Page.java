@@ -0,0 +1,33 @@
+package servlet.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page numérotée (pagination par position), sans nombre total : la ligne lue en plus
+ * (request.getLimit()) indique s'il existe une page suivante.
+ */
+public class Page<T> extends Slice<T> {
+    private final int page;
+
+    private Page(List<T> items, int size, int page, String next, String prev) {
+        super(items, size, next, prev);
+        this.page = page;
+    }
+
+    /**
+     * @param rows    Au plus request.getLimit() lignes lues à partir de request.getOffset()
+     * @param request La page demandée
+     * @return La page, avec les liens vers les pages voisines
+     */
+    public static <T> Page<T> of(List<T> rows, PageRequest request) {
+        boolean more = rows.size() > request.getSize();
+        List<T> items = more ? rows.subList(0, request.getSize()) : rows;
+        int number = request.getPage();
+        return new Page<>(Collections.unmodifiableList(items), request.getSize(), number,
+                more ? request.pageLink(number + 1) : null,
+                number > 1 ? request.pageLink(number - 1) : null);
+    }
+
+    public int getPage() { return page; }
+}
@@ -0,0 +1,66 @@
+package servlet.models;
+
+import servlet.util.paging.CursorSigner;
+
+/**
+ * Page demandée, liée automatiquement depuis ?page=, ?size= et ?cursor= (taille plafonnée).
+ * L'action lit {@link #getLimit()} lignes (une de plus que la taille, pour savoir s'il y a une suite
+ * sans compter le total) à partir de {@link #getOffset()}, ou après / avant la clé du curseur.
+ */
+public class PageRequest {
+    static final char AFTER = 'a';
+    static final char BEFORE = 'b';
+
+    private final int size;
+    private final int page;
+    private final String key;       // clé du curseur, null sans curseur
+    private final boolean backward; // curseur "précédent" : lignes avant la clé
+    private final String path;      // chemin et paramètres de la requête, sans page ni curseur
+    private final CursorSigner signer;
+
+    public PageRequest(int size, int page, String key, boolean backward, String path, CursorSigner signer) {
+        this.size = size;
+        this.page = page;
+        this.key = key;
+        this.backward = backward;
+        this.path = path;
+        this.signer = signer;
+    }
+
+    public int getSize() { return size; }
+
+    // Numéro de page (à partir de 1) pour une pagination par position
+    public int getPage() { return page; }
+
+    public long getOffset() { return (long) (page - 1) * size; }
+
+    // Nombre de lignes à lire : la ligne en plus indique une page suivante
+    public int getLimit() { return size + 1; }
+
+    public boolean hasCursor() { return key != null; }
+
+    public boolean isBackward() { return backward; }
+
+    // Clé après laquelle lire (curseur "suivant"), ou null
+    public String getAfter() { return key != null && !backward ? key : null; }
+
+    // Clé avant laquelle lire, en ordre inverse (curseur "précédent"), ou null
+    public String getBefore() { return key != null && backward ? key : null; }
+
+    String getKey() { return key; }
+
+    // Curseur signé pour le chemin de la requête (sans paramètres) : valable sur cette seule route
+    String cursorLink(char direction, Object position) {
+        int query = path.indexOf('?');
+        String scope = query < 0 ? path : path.substring(0, query);
+        return link("cursor", signer.sign(scope, direction + String.valueOf(position)));
+    }
+
+    String pageLink(int number) {
+        return link("page", Integer.toString(number));
+    }
+
+    private String link(String name, String value) {
+        return path + (path.indexOf('?') < 0 ? '?' : '&') + name + "=" + value;
+    }
+}
@@ -0,0 +1,62 @@
+package servlet.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Tranche de résultats paginée par curseur, sans nombre total : les éléments, la taille demandée et
+ * les liens next / prev (curseurs signés), null en bout de liste.
+ */
+public class Slice<T> {
+    private final List<T> items;
+    private final int size;
+    private final String next;
+    private final String prev;
+
+    protected Slice(List<T> items, int size, String next, String prev) {
+        this.items = items;
+        this.size = size;
+        this.next = next;
+        this.prev = prev;
+    }
+
+    /**
+     * Construit la tranche à partir des lignes lues par l'action
+     *
+     * @param rows    Au plus request.getLimit() lignes, triées sur la clé ; en ordre inverse (clé décroissante)
+     *                pour un curseur "précédent" (request.isBackward())
+     * @param request La page demandée
+     * @param keyOf   La clé de pagination d'un élément (unique et triée : id, date + id...)
+     * @return La tranche, éléments dans l'ordre croissant de la clé
+     */
+    public static <T> Slice<T> of(List<T> rows, PageRequest request, Function<? super T, ?> keyOf) {
+        boolean more = rows.size() > request.getSize();
+        List<T> items = new ArrayList<>(more ? rows.subList(0, request.getSize()) : rows);
+        if (request.isBackward()) {
+            Collections.reverse(items);
+        }
+
+        String next;
+        String prev;
+        if (items.isEmpty()) {
+            // Au-delà du dernier élément (ou avant le premier) : retour possible depuis la clé du curseur
+            next = request.isBackward() ? request.cursorLink(PageRequest.AFTER, request.getKey()) : null;
+            prev = request.getAfter() != null ? request.cursorLink(PageRequest.BEFORE, request.getKey()) : null;
+        } else {
+            Object first = keyOf.apply(items.get(0));
+            Object last = keyOf.apply(items.get(items.size() - 1));
+            boolean moreAfter = request.isBackward() || more;
+            boolean moreBefore = request.isBackward() ? more : request.hasCursor();
+            next = moreAfter ? request.cursorLink(PageRequest.AFTER, last) : null;
+            prev = moreBefore ? request.cursorLink(PageRequest.BEFORE, first) : null;
+        }
+        return new Slice<>(Collections.unmodifiableList(items), request.getSize(), next, prev);
+    }
+
+    public List<T> getItems() { return items; }
+    public int getSize() { return size; }
+    public String getNext() { return next; }
+    public String getPrev() { return prev; }
+}
@@ -1,17 +1,46 @@
 // src/servlet/util/ControllerInfo.java
 package servlet.util;
 
+import servlet.annotation.monitoring.SlowThreshold;
 import servlet.annotation.parameters.PathParam;
+import servlet.annotation.parameters.RequestBody;
+import servlet.util.cors.CorsPolicy;
+import servlet.util.limits.RouteLimiter;
+import servlet.util.preload.PreloadHints;
+import servlet.util.routing.ParamConstraint;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ControllerInfo {
     private final Class<?> controllerClass;
     private final Method method; // nom de la méthode d'action du controller
     private final PathPattern pathPattern;
     private final String[] parameterNames; // noms des @PathParam
+    private final CorsPolicy corsPolicy; // null si la route n'autorise pas le cross-origin
+    private final RouteLimiter limiter; // null si la route n'a ni @RateLimit ni @MaxConcurrent
+    private final PreloadHints preloadHints; // null si la route n'a pas de @Preload
+    private final LongAdder hits = new LongAdder(); // requêtes servies par la route
+    private final Map<String, ParamConstraint> typeChecks; // @PathParam numériques sans contrainte dans le motif
+    private final boolean requestBody; // un paramètre @RequestBody : corps lu avant l'invocation
+    private final String actionName; // Classe.méthode, pour les traces
+    private final long slowThresholdMillis; // @SlowThreshold de la méthode ou du controller (0 : seuil global)
+    private final boolean streaming; // retourne un flux SSE (Flow.Publisher) : requête longue par nature
+    private volatile Constructor<?> constructor; // résolu à la première requête (getDeclaredConstructor copie l'objet)
 
     public ControllerInfo(Class<?> controllerClass, Method method, PathPattern pathPattern) {
+        this(controllerClass, method, pathPattern, RouteLimiter.of(method));
+    }
+
+    /**
+     * @param limiter Le limiteur de la méthode, partagé par toutes ses routes (une méthode mappée sur
+     *                plusieurs verbes HTTP garde une seule limite) ; null si aucune
+     */
+    public ControllerInfo(Class<?> controllerClass, Method method, PathPattern pathPattern, RouteLimiter limiter) {
         this.controllerClass = controllerClass;
         this.method = method;
         this.pathPattern = pathPattern;
@@ -19,15 +48,73 @@ public class ControllerInfo {
         // Extraire les noms des paramètres annotés @PathParam
         var params = method.getParameters();
         var names = new java.util.ArrayList<String>();
+        Map<String, ParamConstraint> checks = new LinkedHashMap<>();
+        boolean body = false;
         for (var param : params) {
+            body |= param.isAnnotationPresent(RequestBody.class);
             if (param.isAnnotationPresent(PathParam.class)) {
                 String name = param.getAnnotation(PathParam.class).value();
                 names.add(name);
+
+                // Type numérique sans contrainte {name:...} : valeur vérifiée avant toute instanciation
+                ParamConstraint implied = impliedConstraint(param.getType());
+                if (implied != null && pathPattern.getConstraint(name) == null) {
+                    checks.put(name, implied);
+                }
             } else {
                 names.add(null); // ou gérer autrement
             }
         }
         this.parameterNames = names.toArray(new String[0]);
+        this.typeChecks = checks.isEmpty() ? null : checks;
+        this.requestBody = body;
+        this.corsPolicy = CorsPolicy.of(controllerClass, method, pathPattern.getHttpMethod());
+        this.limiter = limiter;
+        this.preloadHints = PreloadHints.of(controllerClass, method);
+        this.actionName = controllerClass.getName() + "." + method.getName();
+        SlowThreshold slow = method.isAnnotationPresent(SlowThreshold.class)
+                ? method.getAnnotation(SlowThreshold.class)
+                : controllerClass.getAnnotation(SlowThreshold.class);
+        this.slowThresholdMillis = slow != null ? slow.value() : 0;
+        this.streaming = Flow.Publisher.class.isAssignableFrom(method.getReturnType());
+    }
+
+    /**
+     * Crée une instance du controller avec son constructeur sans argument, mis en cache
+     *
+     * @return La nouvelle instance
+     * @throws ReflectiveOperationException si le constructeur est absent ou échoue
+     */
+    public Object newControllerInstance() throws ReflectiveOperationException {
+        Constructor<?> cached = constructor;
+        if (cached == null) {
+            cached = controllerClass.getDeclaredConstructor();
+            constructor = cached;
+        }
+        return cached.newInstance();
+    }
+
+    private static ParamConstraint impliedConstraint(Class<?> type) {
+        if (type == int.class || type == Integer.class) return ParamConstraint.INT;
+        if (type == long.class || type == Long.class) return ParamConstraint.LONG;
+        return null;
+    }
+
+    /**
+     * Vérifie les paramètres de chemin destinés à des arguments numériques
+     * 
+     * @param pathParams Les paramètres extraits du chemin
+     * @return Le nom du premier paramètre invalide, ou null si tous sont convertibles
+     */
+    public String findInvalidPathParam(Map<String, String> pathParams) {
+        if (typeChecks == null) return null;
+        for (Map.Entry<String, ParamConstraint> check : typeChecks.entrySet()) {
+            String value = pathParams.get(check.getKey());
+            if (value != null && !check.getValue().matches(value, 0, value.length())) {
+                return check.getKey();
+            }
+        }
+        return null;
     }
 
     // getters
@@ -35,4 +122,14 @@ public class ControllerInfo {
     public Method getMethod() { return method; }
     public PathPattern getPathPattern() { return pathPattern; }
     public String[] getParameterNames() { return parameterNames; }
+    public CorsPolicy getCorsPolicy() { return corsPolicy; }
+    public RouteLimiter getLimiter() { return limiter; }
+    public boolean hasRequestBody() { return requestBody; }
+    public PreloadHints getPreloadHints() { return preloadHints; }
+    public String getActionName() { return actionName; }
+    public long getSlowThresholdMillis() { return slowThresholdMillis; }
+    public boolean isStreaming() { return streaming; }
+
+    public void recordHit() { hits.increment(); }
+    public long getHits() { return hits.sum(); }
 }
\ No newline at end of file
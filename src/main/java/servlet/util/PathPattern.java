@@ -1,63 +1,221 @@
 package servlet.util;
 
-import java.util.HashMap;
-import java.util.Map;
+import servlet.util.routing.ParamConstraint;
+import servlet.util.routing.PathParameters;
+
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.ArrayList;
+import java.util.List;
 
 public class PathPattern {
     private final Pattern regex;
     private final String[] paramNames;
     private final String httpMethod;
+    private final String path;
+    private final Segment[] segments; // segments fixes, hors joker final
+    private final boolean catchAll;   // se termine par ** ou {name*}
+    private final int catchAllIndex;  // indice du paramètre {name*} (-1 pour ** ou sans joker)
+    private final String shape;       // chemin dont les paramètres sont normalisés en {} (ou {:contrainte})
+
+    // Rang d'un segment : littéral > mixte ("file-{id}.json") > paramètre contraint > paramètre seul
+    public static final int SEGMENT_PARAM = 0;
+    public static final int SEGMENT_CONSTRAINED = 1;
+    public static final int SEGMENT_MIXED = 2;
+    public static final int SEGMENT_LITERAL = 3;
 
     public PathPattern(String path, String httpMethod) {
-        String regexStr = path;
-        ArrayList<String> names = new ArrayList<String>();
-
-        // Transformer {id} → (?<id>[^/]+)
-        Matcher matcher = Pattern.compile("\\{([^}]+)\\}").matcher(path);
-        StringBuffer sb = new StringBuffer();
-        while (matcher.find()) {
-            String paramName = matcher.group(1);
-            names.add(paramName);
-            matcher.appendReplacement(sb, "(?<" + paramName + ">[^/]+)");
+        this.path = path;
+        this.httpMethod = httpMethod.toUpperCase();
+
+        // Découpage en segments : {id}, {id:int}, {slug:[a-z-]+}, {uuid:uuid}, littéraux ou mélange des deux,
+        // puis éventuellement un joker final ** ou {path*} qui couvre tout le reste du chemin
+        List<String> rawSegments = splitSegments(path);
+        String catchAllName = null;
+        boolean endsWithCatchAll = false;
+        if (!rawSegments.isEmpty()) {
+            String last = rawSegments.get(rawSegments.size() - 1);
+            if (last.equals("**") || CATCH_ALL.matcher(last).matches()) {
+                endsWithCatchAll = true;
+                catchAllName = last.equals("**") ? null : last.substring(1, last.length() - 2);
+                rawSegments.remove(rawSegments.size() - 1);
+            }
+        }
+        for (String raw : rawSegments) {
+            if (raw.contains("**") || CATCH_ALL.matcher(raw).matches()) {
+                throw new IllegalArgumentException("Joker ** ou {name*} autorisé seulement en fin de chemin : " + path);
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        this.segments = new Segment[rawSegments.size()];
+        StringBuilder shapeBuilder = new StringBuilder();
+        StringBuilder regexBuilder = new StringBuilder("^");
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = Segment.parse(rawSegments.get(i), path, names);
+            shapeBuilder.append('/').append(segments[i].shape);
+            regexBuilder.append("\\/").append(segments[i].regex);
         }
-        matcher.appendTail(sb);
-        regexStr = sb.toString();
 
-        // Ajouter ^ et $ + gérer le cas où ça finit par /
-        if (!regexStr.startsWith("^")) regexStr = "^" + regexStr;
-        if (!regexStr.endsWith("$")) regexStr += "$";
+        this.catchAll = endsWithCatchAll;
+        this.catchAllIndex = catchAllName != null ? names.size() : -1;
+        if (catchAllName != null) names.add(catchAllName);
+        if (catchAll) {
+            shapeBuilder.append("/**");
+            regexBuilder.append(catchAllName != null ? "(?:\\/(?<" + catchAllName + ">.*))?" : "(?:\\/.*)?");
+        }
 
-        this.regex = Pattern.compile(regexStr.replace("/", "\\/"));
+        this.shape = shapeBuilder.length() == 0 ? "/" : shapeBuilder.toString();
         this.paramNames = names.toArray(new String[0]);
-        this.httpMethod = httpMethod.toUpperCase();
+
+        // Expression équivalente (affichage et égalité) : la correspondance passe par les segments
+        this.regex = Pattern.compile(regexBuilder.length() == 1 ? "^\\/$" : regexBuilder.append('$').toString());
     }
 
+    private static final Pattern CATCH_ALL = Pattern.compile("\\{[^:{}*]+\\*\\}");
+
     public boolean matches(String uri, String method) {
-        return regex.matcher(uri).matches() && this.httpMethod.toLowerCase().compareTo(method.toLowerCase()) == 0;
+        return matchesPath(uri) && this.httpMethod.equalsIgnoreCase(method);
     }
 
-    public Map<String, String> extractParameters(String uri) {
-        Map<String, String> params = new HashMap<>();
-        Matcher matcher = regex.matcher(uri);
-        if (matcher.matches()) {
-            for (String name : paramNames) {
-                String value = matcher.group(name);
-                if (value != null) {
-                    params.put(name, value);
-                }
+    // Correspondance sur le chemin seul, sans tenir compte de la méthode HTTP
+    public boolean matchesPath(String uri) {
+        return walk(uri, null);
+    }
+
+    /**
+     * Extrait les paramètres du chemin, sans copie tant qu'ils ne sont pas lus
+     *
+     * @param uri Le chemin de la requête
+     * @return Les paramètres (vide si le chemin ne correspond pas)
+     */
+    public PathParameters extractParameters(String uri) {
+        return extractParameters(uri, new PathParameters());
+    }
+
+    /**
+     * Extrait les paramètres du chemin dans une instance réutilisée
+     *
+     * @param uri    Le chemin de la requête
+     * @param target L'instance à remplir
+     * @return L'instance remplie (vide si le chemin ne correspond pas)
+     */
+    public PathParameters extractParameters(String uri, PathParameters target) {
+        int[] offsets = target.reset(uri, paramNames);
+        if (!walk(uri, offsets)) {
+            target.reset(uri, paramNames);
+        }
+        return target;
+    }
+
+    /**
+     * Parcourt l'URI segment par segment, sans regex ni découpage préalable : un littéral est comparé
+     * sur place, un paramètre contraint est vérifié par son scanner
+     *
+     * @param uri     Le chemin de la requête
+     * @param offsets Positions de début et fin de chaque paramètre (null pour une simple vérification)
+     * @return true si le chemin correspond au motif
+     */
+    private boolean walk(String uri, int[] offsets) {
+        int length = uri.length();
+        if (segments.length == 0 && !catchAll) {
+            return length == 1 && uri.charAt(0) == '/';
+        }
+
+        int position = 0;
+        for (Segment segment : segments) {
+            if (position >= length || uri.charAt(position) != '/') return false;
+            int start = position + 1;
+            int end = uri.indexOf('/', start);
+            if (end < 0) end = length;
+            if (!segment.matches(uri, start, end, offsets)) return false;
+            position = end;
+        }
+
+        if (!catchAll) {
+            return position == length;
+        }
+
+        // Joker final : le reste du chemin (éventuellement vide), comparé par préfixe sans regex
+        if (position < length && uri.charAt(position) != '/') return false;
+        if (offsets != null && catchAllIndex >= 0) {
+            offsets[2 * catchAllIndex] = Math.min(position + 1, length);
+            offsets[2 * catchAllIndex + 1] = length;
+        }
+        return true;
+    }
+
+    // Découpe sur les "/" hors accolades (une contrainte peut contenir {n,m})
+    private static List<String> splitSegments(String path) {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        int start = path.startsWith("/") ? 1 : 0;
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '{') depth++;
+            else if (c == '}') depth--;
+            else if (c == '/' && depth == 0) {
+                result.add(path.substring(start, i));
+                start = i + 1;
             }
         }
-        return params;
+        if (start < path.length()) result.add(path.substring(start));
+        return result;
     }
 
     public Pattern getRegex() {
         return regex;
     }
 
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String[] getParamNames() {
+        return paramNames.clone();
+    }
+
+    // Forme du chemin, identique pour /users/{id} et /users/{uid}
+    public String getShape() {
+        return shape;
+    }
+
+    // Nombre de segments fixes, sans le joker final
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    public boolean hasCatchAll() {
+        return catchAll;
+    }
+
+    public int getSegmentRank(int index) {
+        return segments[index].rank;
+    }
+
+    // Segment littéral d'indice donné (sans le "/"), valable si son rang est SEGMENT_LITERAL
+    public String getSegment(int index) {
+        return segments[index].text;
+    }
+
+    // Nom du paramètre {name*} qui capture le reste du chemin, ou null
+    public String getCatchAllName() {
+        return catchAllIndex >= 0 ? paramNames[catchAllIndex] : null;
+    }
+
+    // Contrainte du paramètre de nom donné, ou null s'il n'en a pas
+    public ParamConstraint getConstraint(String paramName) {
+        for (Segment segment : segments) {
+            if (paramName.equals(segment.paramName)) return segment.constraint;
+        }
+        return null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -71,4 +229,110 @@ public class PathPattern {
     public int hashCode() {
         return Objects.hash(getRegex().pattern(), httpMethod);
     }
-}
\ No newline at end of file
+
+    // Segment compilé : littéral, paramètre (éventuellement contraint) ou mélange vérifié par regex
+    private static final class Segment {
+        private static final Pattern PARAM = Pattern.compile("\\{([^:}]+)(?::((?:[^{}]|\\{[^}]*\\})+))?\\}");
+
+        final int rank;
+        final String text;
+        final String paramName;             // paramètre seul
+        final int paramIndex;
+        final ParamConstraint constraint;   // contrainte du paramètre seul (null : [^/]+)
+        final Pattern mixed;                // segment mixte
+        final List<String> mixedNames;
+        final int firstMixedIndex;
+        final String shape;
+        final String regex;
+
+        private Segment(int rank, String text, String paramName, int paramIndex, ParamConstraint constraint,
+                Pattern mixed, List<String> mixedNames, int firstMixedIndex, String shape, String regex) {
+            this.rank = rank;
+            this.text = text;
+            this.paramName = paramName;
+            this.paramIndex = paramIndex;
+            this.constraint = constraint;
+            this.mixed = mixed;
+            this.mixedNames = mixedNames;
+            this.firstMixedIndex = firstMixedIndex;
+            this.shape = shape;
+            this.regex = regex;
+        }
+
+        static Segment parse(String text, String path, List<String> allNames) {
+            Matcher matcher = PARAM.matcher(text);
+            if (!matcher.find()) {
+                if (text.indexOf('{') >= 0 || text.indexOf('}') >= 0) {
+                    throw new IllegalArgumentException("Paramètre mal formé dans le chemin " + path + " : " + text);
+                }
+                return new Segment(SEGMENT_LITERAL, text, null, -1, null, null, null, -1, text, Pattern.quote(text));
+            }
+
+            // Paramètre seul : vérifié par le scanner de sa contrainte
+            if (matcher.start() == 0 && matcher.end() == text.length()) {
+                String name = matcher.group(1);
+                String spec = matcher.group(2);
+                ParamConstraint constraint = spec != null ? ParamConstraint.parse(spec) : null;
+                String valueRegex = constraint != null ? constraint.toRegex() : "[^/]+";
+                allNames.add(name);
+                return new Segment(constraint != null ? SEGMENT_CONSTRAINED : SEGMENT_PARAM, text, name,
+                        allNames.size() - 1, constraint, null, null, -1, constraint != null ? "{:" + spec + "}" : "{}",
+                        "(?<" + name + ">" + valueRegex + ")");
+            }
+
+            // Segment mixte : regex limitée au segment
+            List<String> names = new ArrayList<>();
+            StringBuilder shape = new StringBuilder();
+            StringBuilder regex = new StringBuilder();
+            int last = 0;
+            matcher.reset();
+            while (matcher.find()) {
+                String literal = text.substring(last, matcher.start());
+                if (!literal.isEmpty()) regex.append(Pattern.quote(literal));
+                shape.append(literal);
+
+                String name = matcher.group(1);
+                String spec = matcher.group(2);
+                names.add(name);
+                regex.append("(?<").append(name).append('>')
+                        .append(spec != null ? ParamConstraint.parse(spec).toRegex() : "[^/]+?").append(')');
+                shape.append(spec != null ? "{:" + spec + "}" : "{}");
+                last = matcher.end();
+            }
+            String tail = text.substring(last);
+            if (!tail.isEmpty()) regex.append(Pattern.quote(tail));
+            shape.append(tail);
+
+            int firstIndex = allNames.size();
+            allNames.addAll(names);
+            return new Segment(SEGMENT_MIXED, text, null, -1, null, Pattern.compile(regex.toString()), names,
+                    firstIndex, shape.toString(), regex.toString());
+        }
+
+        boolean matches(String uri, int start, int end, int[] offsets) {
+            switch (rank) {
+                case SEGMENT_LITERAL:
+                    return end - start == text.length() && uri.startsWith(text, start);
+                case SEGMENT_PARAM:
+                case SEGMENT_CONSTRAINED:
+                    if (end == start) return false;
+                    if (constraint != null && !constraint.matches(uri, start, end)) return false;
+                    if (offsets != null) {
+                        offsets[2 * paramIndex] = start;
+                        offsets[2 * paramIndex + 1] = end;
+                    }
+                    return true;
+                default:
+                    Matcher matcher = mixed.matcher(uri).region(start, end);
+                    if (!matcher.matches()) return false;
+                    if (offsets != null) {
+                        for (int i = 0; i < mixedNames.size(); i++) {
+                            offsets[2 * (firstMixedIndex + i)] = matcher.start(mixedNames.get(i));
+                            offsets[2 * (firstMixedIndex + i) + 1] = matcher.end(mixedNames.get(i));
+                        }
+                    }
+                    return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package servlet.util.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sous-requête d'un lot : {@code {"method": "GET", "path": "/users/42?fields=name", "params": {"page": 2}}}.
+ * Les paramètres de la chaîne de requête et ceux de {@code params} sont fusionnés.
+ */
+public class BatchEntry {
+    private final String method;
+    private final String path;
+    private final String queryString;
+    private final Map<String, String[]> parameters;
+    private final String error; // entrée invalide : message renvoyé sans exécution
+
+    private BatchEntry(String method, String path, String queryString, Map<String, String[]> parameters,
+            String error) {
+        this.method = method;
+        this.path = path;
+        this.queryString = queryString;
+        this.parameters = parameters;
+        this.error = error;
+    }
+
+    /**
+     * Lit une entrée du tableau JSON ; une entrée mal formée est conservée avec son message d'erreur
+     *
+     * @param node L'objet JSON de l'entrée
+     * @return L'entrée
+     */
+    public static BatchEntry parse(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return invalid("Entrée de lot invalide : objet {method, path, params} attendu");
+        }
+        String method = node.path("method").asText("GET").toUpperCase();
+        JsonNode pathNode = node.get("path");
+        if (pathNode == null || !pathNode.isTextual() || !pathNode.asText().startsWith("/")) {
+            return invalid("Entrée de lot invalide : chemin absolu attendu");
+        }
+
+        String path = pathNode.asText();
+        String queryString = null;
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            queryString = path.substring(query + 1);
+            path = path.substring(0, query);
+            parseQuery(queryString, values);
+        }
+
+        JsonNode params = node.get("params");
+        if (params != null && params.isObject()) {
+            for (Map.Entry<String, JsonNode> param : params.properties()) {
+                List<String> list = values.computeIfAbsent(param.getKey(), k -> new ArrayList<>());
+                if (param.getValue().isArray()) {
+                    for (JsonNode value : param.getValue()) list.add(value.asText());
+                } else if (!param.getValue().isNull()) {
+                    list.add(param.getValue().asText());
+                }
+            }
+        }
+
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : values.entrySet()) {
+            parameters.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+        }
+        return new BatchEntry(method, path, queryString, parameters, null);
+    }
+
+    static BatchEntry invalid(String message) {
+        return new BatchEntry(null, null, null, Map.of(), message);
+    }
+
+    private static void parseQuery(String query, Map<String, List<String>> values) {
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            values.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+        }
+    }
+
+    // GET et HEAD ne modifient rien : exécutables en parallèle avec leurs voisines
+    public boolean isIndependent() {
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    public String getMethod() { return method; }
+    public String getPath() { return path; }
+    public String getQueryString() { return queryString; }
+    public Map<String, String[]> getParameters() { return parameters; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,190 @@
+package servlet.util.batch;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.models.ApiResponse;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécute un lot de sous-requêtes à travers le pipeline du DispatcherServlet et renvoie un tableau JSON
+ * d'enveloppes ApiResponse, dans l'ordre du lot, chaque résultat étant écrit dès qu'il est disponible.
+ * Les GET/HEAD consécutifs s'exécutent en parallèle sur un pool borné ; une entrée qui modifie
+ * (POST, PUT, PATCH, DELETE...) attend les précédentes et s'exécute seule, dans l'ordre.
+ */
+public class BatchProcessor {
+    // Mapper créé au premier lot, pas au démarrage (jackson-annotations n'est requis qu'à l'usage)
+    private static final class Json {
+        static final ObjectMapper MAPPER = new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Pipeline de traitement d'une requête (DispatcherServlet.service)
+     */
+    @FunctionalInterface
+    public interface Dispatcher {
+        void dispatch(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException;
+    }
+
+    private final String batchPath;
+    private final int maxEntries;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param batchPath  Le chemin du point d'entrée (une entrée ne peut pas le viser)
+     * @param maxEntries Le nombre maximal d'entrées par lot
+     * @param threads    Le nombre de threads du pool partagé par tous les lots
+     */
+    public BatchProcessor(String batchPath, int maxEntries, int threads) {
+        this.batchPath = batchPath;
+        this.maxEntries = maxEntries;
+        AtomicInteger counter = new AtomicInteger();
+
+        // File bornée : au-delà, l'entrée s'exécute sur le thread du lot (pas d'accumulation sans limite)
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "batch-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Lit le lot (tableau JSON) et renvoie les résultats
+     *
+     * @param req        La requête de lot
+     * @param resp       La réponse de lot
+     * @param dispatcher Le pipeline appliqué à chaque entrée
+     * @return null si le lot a été traité, sinon le message d'erreur (corps invalide ou lot trop grand)
+     */
+    public String process(HttpServletRequest req, HttpServletResponse resp, Dispatcher dispatcher)
+            throws IOException {
+        JsonNode root;
+        try {
+            root = Json.MAPPER.readTree(req.getInputStream());
+        } catch (JsonProcessingException e) {
+            return "Corps de lot invalide : " + e.getOriginalMessage();
+        }
+        if (root == null || !root.isArray()) {
+            return "Corps de lot invalide : tableau JSON attendu";
+        }
+        if (root.size() > maxEntries) {
+            return "Lot trop grand : " + root.size() + " entrées (maximum " + maxEntries + ")";
+        }
+
+        List<BatchEntry> entries = new ArrayList<>(root.size());
+        for (JsonNode node : root) {
+            BatchEntry entry = BatchEntry.parse(node);
+            if (entry.getError() == null && entry.getPath().equals(batchPath)) {
+                entry = BatchEntry.invalid("Un lot ne peut pas contenir de lot");
+            }
+            entries.add(entry);
+        }
+
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("application/json;charset=UTF-8");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-store");
+
+        JsonGenerator out = Json.MAPPER.getFactory().createGenerator(resp.getWriter());
+        out.writeStartArray();
+        Deque<Future<BatchResponse>> pending = new ArrayDeque<>();
+        for (BatchEntry entry : entries) {
+            BatchResponse subResponse = new BatchResponse(resp);
+            if (entry.getError() != null) {
+                // Entrée invalide : erreur 400 à sa place dans le tableau, sans exécution
+                subResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, entry.getError());
+                pending.add(CompletableFuture.completedFuture(subResponse));
+                continue;
+            }
+            BatchRequest subRequest = new BatchRequest(req, entry);
+            if (entry.isIndependent()) {
+                pending.add(executor.submit(() -> run(dispatcher, subRequest, subResponse)));
+            } else {
+                // Barrière : les résultats précédents sont écrits avant d'exécuter l'entrée
+                drain(pending, out);
+                writeResult(out, run(dispatcher, subRequest, subResponse));
+            }
+        }
+        drain(pending, out);
+        out.writeEndArray();
+        out.flush();
+        return null;
+    }
+
+    // Écrit les résultats en attente, dans l'ordre du lot
+    private static void drain(Deque<Future<BatchResponse>> pending, JsonGenerator out) throws IOException {
+        while (!pending.isEmpty()) {
+            writeResult(out, await(pending.poll()));
+        }
+    }
+
+    private static BatchResponse run(Dispatcher dispatcher, BatchRequest req, BatchResponse resp) {
+        try {
+            dispatcher.dispatch(req, resp);
+        } catch (Exception e) {
+            if (!resp.isCommitted()) resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+        return resp;
+    }
+
+    private static BatchResponse await(Future<BatchResponse> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lot interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Échec d'une entrée du lot", e.getCause());
+        }
+    }
+
+    /**
+     * Écrit l'enveloppe d'une entrée : le corps JSON d'une action @ResponseJSON ou d'une erreur est déjà
+     * une enveloppe et est recopié tel quel, les autres corps sont enveloppés
+     */
+    private static void writeResult(JsonGenerator out, BatchResponse result) throws IOException {
+        int status = result.getStatus();
+        boolean success = status < 400;
+        String body = result.getBody();
+        if (result.isJson() && !body.isBlank()) {
+            JsonNode node = Json.MAPPER.readTree(body);
+            if (node.isObject() && node.has("status") && node.has("code")) {
+                out.writeTree(node);
+            } else {
+                Json.MAPPER.writeValue(out, new ApiResponse<Object>(success ? "success" : "error", status, node));
+            }
+        } else if (success) {
+            Json.MAPPER.writeValue(out, new ApiResponse<Object>("success", status, body.isEmpty() ? null : (Object) body));
+        } else {
+            String message = result.getErrorMessage() != null ? result.getErrorMessage() : "HTTP " + status;
+            Json.MAPPER.writeValue(out, new ApiResponse<>("error", status, message));
+        }
+        out.flush();
+    }
+
+    public String getPath() {
+        return batchPath;
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,164 @@
+package servlet.util.batch;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Requête en mémoire d'une entrée de lot : méthode, chemin et paramètres propres, sans corps.
+ * En-têtes, session et identité restent ceux de la requête de lot (les règles @Authorized s'appliquent
+ * donc à chaque entrée) ; les attributs posés pendant le traitement restent locaux à l'entrée.
+ * Les réponses d'erreur sont demandées en JSON (Accept forcé).
+ */
+public class BatchRequest extends HttpServletRequestWrapper {
+    private final BatchEntry entry;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    public BatchRequest(HttpServletRequest batch, BatchEntry entry) {
+        super(batch);
+        this.entry = entry;
+    }
+
+    @Override
+    public String getMethod() { return entry.getMethod(); }
+
+    @Override
+    public String getRequestURI() { return getContextPath() + entry.getPath(); }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        HttpServletRequest batch = (HttpServletRequest) getRequest();
+        return new StringBuffer(batch.getScheme()).append("://").append(batch.getServerName())
+                .append(':').append(batch.getServerPort()).append(getRequestURI());
+    }
+
+    @Override
+    public String getServletPath() { return entry.getPath(); }
+
+    @Override
+    public String getPathInfo() { return null; }
+
+    @Override
+    public String getQueryString() { return entry.getQueryString(); }
+
+    @Override
+    public DispatcherType getDispatcherType() { return DispatcherType.REQUEST; }
+
+    // --- Paramètres ---
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = entry.getParameters().get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        String[] values = entry.getParameters().get(name);
+        return values != null ? values.clone() : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() { return Collections.unmodifiableMap(entry.getParameters()); }
+
+    @Override
+    public Enumeration<String> getParameterNames() { return Collections.enumeration(entry.getParameters().keySet()); }
+
+    // --- En-têtes et corps ---
+
+    @Override
+    public String getHeader(String name) {
+        if ("Accept".equalsIgnoreCase(name)) return "application/json";
+        if (isBodyHeader(name)) return null;
+        return super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        if ("Accept".equalsIgnoreCase(name)) return Collections.enumeration(List.of("application/json"));
+        if (isBodyHeader(name)) return Collections.emptyEnumeration();
+        return super.getHeaders(name);
+    }
+
+    private static boolean isBodyHeader(String name) {
+        return "Content-Type".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name);
+    }
+
+    @Override
+    public String getContentType() { return null; }
+
+    @Override
+    public int getContentLength() { return 0; }
+
+    @Override
+    public long getContentLengthLong() { return 0; }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            @Override
+            public int read() { return -1; }
+
+            @Override
+            public boolean isFinished() { return true; }
+
+            @Override
+            public boolean isReady() { return true; }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new IllegalStateException("Lecture non bloquante indisponible dans un lot");
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() { return new BufferedReader(new StringReader("")); }
+
+    @Override
+    public Collection<Part> getParts() { return List.of(); }
+
+    @Override
+    public Part getPart(String name) { return null; }
+
+    @Override
+    public boolean isAsyncSupported() { return false; }
+
+    // --- Attributs locaux à l'entrée (ceux de la requête de lot restent lisibles) ---
+
+    @Override
+    public Object getAttribute(String name) {
+        Object value = attributes.get(name);
+        return value != null || attributes.containsKey(name) ? value : super.getAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        Set<String> names = new LinkedHashSet<>(Collections.list(super.getAttributeNames()));
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            if (attribute.getValue() != null) names.add(attribute.getKey());
+            else names.remove(attribute.getKey());
+        }
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) { attributes.put(name, value); }
+
+    @Override
+    public void removeAttribute(String name) { attributes.put(name, null); }
+}
@@ -0,0 +1,235 @@
+package servlet.util.batch;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Réponse en mémoire d'une entrée de lot : statut, en-têtes et corps sont capturés sans jamais toucher
+ * la réponse du lot (les entrées s'exécutent en parallèle). Les cookies posés par une entrée sont ignorés.
+ */
+public class BatchResponse extends HttpServletResponseWrapper {
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private int status = SC_OK;
+    private String errorMessage;
+    private String contentType;
+    private String characterEncoding = "UTF-8";
+    private PrintWriter writer;
+    private ServletOutputStream outputStream;
+    private boolean committed;
+
+    public BatchResponse(HttpServletResponse batch) {
+        super(batch);
+    }
+
+    /**
+     * Corps produit par l'entrée, décodé selon son encodage
+     */
+    public String getBody() {
+        if (writer != null) writer.flush();
+        return body.toString(charset());
+    }
+
+    // Message passé à sendError, ou null
+    public String getErrorMessage() { return errorMessage; }
+
+    public boolean isJson() {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json");
+    }
+
+    private Charset charset() {
+        try {
+            return Charset.forName(characterEncoding);
+        } catch (RuntimeException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    // --- Statut ---
+
+    @Override
+    public void setStatus(int sc) { if (!committed) status = sc; }
+
+    @Override
+    public int getStatus() { return status; }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        status = sc;
+        errorMessage = msg;
+        committed = true;
+    }
+
+    @Override
+    public void sendError(int sc) { sendError(sc, null); }
+
+    @Override
+    public void sendRedirect(String location) {
+        status = SC_FOUND;
+        setHeader("Location", location);
+        committed = true;
+    }
+
+    // --- En-têtes ---
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (committed) return;
+        if (value == null) {
+            headers.remove(name);
+        } else {
+            List<String> values = new ArrayList<>(1);
+            values.add(value);
+            headers.put(name, values);
+        }
+        if ("Content-Type".equalsIgnoreCase(name)) setContentType(value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (committed || value == null) return;
+        headers.computeIfAbsent(name, k -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) { setHeader(name, Integer.toString(value)); }
+
+    @Override
+    public void addIntHeader(String name, int value) { addHeader(name, Integer.toString(value)); }
+
+    @Override
+    public void setDateHeader(String name, long date) { setHeader(name, Long.toString(date)); }
+
+    @Override
+    public void addDateHeader(String name, long date) { addHeader(name, Long.toString(date)); }
+
+    @Override
+    public boolean containsHeader(String name) { return headers.containsKey(name); }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? List.of() : List.copyOf(values);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() { return List.copyOf(headers.keySet()); }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        // Ignoré : la réponse du lot est partagée et déjà en cours d'envoi
+    }
+
+    // --- Type de contenu ---
+
+    @Override
+    public void setContentType(String type) {
+        if (committed) return;
+        contentType = type;
+        if (type != null) {
+            int charsetIndex = type.toLowerCase(Locale.ROOT).indexOf("charset=");
+            if (charsetIndex >= 0) characterEncoding = type.substring(charsetIndex + 8).trim();
+        }
+    }
+
+    @Override
+    public String getContentType() { return contentType; }
+
+    @Override
+    public void setCharacterEncoding(String charset) { if (!committed && writer == null) characterEncoding = charset; }
+
+    @Override
+    public String getCharacterEncoding() { return characterEncoding; }
+
+    @Override
+    public void setContentLength(int len) {}
+
+    @Override
+    public void setContentLengthLong(long len) {}
+
+    @Override
+    public void setLocale(Locale loc) {}
+
+    // --- Corps ---
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(body, charset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) { body.write(b); }
+
+                @Override
+                public void write(byte[] b, int off, int len) { body.write(b, off, len); }
+
+                @Override
+                public boolean isReady() { return true; }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new IllegalStateException("Écriture non bloquante indisponible dans un lot");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void setBufferSize(int size) {}
+
+    @Override
+    public int getBufferSize() { return body.size(); }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) writer.flush();
+        committed = true;
+    }
+
+    @Override
+    public boolean isCommitted() { return committed; }
+
+    @Override
+    public void resetBuffer() {
+        if (committed) throw new IllegalStateException("Réponse déjà envoyée");
+        if (writer != null) writer.flush();
+        body.reset();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+    }
+}
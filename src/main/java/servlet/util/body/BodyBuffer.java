@@ -0,0 +1,125 @@
+package servlet.util.body;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contenu accumulé dans une suite de tampons du pool, sans recopie à chaque agrandissement :
+ * corps d'une requête lue en non bloquant, ou corps d'une réponse avant son envoi.
+ */
+public class BodyBuffer {
+    private final ByteBufferPool pool;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long size;
+
+    public BodyBuffer(ByteBufferPool pool) {
+        this.pool = pool;
+    }
+
+    // Tampon où écrire la suite du contenu (position = octets déjà écrits)
+    ByteBuffer writableChunk() {
+        ByteBuffer last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (last == null || !last.hasRemaining()) {
+            last = pool.acquire();
+            chunks.add(last);
+        }
+        return last;
+    }
+
+    // À appeler après avoir écrit n octets dans le tableau du tampon courant
+    void advance(ByteBuffer chunk, int n) {
+        chunk.position(chunk.position() + n);
+        size += n;
+    }
+
+    void write(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            ByteBuffer chunk = writableChunk();
+            int n = Math.min(length, chunk.remaining());
+            chunk.put(bytes, offset, n);
+            size += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    List<ByteBuffer> chunks() {
+        return chunks;
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[(int) size];
+        int offset = 0;
+        for (ByteBuffer chunk : chunks) {
+            System.arraycopy(chunk.array(), chunk.arrayOffset(), bytes, offset, chunk.position());
+            offset += chunk.position();
+        }
+        return bytes;
+    }
+
+    public String toString(Charset charset) {
+        return new String(toByteArray(), charset);
+    }
+
+    // Lecture du contenu à travers les tampons, sans copie préalable
+    public InputStream inputStream() {
+        return new InputStream() {
+            private int chunk;
+            private int offset;
+
+            @Override
+            public int read() {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] target, int off, int len) {
+                while (chunk < chunks.size() && offset >= chunks.get(chunk).position()) {
+                    chunk++;
+                    offset = 0;
+                }
+                if (chunk >= chunks.size()) return -1;
+                ByteBuffer current = chunks.get(chunk);
+                int n = Math.min(len, current.position() - offset);
+                System.arraycopy(current.array(), current.arrayOffset() + offset, target, off, n);
+                offset += n;
+                return n;
+            }
+        };
+    }
+
+    // Flux d'écriture vers les tampons
+    public OutputStream outputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                ByteBuffer chunk = writableChunk();
+                chunk.put((byte) b);
+                size++;
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) {
+                BodyBuffer.this.write(bytes, off, len);
+            }
+        };
+    }
+
+    // Rend les tampons au pool ; le contenu n'est plus lisible ensuite
+    public void release() {
+        for (ByteBuffer chunk : chunks) {
+            pool.release(chunk);
+        }
+        chunks.clear();
+        size = 0;
+    }
+}
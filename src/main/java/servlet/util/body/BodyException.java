@@ -0,0 +1,19 @@
+package servlet.util.body;
+
+import servlet.util.exceptions.ClientErrorException;
+
+/**
+ * Corps de requête refusé (vide, trop gros, illisible) : statut HTTP renvoyé au client
+ * quand aucun @ExceptionHandler ne la traite
+ */
+public class BodyException extends ClientErrorException {
+    private static final long serialVersionUID = 1L;
+
+    public BodyException(int status, String message) {
+        super(status, message);
+    }
+
+    public BodyException(int status, String message, Throwable cause) {
+        super(status, message, cause);
+    }
+}
@@ -0,0 +1,276 @@
+package servlet.util.body;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.annotation.parameters.RequestBody;
+import servlet.util.codec.Codec;
+import servlet.util.codec.CodecException;
+import servlet.util.codec.CodecRegistry;
+import servlet.util.exceptions.ErrorResponseWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Parameter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lecture non bloquante des corps de requête et envoi non bloquant des réponses.
+ * Pour une route qui attend un @RequestBody, la requête passe en async : un ReadListener accumule le corps
+ * dans des tampons du pool au fil de son arrivée, sans thread immobilisé par un client lent, puis la requête
+ * est redispatchée (DispatcherType.ASYNC) et l'action reçoit un corps complet. La réponse de ce second
+ * passage est produite en mémoire puis envoyée par un WriteListener.
+ * Un corps trop gros est refusé (413) dès Content-Length ou pendant la lecture, un client qui n'envoie
+ * pas son corps dans le délai reçoit 408.
+ */
+public class BodyPipeline {
+    private static final String BODY_ATTRIBUTE = BodyPipeline.class.getName() + ".body";
+
+    /**
+     * Issue de {@link #readAsync}
+     */
+    public enum ReadOutcome {
+        /** Lecture non démarrée : le corps sera lu en bloquant si l'action le demande */
+        NOT_STARTED,
+        /** Requête passée en async : le traitement reprendra au redispatch, ou s'achèvera sur une erreur */
+        SUSPENDED,
+        /** Réponse d'erreur déjà écrite (corps trop gros), sans passage en async */
+        HANDLED
+    }
+
+    private final ByteBufferPool pool;
+    private final long maxBodySize;
+    private final long readTimeoutMillis;
+    private final CodecRegistry codecs;
+    private final ErrorResponseWriter errorWriter = new ErrorResponseWriter();
+
+    /**
+     * @param codecs            Les formats des corps, choisis d'après Content-Type
+     * @param maxBodySize       La taille maximale d'un corps de requête (octets)
+     * @param readTimeoutMillis Le délai maximal de réception du corps, puis d'envoi de la réponse
+     * @param pool              Les tampons partagés
+     */
+    public BodyPipeline(CodecRegistry codecs, long maxBodySize, long readTimeoutMillis, ByteBufferPool pool) {
+        this.codecs = codecs;
+        this.maxBodySize = maxBodySize;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.pool = pool;
+    }
+
+    /**
+     * Démarre la lecture non bloquante du corps si la requête s'y prête
+     *
+     * @param req  La requête HTTP
+     * @param resp La réponse HTTP
+     * @return SUSPENDED si la requête est passée en async (reprise au redispatch, sans redispatch si la
+     *         lecture échoue : 400, 408 ou 413 puis fin de l'async), HANDLED si la réponse est déjà écrite
+     */
+    public ReadOutcome readAsync(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!req.isAsyncSupported() || req.getDispatcherType() != DispatcherType.REQUEST
+                || req.getAttribute(BODY_ATTRIBUTE) != null || req.getContentLengthLong() == 0
+                || isMultipart(req)) {
+            return ReadOutcome.NOT_STARTED;
+        }
+        if (req.getContentLengthLong() > maxBodySize) {
+            errorWriter.write(req, resp, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, tooLarge(), true);
+            return ReadOutcome.HANDLED;
+        }
+
+        AsyncContext async = req.startAsync(req, resp);
+        async.setTimeout(readTimeoutMillis);
+        BodyReader reader = new BodyReader(req, resp, async, req.getInputStream());
+        async.addListener(reader);
+        req.getInputStream().setReadListener(reader);
+        return ReadOutcome.SUSPENDED;
+    }
+
+    /**
+     * Au redispatch d'une requête dont le corps a été lu, prépare la réponse différée
+     *
+     * @return La réponse à utiliser pour la suite du traitement
+     */
+    public HttpServletResponse deferOutput(HttpServletRequest req, HttpServletResponse resp) {
+        if (!(req.getAttribute(BODY_ATTRIBUTE) instanceof BodyBuffer) || req.getDispatcherType() != DispatcherType.ASYNC) {
+            return resp;
+        }
+        return new DeferredResponse(resp, pool);
+    }
+
+    /**
+     * Fin du traitement : tampons du corps rendus au pool, réponse différée envoyée sans bloquer
+     */
+    public void finish(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Object body = req.getAttribute(BODY_ATTRIBUTE);
+        if (body instanceof BodyBuffer) {
+            req.removeAttribute(BODY_ATTRIBUTE);
+            ((BodyBuffer) body).release();
+        }
+        if (resp instanceof DeferredResponse deferred && !deferred.isPassThrough()) {
+            deferred.send(req, readTimeoutMillis);
+        }
+    }
+
+    /**
+     * Valeur d'un paramètre @RequestBody : corps déjà lu en non bloquant, sinon lu ici en bloquant
+     *
+     * @param req   La requête HTTP
+     * @param param Le paramètre de la méthode
+     * @return Le corps converti vers le type du paramètre
+     * @throws BodyException si le corps est absent (requis), trop gros ou illisible
+     */
+    public Object resolve(HttpServletRequest req, Parameter param) throws IOException {
+        Object stored = req.getAttribute(BODY_ATTRIBUTE);
+        BodyBuffer body;
+        if (stored instanceof BodyBuffer) {
+            body = (BodyBuffer) stored;
+        } else {
+            body = readBlocking(req);
+            req.setAttribute(BODY_ATTRIBUTE, body);
+        }
+
+        if (body.size() == 0) {
+            if (param.getAnnotation(RequestBody.class).required()) {
+                throw new BodyException(HttpServletResponse.SC_BAD_REQUEST, "Corps de requête attendu");
+            }
+            return null;
+        }
+
+        Class<?> type = param.getType();
+        if (type == byte[].class) return body.toByteArray();
+        if (type == ByteBuffer.class) return ByteBuffer.wrap(body.toByteArray()).asReadOnlyBuffer();
+        if (type == InputStream.class) return body.inputStream();
+        if (type == String.class || type == CharSequence.class) return body.toString(charset(req));
+
+        Codec codec = codecs.forContentType(req.getContentType());
+        try (InputStream in = body.inputStream()) {
+            return codec.decode(in, param.getParameterizedType());
+        } catch (JsonProcessingException e) {
+            throw new BodyException(HttpServletResponse.SC_BAD_REQUEST,
+                    "Corps " + codec.getMediaType() + " invalide : " + e.getOriginalMessage(), e);
+        } catch (CodecException e) {
+            throw new BodyException(HttpServletResponse.SC_BAD_REQUEST,
+                    "Corps " + codec.getMediaType() + " invalide : " + e.getMessage(), e);
+        }
+    }
+
+    // Lecture bloquante (servlet sans support async, sous-requête d'un lot...), avec la même limite de taille
+    private BodyBuffer readBlocking(HttpServletRequest req) throws IOException {
+        if (req.getContentLengthLong() > maxBodySize) {
+            throw new BodyException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, tooLarge());
+        }
+        BodyBuffer body = new BodyBuffer(pool);
+        InputStream in = req.getInputStream();
+        while (true) {
+            ByteBuffer chunk = body.writableChunk();
+            int n = in.read(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+            if (n < 0) return body;
+            body.advance(chunk, n);
+            if (body.size() > maxBodySize) {
+                body.release();
+                throw new BodyException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, tooLarge());
+            }
+        }
+    }
+
+    private static boolean isMultipart(HttpServletRequest req) {
+        String contentType = req.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+    }
+
+    private static Charset charset(HttpServletRequest req) {
+        String encoding = req.getCharacterEncoding();
+        try {
+            return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        } catch (RuntimeException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private String tooLarge() {
+        return "Corps de requête trop volumineux (maximum " + maxBodySize + " octets)";
+    }
+
+    // Accumule le corps au fil des notifications du conteneur, puis redispatche la requête
+    private final class BodyReader implements ReadListener, AsyncListener {
+        private final HttpServletRequest req;
+        private final HttpServletResponse resp;
+        private final AsyncContext async;
+        private final ServletInputStream in;
+        private final BodyBuffer body = new BodyBuffer(pool);
+        private boolean finished;
+
+        BodyReader(HttpServletRequest req, HttpServletResponse resp, AsyncContext async, ServletInputStream in) {
+            this.req = req;
+            this.resp = resp;
+            this.async = async;
+            this.in = in;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            while (!finished && in.isReady() && !in.isFinished()) {
+                ByteBuffer chunk = body.writableChunk();
+                int n = in.read(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+                if (n < 0) return;
+                body.advance(chunk, n);
+                if (body.size() > maxBodySize) {
+                    fail(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, tooLarge());
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onAllDataRead() {
+            if (finished) return;
+            finished = true;
+            req.setAttribute(BODY_ATTRIBUTE, body);
+            async.dispatch();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fail(HttpServletResponse.SC_BAD_REQUEST, "Lecture du corps interrompue");
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Client trop lent (slowloris) : la connexion est libérée
+            fail(HttpServletResponse.SC_REQUEST_TIMEOUT, "Corps de requête non reçu dans le délai");
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            fail(HttpServletResponse.SC_BAD_REQUEST, "Lecture du corps interrompue");
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (!finished) body.release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {}
+
+        private void fail(int status, String message) {
+            if (finished) return;
+            finished = true;
+            body.release();
+            try {
+                resp.setHeader("Connection", "close");
+                errorWriter.write(req, resp, status, message, true);
+            } catch (IOException | IllegalStateException e) {
+                // Réponse impossible : connexion déjà perdue
+            }
+            async.complete();
+        }
+    }
+}
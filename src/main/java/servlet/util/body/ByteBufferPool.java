@@ -0,0 +1,44 @@
+package servlet.util.body;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tampons de taille fixe réutilisés entre les requêtes pour les corps lus et les réponses différées.
+ * Tampons sur le tas : ServletInputStream et ServletOutputStream ne travaillent qu'avec des byte[],
+ * un tampon direct imposerait une copie de plus à chaque lecture et écriture.
+ */
+public class ByteBufferPool {
+    private final int chunkSize;
+    private final int maxPooled;
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * @param chunkSize La taille d'un tampon
+     * @param maxPooled Le nombre maximal de tampons conservés (au-delà, ils sont laissés au GC)
+     */
+    public ByteBufferPool(int chunkSize, int maxPooled) {
+        this.chunkSize = chunkSize;
+        this.maxPooled = maxPooled;
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(chunkSize);
+        }
+        pooled.decrementAndGet();
+        return buffer.clear();
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == chunkSize && pooled.incrementAndGet() <= maxPooled) {
+            free.offer(buffer);
+        } else if (buffer.capacity() == chunkSize) {
+            pooled.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package servlet.util.body;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Réponse dont le corps est d'abord produit en mémoire (tampons du pool), puis envoyé sans bloquer
+ * par un WriteListener une fois l'action terminée : un client lent n'immobilise pas de thread.
+ * Statut et en-têtes vont directement à la réponse réelle ; sendError et sendRedirect aussi.
+ * {@link #passThrough()} rend la main à la réponse réelle (flux SSE qui gère lui-même son écriture).
+ */
+public class DeferredResponse extends HttpServletResponseWrapper {
+    private final BodyBuffer body;
+    private final OutputStream sink;
+    private PrintWriter writer;
+    private ServletOutputStream outputStream;
+    private boolean passThrough;
+    private Runnable afterSend; // exécutée à la fin de l'envoi (ou de son abandon)
+
+    public DeferredResponse(HttpServletResponse response, ByteBufferPool pool) {
+        super(response);
+        this.body = new BodyBuffer(pool);
+        this.sink = body.outputStream();
+    }
+
+    // Écriture directe dans la réponse réelle à partir de maintenant (rien ne doit avoir été écrit)
+    public void passThrough() {
+        passThrough = true;
+        body.release();
+    }
+
+    public boolean isPassThrough() {
+        return passThrough;
+    }
+
+    /**
+     * Action à exécuter quand la requête se termine réellement, après l'envoi non bloquant du corps
+     * (ou son échec, ou son délai dépassé)
+     */
+    public void afterSend(Runnable action) {
+        this.afterSend = action;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (passThrough) return super.getWriter();
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(sink, Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (passThrough) return super.getOutputStream();
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException { sink.write(b); }
+
+                @Override
+                public void write(byte[] b, int off, int len) { body.write(b, off, len); }
+
+                @Override
+                public boolean isReady() { return true; }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new IllegalStateException("Réponse différée : écriture déjà non bloquante");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    // Rien n'est envoyé avant la fin de l'action
+    @Override
+    public void flushBuffer() {
+        if (writer != null) writer.flush();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (passThrough) {
+            super.resetBuffer();
+            return;
+        }
+        if (writer != null) writer.flush();
+        body.release();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        resetBuffer();
+    }
+
+    @Override
+    public void setBufferSize(int size) {}
+
+    @Override
+    public void setContentLength(int len) {}
+
+    @Override
+    public void setContentLengthLong(long len) {}
+
+    /**
+     * Envoie le corps accumulé en non bloquant : la requête repasse en async jusqu'à la fin de l'envoi
+     *
+     * @param req           La requête HTTP
+     * @param timeoutMillis Le délai maximal de l'envoi (client trop lent à lire)
+     */
+    void send(HttpServletRequest req, long timeoutMillis) throws IOException {
+        if (writer != null) writer.flush();
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (response.isCommitted()) {
+            // sendError/sendRedirect déjà envoyés par la réponse réelle
+            body.release();
+            if (afterSend != null) afterSend.run();
+            return;
+        }
+        AsyncContext async = req.startAsync(req, response);
+        async.setTimeout(timeoutMillis);
+        if (afterSend != null) {
+            Runnable action = afterSend;
+            async.addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) { action.run(); }
+
+                @Override
+                public void onError(AsyncEvent event) {}
+
+                @Override
+                public void onTimeout(AsyncEvent event) {}
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {}
+            });
+        }
+        response.setContentLengthLong(body.size());
+        ServletOutputStream out = response.getOutputStream();
+        out.setWriteListener(new Drain(async, out));
+    }
+
+    // Écrit les tampons tant que isReady() le permet ; le conteneur rappelle onWritePossible ensuite
+    private final class Drain implements WriteListener {
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+        private int chunk;
+
+        Drain(AsyncContext async, ServletOutputStream out) {
+            this.async = async;
+            this.out = out;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            List<ByteBuffer> chunks = body.chunks();
+            while (chunk < chunks.size()) {
+                if (!out.isReady()) return;
+                ByteBuffer current = chunks.get(chunk++);
+                out.write(current.array(), current.arrayOffset(), current.position());
+            }
+            if (!out.isReady()) return; // dernière écriture en cours, rappel à sa fin
+            body.release();
+            async.complete();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            body.release();
+            async.complete();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package servlet.util.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Cache borné à éviction LRU, partagé entre threads (accès synchronisés, sections très courtes)
+public class LruCache<K, V> {
+    private final int capacity;
+    private final LinkedHashMap<K, V> entries;
+
+    public LruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacité du cache doit être positive : " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.capacity;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() { return capacity; }
+}
@@ -1,5 +1,7 @@
 package servlet.util.cast;
 
+import servlet.util.exceptions.ErrorLogger;
+
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -32,6 +34,17 @@ public class UtilCast {
     }
     
     public static void setPropertyValue(Object root, String propertyPath, Object rawValue, Class<?> rootType) {
+        setPropertyValue(root, propertyPath, rawValue, rootType, null);
+    }
+
+    /**
+     * Assigne une propriété (chemin pointé, objets intermédiaires créés au besoin) ; une erreur est
+     * journalisée sans interrompre le binding des autres propriétés
+     *
+     * @param errors Le journal des erreurs (débit limité), ou null : erreur résumée sur une ligne
+     */
+    public static void setPropertyValue(Object root, String propertyPath, Object rawValue, Class<?> rootType,
+            ErrorLogger errors) {
         if (root == null || propertyPath == null || propertyPath.isEmpty()) return;
 
         String[] parts = propertyPath.split("\\.");
@@ -69,8 +82,12 @@ public class UtilCast {
             targetField.set(current, finalValue);
 
         } catch (Exception e) {
-            System.err.println("Erreur lors de l'instanciation/assignation via champ : " + propertyPath + " = " + rawValue);
-            e.printStackTrace();
+            String context = "binding " + rootType.getName() + "." + propertyPath;
+            if (errors != null) {
+                errors.log(context, e);
+            } else {
+                System.err.println("Erreur lors de l'instanciation/assignation via champ : " + context + " : " + e);
+            }
         }
     }
 
@@ -0,0 +1,343 @@
+package servlet.util.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * JSON binaire au format CBOR (RFC 8949), sans enveloppe : entiers et flottants sur leur taille
+ * minimale, chaînes sans échappement, byte[] transmis tels quels au lieu de base64.
+ * La conversion passe par l'arbre JsonNode de Jackson (module jackson-dataformat-cbor non requis) ;
+ * la lecture accepte aussi les longueurs indéfinies et les demi-flottants.
+ */
+public class CborCodec implements Codec {
+    public static final String MEDIA_TYPE = "application/cbor";
+
+    private static final int MAX_DEPTH = 512;
+    private static final int BREAK = 0xFF;
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final ObjectMapper mapper; // null : mapper partagé, créé au premier usage
+
+    public CborCodec() {
+        this(null);
+    }
+
+    public CborCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    private ObjectMapper mapper() {
+        return mapper != null ? mapper : JsonMappers.shared();
+    }
+
+    @Override
+    public String getMediaType() { return MEDIA_TYPE; }
+
+    @Override
+    public boolean isEnveloped() { return false; }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        write(mapper().valueToTree(value), out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object decode(InputStream in, Type type) throws IOException {
+        int initial = in.read();
+        if (initial < 0) {
+            throw new CodecException("CBOR vide");
+        }
+        JsonNode tree = read(in, initial, 0);
+        return mapper().readerFor(mapper().constructType(type)).readValue(tree);
+    }
+
+    // --- Écriture ---
+
+    private void write(JsonNode node, ByteArrayOutputStream out) throws IOException {
+        if (node == null) {
+            out.write(0xF6);
+            return;
+        }
+        switch (node.getNodeType()) {
+            case OBJECT:
+                head(out, 5, node.size());
+                for (Map.Entry<String, JsonNode> field : node.properties()) {
+                    text(out, field.getKey());
+                    write(field.getValue(), out);
+                }
+                break;
+            case ARRAY:
+                head(out, 4, node.size());
+                for (JsonNode element : node) {
+                    write(element, out);
+                }
+                break;
+            case STRING:
+                text(out, node.textValue());
+                break;
+            case NUMBER:
+                number(out, node);
+                break;
+            case BOOLEAN:
+                out.write(node.booleanValue() ? 0xF5 : 0xF4);
+                break;
+            case BINARY:
+                byte[] bytes = node.binaryValue();
+                head(out, 2, bytes.length);
+                out.write(bytes);
+                break;
+            case POJO:
+                write(mapper().valueToTree(((POJONode) node).getPojo()), out);
+                break;
+            default:
+                out.write(0xF6); // null, absent
+        }
+    }
+
+    private static void number(ByteArrayOutputStream out, JsonNode node) {
+        if (node.isIntegralNumber()) {
+            if (node.canConvertToLong()) {
+                integer(out, node.longValue());
+            } else {
+                bigInteger(out, node.bigIntegerValue());
+            }
+        } else if (node.isBigDecimal()) {
+            // Fraction décimale (tag 4) : [exposant, mantisse], sans perte de précision
+            BigDecimal decimal = node.decimalValue();
+            head(out, 6, 4);
+            head(out, 4, 2);
+            integer(out, -(long) decimal.scale());
+            BigInteger mantissa = decimal.unscaledValue();
+            if (mantissa.bitLength() < 64) {
+                integer(out, mantissa.longValue());
+            } else {
+                bigInteger(out, mantissa);
+            }
+        } else if (node.isFloat()) {
+            int bits = Float.floatToIntBits(node.floatValue());
+            out.write(0xFA);
+            for (int shift = 24; shift >= 0; shift -= 8) out.write(bits >>> shift);
+        } else {
+            long bits = Double.doubleToLongBits(node.doubleValue());
+            out.write(0xFB);
+            for (int shift = 56; shift >= 0; shift -= 8) out.write((int) (bits >>> shift));
+        }
+    }
+
+    private static void integer(ByteArrayOutputStream out, long value) {
+        if (value >= 0) {
+            head(out, 0, value);
+        } else {
+            head(out, 1, -1 - value);
+        }
+    }
+
+    // Entier hors de l'intervalle d'un long : tag 2 (positif) ou 3 (négatif, -1 - n)
+    private static void bigInteger(ByteArrayOutputStream out, BigInteger value) {
+        boolean negative = value.signum() < 0;
+        byte[] magnitude = (negative ? value.negate().subtract(BigInteger.ONE) : value).toByteArray();
+        int offset = magnitude.length > 1 && magnitude[0] == 0 ? 1 : 0; // octet de signe
+        head(out, 6, negative ? 3 : 2);
+        head(out, 2, magnitude.length - offset);
+        out.write(magnitude, offset, magnitude.length - offset);
+    }
+
+    private static void text(ByteArrayOutputStream out, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        head(out, 3, utf8.length);
+        out.write(utf8, 0, utf8.length);
+    }
+
+    // Type majeur et argument sur la taille minimale (valeur non signée)
+    private static void head(ByteArrayOutputStream out, int major, long value) {
+        int type = major << 5;
+        if (value < 24) {
+            out.write(type | (int) value);
+        } else if (value < 0x100) {
+            out.write(type | 24);
+            out.write((int) value);
+        } else if (value < 0x10000) {
+            out.write(type | 25);
+            out.write((int) (value >>> 8));
+            out.write((int) value);
+        } else if (value < 0x100000000L) {
+            out.write(type | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) out.write((int) (value >>> shift));
+        } else {
+            out.write(type | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) out.write((int) (value >>> shift));
+        }
+    }
+
+    // --- Lecture ---
+
+    private JsonNode read(InputStream in, int initial, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new CodecException("CBOR trop imbriqué");
+        }
+        int major = initial >>> 5;
+        int info = initial & 0x1F;
+        switch (major) {
+            case 0: {
+                long value = argument(in, info);
+                return value >= 0 ? numberNode(value) : NODES.numberNode(unsigned(value));
+            }
+            case 1: {
+                long value = argument(in, info);
+                return value >= 0 ? numberNode(-1 - value)
+                        : NODES.numberNode(unsigned(value).negate().subtract(BigInteger.ONE));
+            }
+            case 2:
+                return NODES.binaryNode(bytes(in, 2, info));
+            case 3:
+                return NODES.textNode(new String(bytes(in, 3, info), StandardCharsets.UTF_8));
+            case 4: {
+                ArrayNode array = NODES.arrayNode();
+                if (info == 31) {
+                    for (int next = next(in); next != BREAK; next = next(in)) {
+                        array.add(read(in, next, depth + 1));
+                    }
+                } else {
+                    for (long i = argument(in, info); i > 0; i--) {
+                        array.add(read(in, next(in), depth + 1));
+                    }
+                }
+                return array;
+            }
+            case 5: {
+                ObjectNode object = NODES.objectNode();
+                if (info == 31) {
+                    for (int next = next(in); next != BREAK; next = next(in)) {
+                        object.set(read(in, next, depth + 1).asText(), read(in, next(in), depth + 1));
+                    }
+                } else {
+                    for (long i = argument(in, info); i > 0; i--) {
+                        object.set(read(in, next(in), depth + 1).asText(), read(in, next(in), depth + 1));
+                    }
+                }
+                return object;
+            }
+            case 6:
+                return tagged(argument(in, info), read(in, next(in), depth + 1));
+            default:
+                return simple(in, info);
+        }
+    }
+
+    private static JsonNode tagged(long tag, JsonNode content) throws CodecException {
+        if ((tag == 2 || tag == 3) && content.isBinary()) {
+            BigInteger value = new BigInteger(1, ((BinaryNode) content).binaryValue());
+            return NODES.numberNode(tag == 2 ? value : value.negate().subtract(BigInteger.ONE));
+        }
+        if (tag == 4 && content.isArray() && content.size() == 2) {
+            BigInteger mantissa = content.get(1).bigIntegerValue();
+            return NODES.numberNode(new BigDecimal(mantissa, -content.get(0).intValue()));
+        }
+        return content; // autres tags (dates, URI...) : valeur sous-jacente
+    }
+
+    private static JsonNode simple(InputStream in, int info) throws IOException {
+        switch (info) {
+            case 20: return NODES.booleanNode(false);
+            case 21: return NODES.booleanNode(true);
+            case 22:
+            case 23: return NODES.nullNode();
+            case 25: return NODES.numberNode(halfToFloat((int) argument(in, 25)));
+            case 26: return NODES.numberNode(Float.intBitsToFloat((int) argument(in, 26)));
+            case 27: return NODES.numberNode(Double.longBitsToDouble(argument(in, 27)));
+            default: throw new CodecException("Valeur CBOR simple non prise en charge : " + info);
+        }
+    }
+
+    // Chaîne d'octets ou de texte, en un bloc ou en morceaux (longueur indéfinie)
+    private static byte[] bytes(InputStream in, int major, int info) throws IOException {
+        if (info != 31) {
+            return readExactly(in, argument(in, info));
+        }
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        for (int next = next(in); next != BREAK; next = next(in)) {
+            if (next >>> 5 != major || (next & 0x1F) == 31) {
+                throw new CodecException("Morceau de chaîne CBOR invalide");
+            }
+            chunks.write(readExactly(in, argument(in, next & 0x1F)));
+        }
+        return chunks.toByteArray();
+    }
+
+    private static byte[] readExactly(InputStream in, long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE - 8) {
+            throw new CodecException("Longueur CBOR invalide");
+        }
+        // readNBytes alloue au fil de la lecture : une longueur annoncée trop grande ne réserve rien d'avance
+        byte[] bytes = in.readNBytes((int) length);
+        if (bytes.length < length) {
+            throw new CodecException("CBOR tronqué");
+        }
+        return bytes;
+    }
+
+    // Argument de l'en-tête ; une valeur au-delà de Long.MAX_VALUE est rendue négative (non signée)
+    private static long argument(InputStream in, int info) throws IOException {
+        if (info < 24) return info;
+        int size;
+        switch (info) {
+            case 24: size = 1; break;
+            case 25: size = 2; break;
+            case 26: size = 4; break;
+            case 27: size = 8; break;
+            default: throw new CodecException("Argument CBOR invalide : " + info);
+        }
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value = (value << 8) | next(in);
+        }
+        return value;
+    }
+
+    private static int next(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new CodecException("CBOR tronqué");
+        }
+        return b;
+    }
+
+    private static JsonNode numberNode(long value) {
+        return value == (int) value ? NODES.numberNode((int) value) : NODES.numberNode(value);
+    }
+
+    private static BigInteger unsigned(long value) {
+        return new BigInteger(Long.toUnsignedString(value));
+    }
+
+    // Demi-flottant IEEE 754 (RFC 8949, annexe D)
+    private static float halfToFloat(int half) {
+        int exponent = (half >> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        double value;
+        if (exponent == 0) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (exponent != 31) {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        } else {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        }
+        return (float) ((half & 0x8000) != 0 ? -value : value);
+    }
+}
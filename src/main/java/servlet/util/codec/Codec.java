@@ -0,0 +1,42 @@
+package servlet.util.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * SPI des formats de sérialisation des routes @ResponseJSON et des corps @RequestBody.
+ * Le format est choisi d'après Accept (réponse) ou Content-Type (corps) ; des formats supplémentaires
+ * sont déclarés par le paramètre d'init "codecs" (noms de classes séparés par des virgules,
+ * constructeur sans argument).
+ */
+public interface Codec {
+
+    // Type de média pris en charge, sans paramètre (ex: application/json)
+    String getMediaType();
+
+    // Valeur du header Content-Type des réponses
+    default String getContentType() {
+        return getMediaType();
+    }
+
+    // true si les réponses sont placées dans une enveloppe ApiResponse
+    boolean isEnveloped();
+
+    /**
+     * Sérialise une valeur (ApiResponse si le format est enveloppé, résultat brut sinon)
+     *
+     * @param value La valeur à sérialiser, éventuellement null
+     * @return Le corps de la réponse
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * Désérialise un corps de requête
+     *
+     * @param in   Le corps
+     * @param type Le type attendu (éventuellement paramétré : List&lt;Item&gt;...)
+     * @return La valeur lue
+     */
+    Object decode(InputStream in, Type type) throws IOException;
+}
@@ -0,0 +1,14 @@
+package servlet.util.codec;
+
+import java.io.IOException;
+
+/**
+ * Corps mal formé pour son format (trame tronquée, CBOR invalide...)
+ */
+public class CodecException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public CodecException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,132 @@
+package servlet.util.codec;
+
+import servlet.util.cache.LruCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Table des formats par type de média, construite au démarrage. Le format d'une réponse est choisi une fois
+ * par requête d'après Accept (qualités q respectées) ; le résultat est mémorisé par valeur de header,
+ * si bien que les clients habituels, qui envoient toujours le même Accept, ne font qu'une lecture de cache.
+ * Le premier format enregistré sert par défaut : Accept absent, générique ou sans format connu.
+ */
+public class CodecRegistry {
+    private final Codec defaultCodec;
+    private final Map<String, Codec> byMediaType = new HashMap<>();
+    private final LruCache<String, Codec> negotiated = new LruCache<>(256);
+
+    /**
+     * @param codecs Les formats, le premier servant par défaut ; pour un même type de média, le dernier l'emporte
+     */
+    public CodecRegistry(List<Codec> codecs) {
+        if (codecs.isEmpty()) {
+            throw new IllegalArgumentException("Au moins un format de sérialisation est requis");
+        }
+        this.defaultCodec = codecs.get(0);
+        for (Codec codec : codecs) {
+            byMediaType.put(codec.getMediaType().toLowerCase(Locale.ROOT), codec);
+        }
+    }
+
+    // JSON (par défaut), CBOR et JSON tramé, suivis des formats supplémentaires
+    public static CodecRegistry withDefaults(List<Codec> extra) {
+        List<Codec> codecs = new ArrayList<>();
+        codecs.add(new JsonCodec());
+        codecs.add(new CborCodec());
+        codecs.add(new FramedJsonCodec());
+        codecs.addAll(extra);
+        return new CodecRegistry(codecs);
+    }
+
+    /**
+     * Format de la réponse d'après le header Accept
+     *
+     * @param accept La valeur du header (éventuellement null)
+     * @return Le format de plus haute qualité pris en charge, ou le format par défaut
+     */
+    public Codec negotiate(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return defaultCodec;
+        }
+        Codec codec = negotiated.get(accept);
+        if (codec == null) {
+            codec = select(accept);
+            negotiated.put(accept, codec);
+        }
+        return codec;
+    }
+
+    /**
+     * Format d'un corps de requête d'après son Content-Type (paramètres ignorés)
+     *
+     * @param contentType La valeur du header (éventuellement null)
+     * @return Le format correspondant, ou le format par défaut
+     */
+    public Codec forContentType(String contentType) {
+        if (contentType == null) {
+            return defaultCodec;
+        }
+        Codec codec = byMediaType.get(mediaType(contentType, 0, contentType.length()));
+        return codec != null ? codec : defaultCodec;
+    }
+
+    public Codec getDefault() { return defaultCodec; }
+
+    // Plusieurs formats possibles : la réponse dépend d'Accept (header Vary pour les caches)
+    public boolean isNegotiated() { return byMediaType.size() > 1; }
+
+    // Premier format de qualité maximale ; les jokers (*/*, application/*) désignent le format par défaut
+    private Codec select(String accept) {
+        Codec best = defaultCodec;
+        double bestQuality = -1;
+        int start = 0;
+        while (start <= accept.length()) {
+            int end = accept.indexOf(',', start);
+            if (end < 0) end = accept.length();
+
+            int semicolon = accept.indexOf(';', start);
+            int typeEnd = semicolon >= 0 && semicolon < end ? semicolon : end;
+            String type = mediaType(accept, start, typeEnd);
+            double quality = typeEnd < end ? quality(accept.substring(typeEnd, end)) : 1;
+
+            Codec codec = byMediaType.get(type);
+            if (codec == null && isWildcardFor(type, defaultCodec)) codec = defaultCodec;
+            if (codec != null && quality > 0 && quality > bestQuality) {
+                best = codec;
+                bestQuality = quality;
+            }
+            start = end + 1;
+        }
+        return best;
+    }
+
+    private static boolean isWildcardFor(String range, Codec codec) {
+        if (range.equals("*/*")) return true;
+        return range.endsWith("/*") && codec.getMediaType().regionMatches(true, 0, range, 0, range.length() - 1);
+    }
+
+    private static String mediaType(String value, int start, int end) {
+        int semicolon = value.indexOf(';', start);
+        if (semicolon >= 0 && semicolon < end) end = semicolon;
+        return value.substring(start, end).trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Valeur du paramètre q (1 par défaut, 0 si illisible)
+    private static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
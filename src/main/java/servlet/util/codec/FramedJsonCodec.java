@@ -0,0 +1,69 @@
+package servlet.util.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Format compact des appels internes : longueur sur 4 octets (big-endian) suivie du JSON sans indentation
+ * ni enveloppe. Le lecteur connaît la taille du message avant de l'analyser, y compris quand plusieurs
+ * messages se suivent sur une même connexion.
+ */
+public class FramedJsonCodec implements Codec {
+    public static final String MEDIA_TYPE = "application/x-framed-json";
+
+    private final ObjectMapper mapper; // null : mapper partagé, créé au premier usage
+
+    public FramedJsonCodec() {
+        this(null);
+    }
+
+    public FramedJsonCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    private ObjectMapper mapper() {
+        return mapper != null ? mapper : JsonMappers.shared();
+    }
+
+    @Override
+    public String getMediaType() { return MEDIA_TYPE; }
+
+    @Override
+    public boolean isEnveloped() { return false; }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        byte[] json = mapper().writeValueAsBytes(value);
+        byte[] frame = new byte[4 + json.length];
+        frame[0] = (byte) (json.length >>> 24);
+        frame[1] = (byte) (json.length >>> 16);
+        frame[2] = (byte) (json.length >>> 8);
+        frame[3] = (byte) json.length;
+        System.arraycopy(json, 0, frame, 4, json.length);
+        return frame;
+    }
+
+    @Override
+    public Object decode(InputStream in, Type type) throws IOException {
+        int length;
+        try {
+            length = new DataInputStream(in).readInt();
+        } catch (EOFException e) {
+            throw new CodecException("Trame incomplète : longueur absente");
+        }
+        if (length < 0) {
+            throw new CodecException("Trame invalide : longueur négative");
+        }
+        // readNBytes alloue au fil de la lecture : une longueur annoncée trop grande ne réserve rien d'avance
+        byte[] json = in.readNBytes(length);
+        if (json.length < length) {
+            throw new CodecException("Trame incomplète : " + json.length + " octets sur " + length);
+        }
+        return mapper().readValue(json, mapper().constructType(type));
+    }
+}
@@ -0,0 +1,59 @@
+package servlet.util.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * JSON indenté dans une enveloppe ApiResponse : format par défaut, celui des navigateurs et des outils
+ */
+public class JsonCodec implements Codec {
+    private final ObjectMapper mapper; // null : mapper partagé, créé au premier usage
+    private ObjectWriter writer;
+
+    public JsonCodec() {
+        this(null);
+    }
+
+    public JsonCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    // Mapper de ce format (configuration et sérialiseurs utilisés pour encoder)
+    public ObjectMapper getMapper() {
+        return mapper != null ? mapper : JsonMappers.shared();
+    }
+
+    // Writer indenté, dérivé une fois du mapper (une course ne fait qu'en créer deux identiques)
+    private ObjectWriter writer() {
+        ObjectWriter current = writer;
+        if (current == null) {
+            current = getMapper().writerWithDefaultPrettyPrinter();
+            writer = current;
+        }
+        return current;
+    }
+
+    @Override
+    public String getMediaType() { return "application/json"; }
+
+    @Override
+    public String getContentType() { return "application/json;charset=UTF-8"; }
+
+    @Override
+    public boolean isEnveloped() { return true; }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return writer().writeValueAsBytes(value);
+    }
+
+    @Override
+    public Object decode(InputStream in, Type type) throws IOException {
+        ObjectMapper mapper = getMapper();
+        return mapper.readValue(in, mapper.constructType(type));
+    }
+}
@@ -0,0 +1,22 @@
+package servlet.util.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * ObjectMapper partagé par le framework, créé au premier usage et non au démarrage : jackson-databind
+ * a besoin de jackson-annotations pour s'initialiser, une application qui ne produit pas de JSON
+ * démarre donc sans ce jar.
+ */
+public final class JsonMappers {
+
+    private JsonMappers() {}
+
+    public static ObjectMapper shared() {
+        return Holder.MAPPER;
+    }
+
+    // Initialisé au premier appel de shared() (classe chargée à la demande)
+    private static final class Holder {
+        static final ObjectMapper MAPPER = new ObjectMapper();
+    }
+}
@@ -5,11 +5,22 @@ import java.util.Map;
 import servlet.util.ControllerInfo;
 
 // Classe interne pour encapsuler les informations de mapping d'un controller
+// (instance portée par le RequestContext, réinitialisée à chaque requête)
 public class ControllerMapping {
-    private final ControllerInfo controllerInfo;
-    private final Map<String, String> pathParams;
+    private final RequestContext context;
+    private ControllerInfo controllerInfo;
+    private Map<String, String> pathParams;
 
     public ControllerMapping(ControllerInfo controllerInfo, Map<String, String> pathParams) {
+        this(null);
+        set(controllerInfo, pathParams);
+    }
+
+    ControllerMapping(RequestContext context) {
+        this.context = context;
+    }
+
+    void set(ControllerInfo controllerInfo, Map<String, String> pathParams) {
         this.controllerInfo = controllerInfo;
         this.pathParams = pathParams;
     }
@@ -21,4 +32,9 @@ public class ControllerMapping {
     public Map<String, String> getPathParams() {
         return pathParams;
     }
-}
\ No newline at end of file
+
+    // Contexte de la requête (tampons réutilisables), null si le mapping a été créé hors contexte
+    public RequestContext getContext() {
+        return context;
+    }
+}
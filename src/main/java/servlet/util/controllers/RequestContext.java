@@ -0,0 +1,112 @@
+package servlet.util.controllers;
+
+import servlet.util.ControllerInfo;
+import servlet.util.routing.PathParameters;
+import servlet.util.tracing.RequestTrace;
+
+import java.util.Arrays;
+
+/**
+ * Objets de travail d'une requête (mapping, paramètres du chemin, tableaux d'arguments, tampons de binding),
+ * recyclés d'une requête à l'autre sur le même thread au lieu d'être réalloués à chaque appel.
+ * Un contexte déjà utilisé sur le thread (forward ou handler d'exception qui redispatche) n'est pas partagé :
+ * la requête imbriquée reçoit un contexte neuf, non recyclé.
+ * Rien de ce qui est transmis au controller n'en provient directement : les valeurs liées aux beans
+ * sont copiées dans des tableaux à leur taille.
+ */
+public final class RequestContext {
+    private static final int MAX_POOLED_ARITY = 16;
+    private static final int MAX_POOLED_BUILDER = 1024;
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private static final ThreadLocal<RequestContext> POOL = ThreadLocal.withInitial(RequestContext::new);
+
+    private boolean inUse;
+    private final ControllerMapping mapping = new ControllerMapping(this);
+    private final PathParameters pathParams = new PathParameters();
+    private final Object[][] argumentsByArity = new Object[MAX_POOLED_ARITY + 1][];
+    private String[] scratch = new String[8];
+    private StringBuilder builder = new StringBuilder(64);
+    private RequestTrace trace = RequestTrace.NONE;
+
+    private RequestContext() {}
+
+    /**
+     * Récupère le contexte du thread courant, ou un contexte neuf s'il est déjà en cours d'utilisation
+     *
+     * @return Un contexte prêt à l'emploi, à rendre par {@link #release()}
+     */
+    public static RequestContext acquire() {
+        RequestContext context = POOL.get();
+        if (context.inUse) {
+            context = new RequestContext();
+        }
+        context.inUse = true;
+        return context;
+    }
+
+    /**
+     * Remplit le mapping réutilisable avec la route et les paramètres extraits du chemin
+     *
+     * @param info La route retenue
+     * @param path Le chemin de la requête
+     * @return Le mapping du contexte
+     */
+    public ControllerMapping map(ControllerInfo info, String path) {
+        mapping.set(info, info.getPathPattern().extractParameters(path, pathParams));
+        return mapping;
+    }
+
+    /**
+     * Tableau d'arguments de la taille demandée, vidé à la libération du contexte
+     *
+     * @param arity Le nombre de paramètres de la méthode
+     * @return Un tableau de cette taille
+     */
+    public Object[] arguments(int arity) {
+        if (arity == 0) return NO_ARGUMENTS;
+        Object[] args = arity <= MAX_POOLED_ARITY ? argumentsByArity[arity] : null;
+        if (args == null) {
+            args = new Object[arity];
+            if (arity <= MAX_POOLED_ARITY) argumentsByArity[arity] = args;
+        }
+        return args;
+    }
+
+    // Tableau de travail d'au moins la taille demandée (contenu indéfini)
+    public String[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new String[Math.max(length, 2 * scratch.length)];
+        }
+        return scratch;
+    }
+
+    // StringBuilder vidé, à ne pas conserver au-delà de l'appel
+    public StringBuilder builder() {
+        builder.setLength(0);
+        return builder;
+    }
+
+    // Trace de la requête (RequestTrace.NONE si le traçage est désactivé)
+    public RequestTrace getTrace() { return trace; }
+
+    public void setTrace(RequestTrace trace) { this.trace = trace; }
+
+    /**
+     * Rend le contexte au pool du thread : toutes les références vers la requête sont effacées
+     */
+    public void release() {
+        mapping.set(null, null);
+        pathParams.clear();
+        for (Object[] args : argumentsByArity) {
+            if (args != null) Arrays.fill(args, null);
+        }
+        Arrays.fill(scratch, null);
+        if (builder.capacity() > MAX_POOLED_BUILDER) {
+            builder = new StringBuilder(64);
+        }
+        builder.setLength(0);
+        trace = RequestTrace.NONE;
+        inUse = false;
+    }
+}
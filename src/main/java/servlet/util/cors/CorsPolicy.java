@@ -0,0 +1,147 @@
+package servlet.util.cors;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.annotation.cors.CrossOrigin;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Politique CORS d'une route, fusionnée au démarrage depuis les @CrossOrigin du controller et de la méthode
+ * (les attributs renseignés sur la méthode l'emportent). Les valeurs des headers sont rendues une fois pour toutes.
+ * Les credentials exigent des origines explicites : renvoyer n'importe quelle origine avec
+ * Access-Control-Allow-Credentials permettrait à tout site de lire l'API avec les cookies de l'utilisateur.
+ */
+public class CorsPolicy {
+    private static final long DEFAULT_MAX_AGE = 1800;
+
+    private final Set<String> origins;
+    private final boolean anyOrigin;
+    private final String allowMethods;
+    private final String allowHeaders;
+    private final String exposeHeaders;
+    private final String maxAge;
+    private final boolean allowCredentials;
+
+    private CorsPolicy(String[] origins, String allowMethods, String[] allowedHeaders, String[] exposedHeaders,
+            boolean allowCredentials, long maxAge) {
+        this.origins = new LinkedHashSet<>(Arrays.asList(origins));
+        this.anyOrigin = origins.length == 0 || this.origins.contains("*");
+        this.allowMethods = allowMethods;
+        this.allowHeaders = allowedHeaders.length == 0 || Arrays.asList(allowedHeaders).contains("*")
+                ? null
+                : String.join(", ", allowedHeaders);
+        this.exposeHeaders = exposedHeaders.length == 0 ? null : String.join(", ", exposedHeaders);
+        this.maxAge = Long.toString(maxAge);
+        this.allowCredentials = allowCredentials;
+    }
+
+    /**
+     * Construit la politique d'une route
+     * 
+     * @param controllerClass La classe du controller
+     * @param method          La méthode d'action
+     * @param httpMethod      La méthode HTTP de la route
+     * @return La politique, ou null si ni la classe ni la méthode ne portent @CrossOrigin
+     * @throws IllegalStateException si les credentials sont autorisés sans liste d'origines explicite,
+     *                               ou si allowCredentials n'est ni "true" ni "false"
+     */
+    public static CorsPolicy of(Class<?> controllerClass, Method method, String httpMethod) {
+        CrossOrigin onClass = controllerClass.getAnnotation(CrossOrigin.class);
+        CrossOrigin onMethod = method.getAnnotation(CrossOrigin.class);
+        if (onClass == null && onMethod == null) return null;
+
+        CrossOrigin primary = onMethod != null ? onMethod : onClass;
+        CrossOrigin fallback = onClass != null ? onClass : onMethod;
+
+        String[] methods = pick(primary.methods(), fallback.methods());
+        String allowMethods = methods.length > 0
+                ? String.join(", ", methods)
+                : ("GET".equals(httpMethod) ? "GET, HEAD" : httpMethod);
+
+        // Attributs non renseignés sur la méthode ("" et -1) : valeur du controller, puis valeur par défaut
+        String credentials = !primary.allowCredentials().isEmpty() ? primary.allowCredentials()
+                : fallback.allowCredentials();
+        if (!credentials.isEmpty() && !"true".equals(credentials) && !"false".equals(credentials)) {
+            throw new IllegalStateException("@CrossOrigin(allowCredentials = \"" + credentials + "\") sur "
+                    + describe(controllerClass, method) + " : \"true\" ou \"false\" attendu");
+        }
+        boolean allowCredentials = "true".equals(credentials);
+        long maxAge = primary.maxAge() >= 0 ? primary.maxAge()
+                : fallback.maxAge() >= 0 ? fallback.maxAge() : DEFAULT_MAX_AGE;
+
+        String[] origins = pick(primary.origins(), fallback.origins());
+        if (allowCredentials && (origins.length == 0 || Arrays.asList(origins).contains("*"))) {
+            throw new IllegalStateException("@CrossOrigin sur " + describe(controllerClass, method)
+                    + " : allowCredentials exige une liste d'origines explicite (origins = {\"https://...\"})");
+        }
+
+        return new CorsPolicy(
+                origins,
+                allowMethods,
+                pick(primary.allowedHeaders(), fallback.allowedHeaders()),
+                pick(primary.exposedHeaders(), fallback.exposedHeaders()),
+                allowCredentials,
+                maxAge);
+    }
+
+    public boolean allowsOrigin(String origin) {
+        return anyOrigin || origins.contains(origin);
+    }
+
+    /**
+     * Ajoute les headers CORS d'une requête effective (non preflight)
+     * 
+     * @param origin La valeur du header Origin
+     * @param resp   La réponse HTTP
+     */
+    public void applyToResponse(String origin, HttpServletResponse resp) {
+        if (!allowsOrigin(origin)) return;
+        writeOrigin(origin, resp);
+        if (exposeHeaders != null) resp.setHeader("Access-Control-Expose-Headers", exposeHeaders);
+    }
+
+    /**
+     * Répond à une requête preflight (OPTIONS avec Access-Control-Request-Method)
+     * 
+     * @param origin La valeur du header Origin
+     * @param req    La requête HTTP
+     * @param resp   La réponse HTTP
+     */
+    public void applyToPreflight(String origin, HttpServletRequest req, HttpServletResponse resp) {
+        if (!allowsOrigin(origin)) {
+            resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        writeOrigin(origin, resp);
+        resp.setHeader("Access-Control-Allow-Methods", allowMethods);
+
+        String requestedHeaders = req.getHeader("Access-Control-Request-Headers");
+        String headers = allowHeaders != null ? allowHeaders : requestedHeaders;
+        if (headers != null && !headers.isEmpty()) resp.setHeader("Access-Control-Allow-Headers", headers);
+        resp.setHeader("Access-Control-Max-Age", maxAge);
+        resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    private void writeOrigin(String origin, HttpServletResponse resp) {
+        // Sans credentials, toute origine reçoit "*" ; avec, seules les origines listées sont renvoyées
+        if (anyOrigin) {
+            resp.setHeader("Access-Control-Allow-Origin", "*");
+        } else {
+            resp.setHeader("Access-Control-Allow-Origin", origin);
+            resp.addHeader("Vary", "Origin");
+        }
+        if (allowCredentials) resp.setHeader("Access-Control-Allow-Credentials", "true");
+    }
+
+    private static String describe(Class<?> controllerClass, Method method) {
+        return controllerClass.getName() + "." + method.getName();
+    }
+
+    private static String[] pick(String[] primary, String[] fallback) {
+        return primary.length > 0 ? primary : fallback;
+    }
+}
@@ -0,0 +1,25 @@
+package servlet.util.exceptions;
+
+/**
+ * Requête refusée pour une erreur du client : statut HTTP (4xx) et message renvoyés tels quels
+ * quand aucun @ExceptionHandler ne la traite, sans journalisation
+ */
+public class ClientErrorException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public ClientErrorException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public ClientErrorException(int status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
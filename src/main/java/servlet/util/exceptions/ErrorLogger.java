@@ -0,0 +1,64 @@
+package servlet.util.exceptions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journalisation des erreurs non traitées, limitée en débit : au plus {@code tracesPerSecond} stack traces
+ * complètes par seconde. Au-delà, une erreur sur {@code sampleRate} est résumée sur une ligne et les autres
+ * sont seulement comptées, le total étant annoncé à l'ouverture de la fenêtre suivante.
+ */
+public class ErrorLogger {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final int tracesPerSecond;
+    private final int sampleRate;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger logged = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    public ErrorLogger(int tracesPerSecond, int sampleRate) {
+        this.tracesPerSecond = tracesPerSecond;
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    /**
+     * Journalise une erreur survenue pendant le traitement d'une requête
+     *
+     * @param context Description de la requête (méthode et URI)
+     * @param error   L'exception
+     */
+    public void log(String context, Throwable error) {
+        rollWindow();
+
+        if (logged.incrementAndGet() <= tracesPerSecond) {
+            synchronized (System.err) {
+                System.err.println("Erreur lors du traitement de " + context + " :");
+                error.printStackTrace();
+            }
+            return;
+        }
+
+        int count = suppressed.incrementAndGet();
+        if (count % sampleRate == 1 || sampleRate == 1) {
+            StackTraceElement[] stack = error.getStackTrace();
+            System.err.println("Erreur (échantillon, trace omise) sur " + context + " : " + error
+                    + (stack.length > 0 ? " at " + stack[0] : ""));
+        }
+    }
+
+    private void rollWindow() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start < WINDOW_NANOS || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        // Seul le thread qui ouvre la nouvelle fenêtre remet les compteurs à zéro
+        logged.set(0);
+        int dropped = suppressed.getAndSet(0);
+        if (dropped > 0) {
+            System.err.println(dropped + " erreur(s) sans stack trace pendant la dernière fenêtre de journalisation");
+        }
+    }
+}
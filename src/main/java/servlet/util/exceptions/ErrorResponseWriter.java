@@ -0,0 +1,100 @@
+package servlet.util.exceptions;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.models.ApiResponse;
+import servlet.util.codec.JsonMappers;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Rendu des réponses d'erreur standard : enveloppe ApiResponse en JSON, page HTML minimale sinon.
+ * Le writer JSON est partagé entre les requêtes (thread-safe), aucune configuration n'est refaite par erreur.
+ */
+public class ErrorResponseWriter {
+    private static final String HTML_TEMPLATE = """
+            <html>
+                <head><title>Error %d</title></head>
+                <body>
+                    <h1>Error %d</h1>
+                    <p>%s</p>
+                </body>
+            </html>
+            """;
+
+    /**
+     * Écrit une réponse d'erreur si la réponse n'est pas encore envoyée
+     *
+     * @param req     La requête HTTP
+     * @param resp    La réponse HTTP
+     * @param status  Le statut HTTP
+     * @param message Le message d'erreur
+     * @param json    true pour une enveloppe ApiResponse JSON
+     */
+    public void write(HttpServletRequest req, HttpServletResponse resp, int status, String message, boolean json)
+            throws IOException {
+        if (resp.isCommitted()) return;
+
+        resp.resetBuffer();
+        resp.setStatus(status);
+        resp.setCharacterEncoding("UTF-8");
+        if (json || acceptsJson(req)) {
+            resp.setContentType("application/json;charset=UTF-8");
+            print(resp, Json.WRITER.writeValueAsString(new ApiResponse<>("error", status, message)));
+        } else {
+            resp.setContentType("text/html;charset=UTF-8");
+            print(resp, HTML_TEMPLATE.formatted(status, status, escape(message)));
+        }
+    }
+
+    /**
+     * Sérialise une enveloppe d'erreur déjà construite (retour d'un @ExceptionHandler)
+     */
+    public void writeJson(HttpServletResponse resp, ApiResponse<?> body) throws IOException {
+        resp.setContentType("application/json;charset=UTF-8");
+        resp.setCharacterEncoding("UTF-8");
+        print(resp, Json.WRITER.writeValueAsString(body));
+    }
+
+    // getOutputStream() déjà appelé par l'action (fichier, flux binaire) : getWriter() est refusé,
+    // le corps est alors écrit en octets UTF-8
+    private static void print(HttpServletResponse resp, String body) throws IOException {
+        PrintWriter out;
+        try {
+            out = resp.getWriter();
+        } catch (IllegalStateException e) {
+            resp.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        out.print(body);
+    }
+
+    private static boolean acceptsJson(HttpServletRequest req) {
+        String accept = req.getHeader("Accept");
+        return accept != null && accept.contains("application/json");
+    }
+
+    // Writer créé à la première erreur JSON, pas au chargement de la servlet
+    private static final class Json {
+        static final ObjectWriter WRITER = JsonMappers.shared().writerFor(ApiResponse.class);
+    }
+
+    private static String escape(String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&': sb.append("&amp;"); break;
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '"': sb.append("&quot;"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
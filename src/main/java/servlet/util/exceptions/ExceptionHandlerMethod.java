@@ -0,0 +1,94 @@
+package servlet.util.exceptions;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.annotation.exceptions.ExceptionHandler;
+
+import java.lang.reflect.Method;
+
+/**
+ * Méthode @ExceptionHandler préparée au démarrage : types traités, statut et source de chaque argument
+ */
+public class ExceptionHandlerMethod {
+    private static final byte ARG_NULL = 0;
+    private static final byte ARG_EXCEPTION = 1;
+    private static final byte ARG_REQUEST = 2;
+    private static final byte ARG_RESPONSE = 3;
+
+    private final Method method;
+    private final Object sharedInstance; // instance unique pour un @ControllerAdvice, null pour un controller
+    private final Class<? extends Throwable>[] exceptionTypes;
+    private final int status;
+    private final byte[] argumentSources;
+
+    @SuppressWarnings("unchecked")
+    public ExceptionHandlerMethod(Method method, Object sharedInstance) {
+        ExceptionHandler annotation = method.getAnnotation(ExceptionHandler.class);
+        this.method = method;
+        this.sharedInstance = sharedInstance;
+        this.status = annotation.status();
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        this.argumentSources = new byte[parameterTypes.length];
+        Class<? extends Throwable> declaredType = null;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> type = parameterTypes[i];
+            if (Throwable.class.isAssignableFrom(type)) {
+                argumentSources[i] = ARG_EXCEPTION;
+                declaredType = (Class<? extends Throwable>) type;
+            } else if (type == HttpServletRequest.class) {
+                argumentSources[i] = ARG_REQUEST;
+            } else if (type == HttpServletResponse.class) {
+                argumentSources[i] = ARG_RESPONSE;
+            } else {
+                argumentSources[i] = ARG_NULL;
+            }
+        }
+
+        if (annotation.value().length > 0) {
+            this.exceptionTypes = annotation.value();
+        } else if (declaredType != null) {
+            this.exceptionTypes = (Class<? extends Throwable>[]) new Class<?>[] { declaredType };
+        } else {
+            throw new IllegalStateException("@ExceptionHandler sans type d'exception : "
+                    + method.getDeclaringClass().getName() + "." + method.getName());
+        }
+        method.setAccessible(true);
+    }
+
+    /**
+     * Invoque le handler
+     *
+     * @param controllerInstance L'instance du controller en cours (peut être null)
+     * @param error              L'exception à traiter
+     * @param req                La requête HTTP
+     * @param resp               La réponse HTTP
+     * @return L'objet retourné par le handler
+     */
+    public Object invoke(Object controllerInstance, Throwable error, HttpServletRequest req, HttpServletResponse resp)
+            throws ReflectiveOperationException {
+        Object[] args = new Object[argumentSources.length];
+        for (int i = 0; i < args.length; i++) {
+            switch (argumentSources[i]) {
+                case ARG_EXCEPTION: args[i] = error; break;
+                case ARG_REQUEST: args[i] = req; break;
+                case ARG_RESPONSE: args[i] = resp; break;
+                default: break;
+            }
+        }
+        return method.invoke(resolveTarget(controllerInstance), args);
+    }
+
+    private Object resolveTarget(Object controllerInstance) throws ReflectiveOperationException {
+        if (sharedInstance != null) return sharedInstance;
+        if (controllerInstance != null && method.getDeclaringClass().isInstance(controllerInstance)) {
+            return controllerInstance;
+        }
+        // Le controller n'a pas pu être instancié : nouvelle tentative pour le handler
+        return method.getDeclaringClass().getDeclaredConstructor().newInstance();
+    }
+
+    public Method getMethod() { return method; }
+    public Class<? extends Throwable>[] getExceptionTypes() { return exceptionTypes; }
+    public int getStatus() { return status; }
+}
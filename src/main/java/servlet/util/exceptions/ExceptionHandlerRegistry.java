@@ -0,0 +1,81 @@
+package servlet.util.exceptions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Handlers d'exception du framework : ceux d'un controller passent avant ceux des @ControllerAdvice.
+ * Pour chaque portée, la résolution d'un type d'exception remonte sa hiérarchie une seule fois,
+ * puis le résultat (handler ou absence) est mémorisé dans une table de lookup.
+ */
+public class ExceptionHandlerRegistry {
+    private final Map<Class<?>, Scope> controllerScopes = new HashMap<>();
+    private final Scope globalScope = new Scope();
+
+    /**
+     * Enregistre un handler déclaré dans un controller
+     */
+    public void registerLocal(Class<?> controllerClass, ExceptionHandlerMethod handler) {
+        controllerScopes.computeIfAbsent(controllerClass, c -> new Scope()).register(handler);
+    }
+
+    /**
+     * Enregistre un handler déclaré dans un @ControllerAdvice
+     */
+    public void registerGlobal(ExceptionHandlerMethod handler) {
+        globalScope.register(handler);
+    }
+
+    /**
+     * Recherche le handler le plus spécifique pour une exception levée par un controller
+     *
+     * @param controllerClass La classe du controller
+     * @param exceptionType   Le type de l'exception
+     * @return Le handler, ou null si aucun ne correspond
+     */
+    public ExceptionHandlerMethod resolve(Class<?> controllerClass, Class<? extends Throwable> exceptionType) {
+        Scope local = controllerScopes.get(controllerClass);
+        if (local != null) {
+            ExceptionHandlerMethod handler = local.find(exceptionType);
+            if (handler != null) return handler;
+        }
+        return globalScope.find(exceptionType);
+    }
+
+    private static final class Scope {
+        // Marqueur d'absence de handler dans la table de lookup
+        private static final Object NONE = new Object();
+
+        private final Map<Class<?>, ExceptionHandlerMethod> declared = new HashMap<>();
+        private final Map<Class<?>, Object> lookup = new ConcurrentHashMap<>();
+
+        void register(ExceptionHandlerMethod handler) {
+            for (Class<? extends Throwable> type : handler.getExceptionTypes()) {
+                ExceptionHandlerMethod previous = declared.putIfAbsent(type, handler);
+                if (previous != null) {
+                    throw new IllegalStateException("Handlers ambigus pour " + type.getName() + " : "
+                            + previous.getMethod() + " et " + handler.getMethod());
+                }
+            }
+        }
+
+        ExceptionHandlerMethod find(Class<?> exceptionType) {
+            if (declared.isEmpty()) return null;
+            Object cached = lookup.get(exceptionType);
+            if (cached == null) {
+                cached = walkHierarchy(exceptionType);
+                lookup.put(exceptionType, cached);
+            }
+            return cached == NONE ? null : (ExceptionHandlerMethod) cached;
+        }
+
+        private Object walkHierarchy(Class<?> exceptionType) {
+            for (Class<?> type = exceptionType; type != null; type = type.getSuperclass()) {
+                ExceptionHandlerMethod handler = declared.get(type);
+                if (handler != null) return handler;
+            }
+            return NONE;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package servlet.util.limits;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Libère la place @MaxConcurrent d'une requête qui se poursuit après le retour de l'action (flux SSE,
+ * envoi non bloquant d'une réponse différée) : à la fin réelle de la requête, une seule fois quel que soit
+ * l'événement qui la termine.
+ */
+public final class PermitRelease implements AsyncListener, Runnable {
+    private final RouteLimiter limiter;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    public PermitRelease(RouteLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void run() {
+        if (released.compareAndSet(false, true)) {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) { run(); }
+
+    @Override
+    public void onError(AsyncEvent event) { run(); }
+
+    @Override
+    public void onTimeout(AsyncEvent event) { run(); }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {}
+}
@@ -0,0 +1,165 @@
+package servlet.util.limits;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import servlet.annotation.limits.MaxConcurrent;
+import servlet.annotation.limits.RateLimit;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contrôle d'admission d'une route, construit au démarrage depuis @RateLimit et @MaxConcurrent :
+ * seau(x) à jetons pour le débit, sémaphore pour la concurrence, compteurs de refus.
+ */
+public class RouteLimiter {
+    // Nombre maximal de seaux par client ; au-delà, les seaux inactifs (pleins) sont purgés, au plus
+    // une fois par SWEEP_INTERVAL_NANOS, et les nouveaux clients partagent le seau de débordement
+    private static final int MAX_KEYED_BUCKETS = 10_000;
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final RateLimit rateLimit;
+    private final int burst;
+    private final TokenBucket routeBucket;
+    private final Map<String, TokenBucket> keyedBuckets;
+    private final TokenBucket overflowBucket; // clients sans seau propre quand la table est pleine
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    private final Semaphore concurrency;
+    private final int maxConcurrent;
+    private final String concurrencyRetryAfter;
+
+    private final LongAdder rateRejected = new LongAdder();
+    private final LongAdder concurrencyRejected = new LongAdder();
+    private final LongAdder overflowed = new LongAdder(); // requêtes comptées sur le seau de débordement
+
+    private RouteLimiter(RateLimit rateLimit, MaxConcurrent maxConcurrent) {
+        this.rateLimit = rateLimit;
+        if (rateLimit != null) {
+            this.burst = rateLimit.burst() > 0 ? rateLimit.burst() : (int) Math.ceil(rateLimit.permitsPerSecond());
+            boolean perRoute = rateLimit.key() == RateLimit.Key.ROUTE;
+            this.routeBucket = perRoute
+                    ? new TokenBucket(rateLimit.permitsPerSecond(), burst, System.nanoTime())
+                    : null;
+            this.keyedBuckets = perRoute ? null : new ConcurrentHashMap<>();
+            this.overflowBucket = perRoute
+                    ? null
+                    : new TokenBucket(rateLimit.permitsPerSecond(), burst, System.nanoTime());
+        } else {
+            this.burst = 0;
+            this.routeBucket = null;
+            this.keyedBuckets = null;
+            this.overflowBucket = null;
+        }
+
+        if (maxConcurrent != null) {
+            this.maxConcurrent = maxConcurrent.value();
+            this.concurrency = new Semaphore(maxConcurrent.value());
+            this.concurrencyRetryAfter = Integer.toString(Math.max(1, maxConcurrent.retryAfter()));
+        } else {
+            this.maxConcurrent = 0;
+            this.concurrency = null;
+            this.concurrencyRetryAfter = null;
+        }
+    }
+
+    /**
+     * Construit le limiteur d'une méthode d'action
+     *
+     * @param method La méthode du controller
+     * @return Le limiteur, ou null si la méthode ne porte ni @RateLimit ni @MaxConcurrent
+     * @throws IllegalStateException si @MaxConcurrent n'autorise aucune requête (valeur nulle ou négative)
+     */
+    public static RouteLimiter of(Method method) {
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        MaxConcurrent maxConcurrent = method.getAnnotation(MaxConcurrent.class);
+        if (rateLimit == null && maxConcurrent == null) return null;
+        if (maxConcurrent != null && maxConcurrent.value() <= 0) {
+            throw new IllegalStateException("@MaxConcurrent(" + maxConcurrent.value() + ") invalide sur "
+                    + method.getDeclaringClass().getName() + "." + method.getName() + " : valeur positive attendue");
+        }
+        return new RouteLimiter(rateLimit, maxConcurrent);
+    }
+
+    /**
+     * Vérifie le débit de la route pour cette requête
+     *
+     * @param req La requête HTTP
+     * @return null si la requête est admise, sinon la valeur du header Retry-After (secondes)
+     */
+    public String checkRate(HttpServletRequest req) {
+        if (rateLimit == null) return null;
+
+        long now = System.nanoTime();
+        TokenBucket bucket = routeBucket != null ? routeBucket : bucketFor(resolveKey(req), now);
+        long wait = bucket.tryAcquire(now);
+        if (wait == 0) return null;
+
+        rateRejected.increment();
+        return Long.toString(Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L)));
+    }
+
+    /**
+     * Réserve une place de traitement concurrent, à libérer par {@link #release()}
+     *
+     * @return true si la requête est admise
+     */
+    public boolean tryEnter() {
+        if (concurrency == null || concurrency.tryAcquire()) return true;
+        concurrencyRejected.increment();
+        return false;
+    }
+
+    public void release() {
+        if (concurrency != null) concurrency.release();
+    }
+
+    private String resolveKey(HttpServletRequest req) {
+        if (rateLimit.key() == RateLimit.Key.SESSION) {
+            HttpSession session = req.getSession(false);
+            if (session != null) return "s:" + session.getId();
+        }
+        return req.getRemoteAddr();
+    }
+
+    private TokenBucket bucketFor(String key, long now) {
+        TokenBucket bucket = keyedBuckets.get(key);
+        if (bucket != null) return bucket;
+
+        if (keyedBuckets.size() >= MAX_KEYED_BUCKETS) {
+            evictIdle(now);
+            // Table toujours pleine (tous les clients actifs) : pas de nouveau seau, débit commun
+            if (keyedBuckets.size() >= MAX_KEYED_BUCKETS) {
+                overflowed.increment();
+                return overflowBucket;
+            }
+        }
+        return keyedBuckets.computeIfAbsent(key, k -> new TokenBucket(rateLimit.permitsPerSecond(), burst, now));
+    }
+
+    // Purge des seaux inactifs, par un seul thread et au plus une fois par intervalle : un afflux de
+    // nouveaux clients ne déclenche pas un parcours complet de la table à chaque requête
+    private void evictIdle(long now) {
+        long next = nextSweep.get();
+        if (now - next < 0 || !nextSweep.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) return;
+
+        Iterator<TokenBucket> it = keyedBuckets.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isIdle(now)) it.remove();
+        }
+    }
+
+    public String getConcurrencyRetryAfter() { return concurrencyRetryAfter; }
+    public long getRateRejected() { return rateRejected.sum(); }
+    public long getConcurrencyRejected() { return concurrencyRejected.sum(); }
+    public long getOverflowed() { return overflowed.sum(); }
+    public int getInFlight() { return concurrency == null ? 0 : maxConcurrent - concurrency.availablePermits(); }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public RateLimit getRateLimit() { return rateLimit; }
+}
@@ -0,0 +1,66 @@
+package servlet.util.limits;
+
+import servlet.annotation.limits.RateLimit;
+import servlet.util.ControllerInfo;
+import servlet.util.PathPattern;
+import servlet.util.routing.RouteTable;
+
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Rapport JSON des routes limitées : configuration, requêtes en cours et compteurs de refus
+ */
+public final class RouteLimitsReport {
+
+    private RouteLimitsReport() {}
+
+    public static void write(RouteTable routeTable, PrintWriter out) {
+        out.print('[');
+        boolean first = true;
+        if (routeTable != null) {
+            for (Map.Entry<PathPattern, ControllerInfo> entry : routeTable.getRoutes().entrySet()) {
+                RouteLimiter limiter = entry.getValue().getLimiter();
+                if (limiter == null) continue;
+
+                if (!first) out.print(',');
+                first = false;
+                writeRoute(entry.getKey(), limiter, out);
+            }
+        }
+        out.print(']');
+        out.flush();
+    }
+
+    private static void writeRoute(PathPattern pattern, RouteLimiter limiter, PrintWriter out) {
+        out.print("{\"method\":\"");
+        out.print(pattern.getHttpMethod());
+        out.print("\",\"path\":\"");
+        out.print(pattern.getPath().replace("\\", "\\\\").replace("\"", "\\\""));
+        out.print('"');
+
+        RateLimit rateLimit = limiter.getRateLimit();
+        if (rateLimit != null) {
+            out.print(",\"permitsPerSecond\":");
+            out.print(rateLimit.permitsPerSecond());
+            out.print(",\"key\":\"");
+            out.print(rateLimit.key());
+            out.print('"');
+            if (rateLimit.key() != RateLimit.Key.ROUTE) {
+                out.print(",\"overflowed\":");
+                out.print(limiter.getOverflowed());
+            }
+        }
+        if (limiter.getMaxConcurrent() > 0) {
+            out.print(",\"maxConcurrent\":");
+            out.print(limiter.getMaxConcurrent());
+            out.print(",\"inFlight\":");
+            out.print(limiter.getInFlight());
+        }
+        out.print(",\"rateRejected\":");
+        out.print(limiter.getRateRejected());
+        out.print(",\"concurrencyRejected\":");
+        out.print(limiter.getConcurrencyRejected());
+        out.print('}');
+    }
+}
@@ -0,0 +1,54 @@
+package servlet.util.limits;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sans verrou, sous forme GCRA : l'état tient dans un seul long (instant théorique
+ * d'arrivée de la prochaine requête), mis à jour par compare-and-set.
+ */
+public class TokenBucket {
+    private final long emissionInterval; // nanos par jeton
+    private final long tolerance;        // avance maximale sur le débit (rafale)
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param permitsPerSecond Débit moyen autorisé
+     * @param burst            Nombre de jetons disponibles d'un coup
+     * @param now              Instant de création (System.nanoTime()) : le seau démarre plein
+     */
+    public TokenBucket(double permitsPerSecond, int burst, long now) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond doit être positif : " + permitsPerSecond);
+        }
+        this.emissionInterval = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+        this.tolerance = emissionInterval * (Math.max(1, burst) - 1L);
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Tente de consommer un jeton
+     *
+     * @param now L'instant courant (System.nanoTime())
+     * @return 0 si le jeton est accordé, sinon le délai en nanos avant le prochain jeton disponible
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, now);
+            long wait = base - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return true si le seau est plein (aucune requête récente), donc supprimable sans effet
+     */
+    public boolean isIdle(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+}
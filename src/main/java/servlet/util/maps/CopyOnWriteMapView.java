@@ -0,0 +1,97 @@
+package servlet.util.maps;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vue Map paresseuse sur une source externe (session, paramètres de requête...).
+ * Les lectures ponctuelles (get, containsKey, size) passent directement à la source sans copie ;
+ * la première écriture ou le premier parcours complet copie la source dans une Map locale
+ * qui sert ensuite pour toutes les opérations.
+ */
+public abstract class CopyOnWriteMapView<V> extends AbstractMap<String, V> {
+    private Map<String, V> copy;
+
+    // Lecture directe d'une valeur dans la source
+    protected abstract V lookup(String key);
+
+    // Nombre d'entrées dans la source
+    protected abstract int sourceSize();
+
+    // Copie mutable de la totalité de la source
+    protected abstract Map<String, V> copySource();
+
+    // Appelé une seule fois, juste après la copie de la source
+    protected void onMaterialized(Map<String, V> copy) {}
+
+    protected final boolean isMaterialized() {
+        return copy != null;
+    }
+
+    protected final Map<String, V> materialized() {
+        if (copy == null) {
+            copy = copySource();
+            onMaterialized(copy);
+        }
+        return copy;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (copy != null) return copy.get(key);
+        return key instanceof String ? lookup((String) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (copy != null) return copy.containsKey(key);
+        return key instanceof String && lookup((String) key) != null;
+    }
+
+    @Override
+    public int size() {
+        return copy != null ? copy.size() : sourceSize();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public V put(String key, V value) {
+        return materialized().put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return materialized().remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends V> m) {
+        materialized().putAll(m);
+    }
+
+    @Override
+    public void clear() {
+        materialized().clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return materialized().keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return materialized().values();
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return materialized().entrySet();
+    }
+}
@@ -0,0 +1,47 @@
+package servlet.util.maps;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Vue des paramètres de requête pour les paramètres Map<String, Object> :
+ * une valeur unique est exposée telle quelle, des valeurs multiples sous forme de String[].
+ */
+public class RequestParameterMap extends CopyOnWriteMapView<Object> {
+    private final Map<String, String[]> parameterMap;
+
+    public RequestParameterMap(Map<String, String[]> parameterMap) {
+        this.parameterMap = parameterMap;
+    }
+
+    @Override
+    protected Object lookup(String key) {
+        return unwrap(parameterMap.get(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return isMaterialized() ? super.containsKey(key) : parameterMap.containsKey(key);
+    }
+
+    @Override
+    protected int sourceSize() {
+        return parameterMap.size();
+    }
+
+    @Override
+    protected Map<String, Object> copySource() {
+        Map<String, Object> copy = new HashMap<>();
+        for (Map.Entry<String, String[]> entry : parameterMap.entrySet()) {
+            copy.put(entry.getKey(), unwrap(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static Object unwrap(String[] values) {
+        if (values != null && values.length == 1) {
+            return values[0]; // Valeur unique
+        }
+        return values; // Valeurs multiples
+    }
+}
@@ -0,0 +1,68 @@
+package servlet.util.monitoring;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Piles échantillonnées agrégées au format "collapsed" des flame graphs (flamegraph.pl, speedscope) :
+ * une ligne par pile distincte, frames de la racine vers le sommet séparées par ";", puis le nombre
+ * d'échantillons. La route est placée en première frame, pour grouper les piles par action.
+ * Le nombre de piles distinctes est borné ; les échantillons au-delà sont seulement comptés.
+ */
+public class CollapsedStacks {
+    private final int maxStacks;
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public CollapsedStacks(int maxStacks) {
+        this.maxStacks = maxStacks;
+    }
+
+    /**
+     * Ajoute un échantillon
+     *
+     * @param root  La frame racine (route de la requête)
+     * @param stack La pile du thread, sommet en premier (Thread.getStackTrace)
+     */
+    public void add(String root, StackTraceElement[] stack) {
+        StringBuilder key = new StringBuilder(root.length() + 64 * stack.length);
+        key.append(root.replace(';', ':'));
+        for (int i = stack.length - 1; i >= 0; i--) {
+            key.append(';').append(stack[i].getClassName()).append('.').append(stack[i].getMethodName());
+        }
+        String collapsed = key.toString();
+
+        LongAdder count = counts.get(collapsed);
+        if (count == null) {
+            if (counts.size() >= maxStacks) {
+                dropped.incrementAndGet();
+                return;
+            }
+            count = counts.computeIfAbsent(collapsed, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    public void write(Writer out) throws IOException {
+        List<Map.Entry<String, LongAdder>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<String, LongAdder> entry : entries) {
+            out.write(entry.getKey());
+            out.write(' ');
+            out.write(Long.toString(entry.getValue().sum()));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    public int size() { return counts.size(); }
+
+    // Échantillons ignorés faute de place pour une nouvelle pile
+    public long getDropped() { return dropped.get(); }
+}
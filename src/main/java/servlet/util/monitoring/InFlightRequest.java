@@ -0,0 +1,24 @@
+package servlet.util.monitoring;
+
+import servlet.util.ControllerInfo;
+
+/**
+ * Emplacement d'un thread de requête dans le registre des requêtes en cours : créé une fois par thread,
+ * puis simplement réécrit à chaque requête (route, début, numéro), sans allocation ni verrou.
+ * Seul le thread propriétaire écrit ; le watchdog lit les champs volatils.
+ */
+public final class InFlightRequest {
+    final Thread thread;
+
+    volatile ControllerInfo info;    // null : aucune requête en cours
+    volatile long startNanos;
+    volatile long sequence;          // numéro de la requête sur ce thread
+    volatile long flaggedSequence;   // dernière requête signalée lente par le watchdog
+
+    // Lus et écrits par le watchdog seulement
+    int samples;
+
+    InFlightRequest(Thread thread) {
+        this.thread = thread;
+    }
+}
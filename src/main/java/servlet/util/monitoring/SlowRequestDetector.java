@@ -0,0 +1,213 @@
+package servlet.util.monitoring;
+
+import servlet.util.ControllerInfo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Détection des requêtes lentes : chaque thread de requête inscrit une fois son emplacement dans un registre
+ * sans verrou, puis y note la route et l'heure de début de chaque requête (quelques écritures volatiles, rien
+ * d'autre pour une requête rapide). Un watchdog parcourt le registre à basse fréquence ; une requête qui
+ * dépasse le seuil de sa route (@SlowThreshold, sinon le seuil global) est signalée une fois, puis la pile de
+ * son thread est échantillonnée à chaque passage (au plus maxSamples fois) et agrégée en piles "collapsed".
+ */
+public class SlowRequestDetector implements Closeable {
+    private static final long FLUSH_INTERVAL_NANOS = 10_000_000_000L;
+
+    private final long thresholdMillis;
+    private final int maxSamples;
+    private final Path stacksFile;
+    private final Queue<InFlightRequest> registry = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<InFlightRequest> slots;
+    private final Map<ControllerInfo, RouteStats> stats = new ConcurrentHashMap<>();
+    private final CollapsedStacks stacks;
+    private final ScheduledExecutorService watchdog;
+    private boolean dirty;
+    private long lastFlush = System.nanoTime();
+
+    /**
+     * @param thresholdMillis      Le seuil par défaut des routes sans @SlowThreshold
+     * @param sampleIntervalMillis L'intervalle entre deux passages du watchdog
+     * @param maxSamples           Le nombre maximal d'échantillons de pile par requête lente
+     * @param maxStacks            Le nombre maximal de piles distinctes conservées
+     * @param stacksFile           Le fichier des piles agrégées, réécrit périodiquement (null : aucun)
+     */
+    public SlowRequestDetector(long thresholdMillis, long sampleIntervalMillis, int maxSamples, int maxStacks,
+            String stacksFile) {
+        this.thresholdMillis = thresholdMillis;
+        this.maxSamples = maxSamples;
+        this.stacksFile = stacksFile != null ? Paths.get(stacksFile) : null;
+        this.stacks = new CollapsedStacks(maxStacks);
+        this.slots = ThreadLocal.withInitial(() -> {
+            InFlightRequest slot = new InFlightRequest(Thread.currentThread());
+            registry.add(slot);
+            return slot;
+        });
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "slow-request-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::sample, sampleIntervalMillis, sampleIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        this.watchdog = executor;
+    }
+
+    /**
+     * Inscrit la requête du thread courant
+     *
+     * @param info La route qui traite la requête
+     * @return L'emplacement à libérer par {@link #exit}, ou null si le thread suit déjà une requête
+     *         (dispatch imbriqué : seule la requête externe est mesurée)
+     */
+    public InFlightRequest enter(ControllerInfo info) {
+        InFlightRequest slot = slots.get();
+        if (slot.info != null) {
+            return null;
+        }
+        slot.startNanos = System.nanoTime();
+        slot.sequence = slot.sequence + 1;
+        slot.info = info; // écrit en dernier : le watchdog voit un début et un numéro à jour
+        return slot;
+    }
+
+    /**
+     * Termine la requête ; une requête signalée lente enregistre sa durée totale
+     */
+    public void exit(InFlightRequest slot) {
+        ControllerInfo info = slot.info;
+        slot.info = null;
+        if (slot.flaggedSequence == slot.sequence && info != null) {
+            routeStats(info).observe((System.nanoTime() - slot.startNanos) / 1_000_000);
+        }
+    }
+
+    /**
+     * Cesse de suivre la requête du thread courant (flux SSE : longue par nature, pas lente) ;
+     * l'appel à {@link #exit} qui suit n'a alors plus d'effet
+     */
+    public void detach() {
+        slots.get().info = null;
+    }
+
+    // Passage du watchdog (thread unique)
+    private void sample() {
+        long now = System.nanoTime();
+        for (Iterator<InFlightRequest> it = registry.iterator(); it.hasNext();) {
+            InFlightRequest slot = it.next();
+            if (!slot.thread.isAlive()) {
+                it.remove();
+                continue;
+            }
+            ControllerInfo info = slot.info;
+            if (info == null) continue;
+            long sequence = slot.sequence;
+            long elapsedMillis = (now - slot.startNanos) / 1_000_000;
+            if (elapsedMillis < thresholdOf(info)) continue;
+
+            RouteStats route = routeStats(info);
+            if (slot.flaggedSequence != sequence) {
+                slot.flaggedSequence = sequence;
+                slot.samples = 0;
+                route.slow.increment();
+                System.err.println("Requête lente " + labelOf(info) + " (" + info.getActionName() + ") : "
+                        + elapsedMillis + " ms sur " + slot.thread.getName());
+            }
+            route.observe(elapsedMillis);
+            if (slot.samples >= maxSamples) continue;
+
+            StackTraceElement[] stack = slot.thread.getStackTrace();
+            // Requête terminée pendant la capture : la pile appartient peut-être déjà à une autre
+            if (slot.info != info || slot.sequence != sequence) continue;
+            slot.samples++;
+            stacks.add(labelOf(info), stack);
+            dirty = true;
+        }
+
+        if (stacksFile != null && dirty && now - lastFlush >= FLUSH_INTERVAL_NANOS) {
+            flush();
+            lastFlush = now;
+        }
+    }
+
+    // Réécriture complète du fichier, remplacé d'un bloc pour ne jamais être lu à moitié écrit
+    private void flush() {
+        dirty = false;
+        try {
+            Path temp = stacksFile.resolveSibling(stacksFile.getFileName() + ".tmp");
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                stacks.write(out);
+            }
+            try {
+                Files.move(temp, stacksFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, stacksFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Requêtes lentes : écriture de " + stacksFile + " impossible : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Seuil d'une route en millisecondes
+     */
+    public long thresholdOf(ControllerInfo info) {
+        return info.getSlowThresholdMillis() > 0 ? info.getSlowThresholdMillis() : thresholdMillis;
+    }
+
+    // "GET /users/{id}"
+    static String labelOf(ControllerInfo info) {
+        return info.getPathPattern().getHttpMethod() + " " + info.getPathPattern().getPath();
+    }
+
+    private RouteStats routeStats(ControllerInfo info) {
+        return stats.computeIfAbsent(info, k -> new RouteStats());
+    }
+
+    // Arrêt du watchdog, après une dernière écriture du fichier
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+        try {
+            watchdog.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (stacksFile != null && dirty) {
+            flush();
+        }
+    }
+
+    public long getThresholdMillis() { return thresholdMillis; }
+    public CollapsedStacks getStacks() { return stacks; }
+    Map<ControllerInfo, RouteStats> getStats() { return stats; }
+    Queue<InFlightRequest> getRegistry() { return registry; }
+
+    // Compteurs d'une route : requêtes signalées lentes et plus longue durée observée
+    static final class RouteStats {
+        final LongAdder slow = new LongAdder();
+        final AtomicLong maxMillis = new AtomicLong();
+
+        void observe(long millis) {
+            maxMillis.accumulateAndGet(millis, Math::max);
+        }
+    }
+}
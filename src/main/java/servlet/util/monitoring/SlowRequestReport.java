@@ -0,0 +1,82 @@
+package servlet.util.monitoring;
+
+import servlet.util.ControllerInfo;
+
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Rapport JSON des requêtes lentes : compteurs par route, requêtes en cours au-delà de leur seuil,
+ * et taille de l'agrégat des piles échantillonnées
+ */
+public final class SlowRequestReport {
+
+    private SlowRequestReport() {}
+
+    public static void write(SlowRequestDetector detector, PrintWriter out) {
+        out.print("{\"thresholdMillis\":");
+        out.print(detector.getThresholdMillis());
+
+        out.print(",\"routes\":[");
+        boolean first = true;
+        for (Map.Entry<ControllerInfo, SlowRequestDetector.RouteStats> entry : detector.getStats().entrySet()) {
+            if (!first) out.print(',');
+            first = false;
+            ControllerInfo info = entry.getKey();
+            out.print("{\"route\":");
+            quote(SlowRequestDetector.labelOf(info), out);
+            out.print(",\"action\":");
+            quote(info.getActionName(), out);
+            out.print(",\"thresholdMillis\":");
+            out.print(detector.thresholdOf(info));
+            out.print(",\"slow\":");
+            out.print(entry.getValue().slow.sum());
+            out.print(",\"maxMillis\":");
+            out.print(entry.getValue().maxMillis.get());
+            out.print('}');
+        }
+
+        out.print("],\"inFlight\":[");
+        first = true;
+        long now = System.nanoTime();
+        for (InFlightRequest slot : detector.getRegistry()) {
+            ControllerInfo info = slot.info;
+            if (info == null) continue;
+            long elapsedMillis = (now - slot.startNanos) / 1_000_000;
+            if (elapsedMillis < detector.thresholdOf(info)) continue;
+
+            if (!first) out.print(',');
+            first = false;
+            out.print("{\"route\":");
+            quote(SlowRequestDetector.labelOf(info), out);
+            out.print(",\"thread\":");
+            quote(slot.thread.getName(), out);
+            out.print(",\"elapsedMillis\":");
+            out.print(elapsedMillis);
+            out.print('}');
+        }
+
+        out.print("],\"stacks\":");
+        out.print(detector.getStacks().size());
+        out.print(",\"droppedSamples\":");
+        out.print(detector.getStacks().getDropped());
+        out.print('}');
+        out.flush();
+    }
+
+    private static void quote(String value, PrintWriter out) {
+        out.print('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.print('\\');
+                out.print(c);
+            } else if (c < 0x20) {
+                out.print(String.format("\\u%04x", (int) c));
+            } else {
+                out.print(c);
+            }
+        }
+        out.print('"');
+    }
+}
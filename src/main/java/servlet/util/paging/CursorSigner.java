@@ -0,0 +1,76 @@
+package servlet.util.paging;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Curseurs de pagination signés : position encodée en base64url (non chiffrée, donc lisible par le client)
+ * suivie d'une signature HMAC-SHA256 tronquée, calculée sur la position et le chemin de la route.
+ * Un client ne peut ni modifier ni fabriquer une position, donc ni sauter vers une clé arbitraire, ni
+ * rejouer un curseur sur une autre route ; la clé de pagination ne doit pas être une donnée confidentielle.
+ */
+public class CursorSigner {
+    private static final Base64.Encoder B64_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final SecretKeySpec key;
+    // Mac n'est pas thread-safe : une instance par thread
+    private final ThreadLocal<Mac> macs;
+
+    public CursorSigner(byte[] secret) {
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * @param scope    Le chemin de la route qui émet le curseur (signé, non transporté)
+     * @param position La position à transporter (sens et clé)
+     * @return Le curseur signé, utilisable tel quel dans une URL
+     */
+    public String sign(String scope, String position) {
+        byte[] payload = position.getBytes(StandardCharsets.UTF_8);
+        return B64_ENCODER.encodeToString(payload) + "." + B64_ENCODER.encodeToString(signature(scope, payload));
+    }
+
+    /**
+     * @param scope  Le chemin de la route qui reçoit le curseur
+     * @param cursor Le curseur reçu du client
+     * @return La position, ou null si le curseur est mal formé, sa signature invalide ou émis par une autre route
+     */
+    public String verify(String scope, String cursor) {
+        int dot = cursor.indexOf('.');
+        if (dot < 0) return null;
+        try {
+            byte[] payload = B64_DECODER.decode(cursor.substring(0, dot));
+            byte[] actual = B64_DECODER.decode(cursor.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature(scope, payload), actual)) return null;
+            return new String(payload, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // HMAC de "chemin \0 position" : le séparateur empêche de déplacer des octets de l'un à l'autre
+    private byte[] signature(String scope, byte[] payload) {
+        Mac mac = macs.get();
+        mac.update(scope.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Arrays.copyOf(mac.doFinal(payload), SIGNATURE_BYTES);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponible : " + e.getMessage(), e);
+        }
+    }
+}
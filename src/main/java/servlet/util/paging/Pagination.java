@@ -0,0 +1,96 @@
+package servlet.util.paging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.annotation.parameters.Paging;
+import servlet.models.PageRequest;
+import servlet.util.exceptions.ClientErrorException;
+
+import java.lang.reflect.Parameter;
+
+/**
+ * Liaison des paramètres PageRequest : ?size= (plafonné), ?page= et ?cursor= (signature vérifiée).
+ * Une valeur illisible ou un curseur falsifié donne 400.
+ */
+public class Pagination {
+    private final int defaultSize;
+    private final int maxSize;
+    private final CursorSigner signer;
+
+    /**
+     * @param defaultSize La taille de page sans ?size=
+     * @param maxSize     La taille de page maximale
+     * @param signer      La signature des curseurs
+     */
+    public Pagination(int defaultSize, int maxSize, CursorSigner signer) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+        this.signer = signer;
+    }
+
+    /**
+     * @param req   La requête HTTP
+     * @param param Le paramètre PageRequest de l'action (éventuellement annoté @Paging)
+     * @return La page demandée
+     */
+    public PageRequest resolve(HttpServletRequest req, Parameter param) {
+        Paging paging = param.getAnnotation(Paging.class);
+        int max = paging != null && paging.maxSize() > 0 ? paging.maxSize() : maxSize;
+        int size = paging != null && paging.size() > 0 ? paging.size() : defaultSize;
+        String requestedSize = req.getParameter("size");
+        if (requestedSize != null) {
+            size = positive(requestedSize, "size");
+        }
+        size = Math.min(size, max);
+
+        int page = 1;
+        String requestedPage = req.getParameter("page");
+        if (requestedPage != null) {
+            page = positive(requestedPage, "page");
+        }
+
+        String key = null;
+        boolean backward = false;
+        String cursor = req.getParameter("cursor");
+        if (cursor != null && !cursor.isEmpty()) {
+            String position = signer.verify(req.getRequestURI(), cursor);
+            if (position == null || position.isEmpty()) {
+                throw new ClientErrorException(HttpServletResponse.SC_BAD_REQUEST, "Curseur de pagination invalide");
+            }
+            backward = position.charAt(0) == 'b';
+            key = position.substring(1);
+        }
+
+        return new PageRequest(size, page, key, backward, linkBase(req), signer);
+    }
+
+    private static int positive(String value, String name) {
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed >= 1) return parsed;
+        } catch (NumberFormatException e) {
+            // traité ci-dessous
+        }
+        throw new ClientErrorException(HttpServletResponse.SC_BAD_REQUEST,
+                "Paramètre " + name + " invalide : entier positif attendu");
+    }
+
+    // Chemin de la requête avec ses paramètres, sauf page et cursor remplacés dans chaque lien
+    private static String linkBase(HttpServletRequest req) {
+        String query = req.getQueryString();
+        if (query == null || query.isEmpty()) {
+            return req.getRequestURI();
+        }
+        StringBuilder base = new StringBuilder(req.getRequestURI());
+        char separator = '?';
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty() || pair.startsWith("page=") || pair.startsWith("cursor=")
+                    || pair.equals("page") || pair.equals("cursor")) {
+                continue;
+            }
+            base.append(separator).append(pair);
+            separator = '&';
+        }
+        return base.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package servlet.util.preload;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.PushBuilder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Annonce les ressources à précharger avant l'exécution du controller : headers Link (rel=preload),
+ * envoyés en réponse intermédiaire 103 Early Hints si le conteneur implémente sendEarlyHints (Servlet 6.1),
+ * et poussés en HTTP/2 si le push est activé et disponible. Les capacités du conteneur sont détectées
+ * une fois au démarrage.
+ */
+public class EarlyHints {
+    private final Method sendEarlyHints; // null : API Servlet sans 103
+    private final boolean push;
+
+    /**
+     * @param push true pour pousser les ressources (PushBuilder) quand la connexion le permet
+     */
+    public EarlyHints(boolean push) {
+        this.sendEarlyHints = findSendEarlyHints();
+        this.push = push;
+    }
+
+    /**
+     * Ajoute les headers Link de la route et les envoie en 103 si possible
+     *
+     * @param req   La requête HTTP
+     * @param resp  La réponse HTTP
+     * @param hints Les ressources de la route
+     */
+    public void emit(HttpServletRequest req, HttpServletResponse resp, PreloadHints hints) {
+        for (String link : hints.links(req.getContextPath())) {
+            resp.addHeader("Link", link);
+        }
+        if (sendEarlyHints != null && !resp.isCommitted()) {
+            try {
+                sendEarlyHints.invoke(resp);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                // 103 refusé (HTTP/1.0...) : les headers Link partent avec la réponse finale
+            }
+        }
+        if (push) {
+            push(req, hints.getPaths());
+        }
+    }
+
+    // true si les réponses 103 sont envoyées par le conteneur
+    public boolean isEarlyHintsSupported() {
+        return sendEarlyHints != null;
+    }
+
+    @SuppressWarnings("deprecation") // PushBuilder est déprécié depuis Servlet 6.0 (push retiré des navigateurs)
+    private static void push(HttpServletRequest req, String[] paths) {
+        PushBuilder builder = req.newPushBuilder(); // null si HTTP/1.1 ou push refusé par le client
+        if (builder == null) return;
+        for (String path : paths) {
+            if (path.startsWith("/") && !path.startsWith("//")) {
+                builder.path(req.getContextPath() + path).push();
+            }
+        }
+    }
+
+    private static Method findSendEarlyHints() {
+        try {
+            return HttpServletResponse.class.getMethod("sendEarlyHints");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
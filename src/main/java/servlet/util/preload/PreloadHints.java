@@ -0,0 +1,99 @@
+package servlet.util.preload;
+
+import servlet.annotation.preload.Preload;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Ressources à précharger d'une route, fusionnées au démarrage depuis les @Preload du controller puis de la
+ * méthode. Les valeurs des headers Link sont rendues une fois, à la première requête (chemin de contexte connu).
+ */
+public class PreloadHints {
+    private final String[] paths;
+    private volatile Rendered rendered;
+
+    private PreloadHints(String[] paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * @return Les ressources de la route, ou null si ni le controller ni la méthode ne portent @Preload
+     */
+    public static PreloadHints of(Class<?> controllerClass, Method method) {
+        Preload onClass = controllerClass.getAnnotation(Preload.class);
+        Preload onMethod = method.getAnnotation(Preload.class);
+        if (onClass == null && onMethod == null) return null;
+
+        Set<String> paths = new LinkedHashSet<>();
+        if (onClass != null) paths.addAll(List.of(onClass.value()));
+        if (onMethod != null) paths.addAll(List.of(onMethod.value()));
+        return paths.isEmpty() ? null : new PreloadHints(paths.toArray(new String[0]));
+    }
+
+    /**
+     * Valeurs des headers Link de la route
+     *
+     * @param contextPath Le chemin de contexte de la webapp
+     */
+    public String[] links(String contextPath) {
+        Rendered current = rendered;
+        if (current == null || !current.contextPath.equals(contextPath)) {
+            String[] links = new String[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                links[i] = link(contextPath, paths[i]);
+            }
+            current = new Rendered(contextPath, links);
+            rendered = current;
+        }
+        return current.links;
+    }
+
+    // Chemins relatifs au contexte (push HTTP/2)
+    public String[] getPaths() { return paths; }
+
+    /**
+     * Valeur d'un header Link de préchargement ; le type (as) est déduit de l'extension
+     *
+     * @param contextPath Le chemin de contexte, ajouté devant un chemin commençant par "/"
+     * @param path        La ressource
+     */
+    public static String link(String contextPath, String path) {
+        String href = path.startsWith("/") && !path.startsWith("//") ? contextPath + path : path;
+        String as = destination(path);
+        String link = "<" + href + ">; rel=preload; as=" + as;
+        // Les polices et les fetch sont toujours chargés en mode CORS : sans crossorigin, le préchargement est ignoré
+        return "font".equals(as) || "fetch".equals(as) ? link + "; crossorigin" : link;
+    }
+
+    private static String destination(String path) {
+        int end = path.length();
+        int query = path.indexOf('?');
+        if (query >= 0) end = query;
+        int dot = path.lastIndexOf('.', end);
+        String extension = dot < 0 ? "" : path.substring(dot + 1, end).toLowerCase(Locale.ROOT);
+        switch (extension) {
+            case "css": return "style";
+            case "js":
+            case "mjs": return "script";
+            case "woff":
+            case "woff2":
+            case "ttf":
+            case "otf": return "font";
+            case "png":
+            case "jpg":
+            case "jpeg":
+            case "gif":
+            case "webp":
+            case "avif":
+            case "svg":
+            case "ico": return "image";
+            default: return "fetch";
+        }
+    }
+
+    private record Rendered(String contextPath, String[] links) {}
+}
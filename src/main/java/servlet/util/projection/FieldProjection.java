@@ -0,0 +1,290 @@
+package servlet.util.projection;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import servlet.models.Slice;
+import servlet.util.cache.LruCache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Projection ?fields=id,name des résultats @ResponseJSON : seules les propriétés demandées des objets
+ * retournés (ou des éléments d'une collection, d'une Page ou d'une Slice) sont conservées, dans l'ordre de Jackson.
+ * Chaque objet projeté est écrit par les BeanPropertyWriter retenus du sérialiseur Jackson de son type, pris
+ * dans le mapper du format négocié : noms, @JsonIgnore, renommages mais aussi @JsonFormat, @JsonSerialize et
+ * @JsonInclude des propriétés conservées sont respectés, une propriété est encodée comme sans projection.
+ * Les propriétés retenues sont sélectionnées une fois par couple (type, liste de champs) et mémorisées
+ * dans un cache borné.
+ */
+public class FieldProjection {
+    private final LruCache<Key, Projector> projectors;
+
+    /**
+     * @param cacheSize Le nombre maximal de projections (type, champs) conservées
+     */
+    public FieldProjection(int cacheSize) {
+        this.projectors = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * Applique la projection à un résultat
+     *
+     * @param data   Le résultat de l'action (objet, Map, collection ou tableau)
+     * @param fields La valeur du paramètre fields (noms séparés par des virgules)
+     * @return Le résultat réduit aux propriétés demandées ; valeurs simples et null inchangés
+     */
+    public Object apply(Object data, String fields) {
+        String normalized = normalize(fields);
+        if (data == null || normalized.isEmpty()) {
+            return data;
+        }
+        if (data instanceof Slice) {
+            return projectSlice((Slice<?>) data, normalized);
+        }
+        if (data instanceof Collection) {
+            List<Object> projected = new ArrayList<>(((Collection<?>) data).size());
+            for (Object element : (Collection<?>) data) {
+                projected.add(projectElement(element, normalized));
+            }
+            return projected;
+        }
+        if (data instanceof Object[]) {
+            Object[] elements = (Object[]) data;
+            List<Object> projected = new ArrayList<>(elements.length);
+            for (Object element : elements) {
+                projected.add(projectElement(element, normalized));
+            }
+            return projected;
+        }
+        return projectElement(data, normalized);
+    }
+
+    // Page ou tranche : propriétés conservées (liens, taille...), seuls les éléments sont projetés
+    private Object projectSlice(Slice<?> slice, String fields) {
+        return new ProjectedSlice(slice, apply(slice.getItems(), fields));
+    }
+
+    private Object projectElement(Object element, String fields) {
+        if (element == null) {
+            return null;
+        }
+        Key key = new Key(element.getClass(), fields);
+        Projector projector = projectors.get(key);
+        if (projector == null) {
+            projector = createProjector(element.getClass(), fields);
+            projectors.put(key, projector);
+        }
+        return projector.project(element);
+    }
+
+    private Projector createProjector(Class<?> type, String fields) {
+        Set<String> names = new LinkedHashSet<>(Arrays.asList(fields.split(",")));
+        if (Map.class.isAssignableFrom(type)) {
+            return new MapProjector(names);
+        }
+        if (CharSequence.class.isAssignableFrom(type) || Number.class.isAssignableFrom(type)
+                || type == Boolean.class || type == Character.class || type.isEnum()) {
+            return element -> element; // valeur simple : rien à projeter
+        }
+        return new BeanProjector(names);
+    }
+
+    // Sérialiseur que Jackson utilise pour ce type dans ce mapper, s'il s'agit d'un bean
+    private static BeanSerializerBase beanSerializer(SerializerProvider provider, Class<?> type)
+            throws JsonMappingException {
+        JsonSerializer<Object> serializer = provider.findValueSerializer(type);
+        return serializer instanceof BeanSerializerBase ? (BeanSerializerBase) serializer : null;
+    }
+
+    // Écrit une propriété comme le ferait le sérialiseur du bean (format, sérialiseur, inclusion)
+    private static void writeProperty(BeanPropertyWriter property, Object bean, JsonGenerator gen,
+            SerializerProvider provider) throws IOException {
+        try {
+            property.serializeAsField(bean, gen, provider);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw JsonMappingException.from(gen, "Lecture de la propriété " + property.getName()
+                    + " impossible : " + e.getMessage(), e);
+        }
+    }
+
+    // Liste triée et dédoublonnée : "name,id" et "id, name" partagent la même entrée du cache
+    private static String normalize(String fields) {
+        if (fields == null) {
+            return "";
+        }
+        Set<String> names = new TreeSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                names.add(trimmed);
+            }
+        }
+        return String.join(",", names);
+    }
+
+    private record Key(Class<?> type, String fields) {}
+
+    private interface Projector {
+        Object project(Object element);
+    }
+
+    private static final class BeanProjector implements Projector {
+        private final Set<String> names;
+        private volatile Selection selection;
+
+        BeanProjector(Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public Object project(Object element) {
+            return new ProjectedBean(this, element);
+        }
+
+        /**
+         * Propriétés retenues parmi celles du sérialiseur du mapper courant ; recalculées seulement si ce
+         * sérialiseur change (autre mapper)
+         *
+         * @return Les propriétés, ou null si le type n'est pas sérialisé comme un bean
+         */
+        BeanPropertyWriter[] properties(SerializerProvider provider, Class<?> type) throws JsonMappingException {
+            JsonSerializer<Object> serializer = provider.findValueSerializer(type);
+            Selection current = selection;
+            if (current == null || current.serializer != serializer) {
+                current = new Selection(serializer, select(serializer));
+                selection = current;
+            }
+            return current.properties;
+        }
+
+        private BeanPropertyWriter[] select(JsonSerializer<Object> serializer) {
+            if (!(serializer instanceof BeanSerializerBase)) {
+                return null;
+            }
+            List<BeanPropertyWriter> selected = new ArrayList<>();
+            for (Iterator<PropertyWriter> it = ((BeanSerializerBase) serializer).properties(); it.hasNext(); ) {
+                PropertyWriter property = it.next();
+                if (property instanceof BeanPropertyWriter && names.contains(property.getName())) {
+                    selected.add((BeanPropertyWriter) property);
+                }
+            }
+            return selected.toArray(new BeanPropertyWriter[0]);
+        }
+    }
+
+    private record Selection(JsonSerializer<Object> serializer, BeanPropertyWriter[] properties) {}
+
+    // Objet projeté, écrit au moment de la sérialisation par le mapper du format
+    private static final class ProjectedBean implements JsonSerializable {
+        private final BeanProjector projector;
+        private final Object bean;
+
+        ProjectedBean(BeanProjector projector, Object bean) {
+            this.projector = projector;
+            this.bean = bean;
+        }
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+            BeanPropertyWriter[] properties = projector.properties(provider, bean.getClass());
+            if (properties == null) {
+                provider.defaultSerializeValue(bean, gen); // valeur simple (date, UUID...) : inchangée
+                return;
+            }
+            gen.writeStartObject(bean);
+            for (BeanPropertyWriter property : properties) {
+                writeProperty(property, bean, gen, provider);
+            }
+            gen.writeEndObject();
+        }
+
+        // Résultat projeté : jamais polymorphe, écrit sans identifiant de type
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+                throws IOException {
+            serialize(gen, provider);
+        }
+    }
+
+    // Page ou tranche : toutes ses propriétés, éléments remplacés par leur projection
+    private static final class ProjectedSlice implements JsonSerializable {
+        private final Slice<?> slice;
+        private final Object items;
+
+        ProjectedSlice(Slice<?> slice, Object items) {
+            this.slice = slice;
+            this.items = items;
+        }
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+            BeanSerializerBase serializer = beanSerializer(provider, slice.getClass());
+            if (serializer == null) {
+                throw JsonMappingException.from(gen, "Pas de sérialiseur de bean pour " + slice.getClass().getName());
+            }
+            gen.writeStartObject(slice);
+            boolean written = false;
+            for (Iterator<PropertyWriter> it = serializer.properties(); it.hasNext(); ) {
+                PropertyWriter property = it.next();
+                if ("items".equals(property.getName())) {
+                    gen.writeFieldName("items");
+                    provider.defaultSerializeValue(items, gen);
+                    written = true;
+                } else if (property instanceof BeanPropertyWriter) {
+                    writeProperty((BeanPropertyWriter) property, slice, gen, provider);
+                }
+            }
+            if (!written) {
+                gen.writeFieldName("items");
+                provider.defaultSerializeValue(items, gen);
+            }
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+                throws IOException {
+            serialize(gen, provider);
+        }
+    }
+
+    private static final class MapProjector implements Projector {
+        private final Set<String> names;
+
+        MapProjector(Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public Object project(Object element) {
+            Map<?, ?> source = (Map<?, ?>) element;
+            Map<String, Object> projected = new LinkedHashMap<>(names.size() * 2);
+            for (Map.Entry<?, ?> entry : source.entrySet()) {
+                String name = String.valueOf(entry.getKey());
+                if (names.contains(name)) {
+                    projected.put(name, entry.getValue());
+                }
+            }
+            return projected;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package servlet.util.reload;
+
+import servlet.util.routing.RouteTable;
+import servlet.util.routing.RouteTableHolder;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Rechargement à chaud (mode développement) : un thread démon surveille /WEB-INF/classes avec un WatchService.
+ * Après une rafale de modifications (délai de stabilisation), les classes sont rechargées dans un nouveau
+ * chargeur enfant et une nouvelle table de routage est publiée ; les requêtes en cours finissent sur l'ancienne.
+ */
+public class HotReloader implements Runnable, AutoCloseable {
+    private final Path classesDir;
+    private final Function<ClassLoader, RouteTable> rebuild;
+    private final RouteTableHolder routeTableHolder;
+    private final long quietPeriodMillis;
+    private final WatchService watchService;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * @param classesDir        Le répertoire des classes de la webapp
+     * @param rebuild           Construction d'une table de routage à partir d'un chargeur de classes
+     * @param routeTableHolder  La référence à mettre à jour
+     * @param quietPeriodMillis Délai sans modification avant de recharger
+     */
+    public HotReloader(Path classesDir, Function<ClassLoader, RouteTable> rebuild,
+            RouteTableHolder routeTableHolder, long quietPeriodMillis) throws IOException {
+        this.classesDir = classesDir;
+        this.rebuild = rebuild;
+        this.routeTableHolder = routeTableHolder;
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        registerTree(classesDir);
+
+        this.thread = new Thread(this, "route-hot-reload");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+        System.out.println("devMode : surveillance de " + classesDir + " pour le rechargement des routes");
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key);
+
+                // Attente de la fin de la rafale (compilation de plusieurs fichiers)
+                WatchKey next;
+                while ((next = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(next);
+                }
+
+                if (changed && !closed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Arrêt demandé par close()
+        }
+    }
+
+    /**
+     * Recharge les classes et publie la nouvelle table ; en cas d'échec, l'ancienne table reste en place
+     */
+    public void reload() {
+        long start = System.nanoTime();
+        try {
+            ClassLoader loader = new ReloadingClassLoader(classesDir, HotReloader.class.getClassLoader());
+            RouteTable routeTable = rebuild.apply(loader);
+            routeTableHolder.set(routeTable);
+            System.out.println("devMode : " + routeTable.getRoutes().size() + " route(s) rechargée(s) en "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (RuntimeException | LinkageError e) {
+            System.err.println("devMode : rechargement abandonné, les routes précédentes restent actives : " + e);
+        }
+    }
+
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed = true;
+                continue;
+            }
+            Path child = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                // Nouveau package : à surveiller aussi
+                try {
+                    registerTree(child);
+                } catch (IOException e) {
+                    System.err.println("devMode : surveillance de " + child + " impossible : " + e.getMessage());
+                }
+                changed = true;
+            } else if (child.toString().endsWith(".class")) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void registerTree(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // Surveillance déjà arrêtée
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package servlet.util.reload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Chargeur enfant d'une génération de rechargement : les classes présentes dans /WEB-INF/classes sont
+ * redéfinies depuis le disque (enfant d'abord), tout le reste (framework, bibliothèques, JDK) est délégué
+ * au chargeur de la webapp pour que les annotations et types du framework restent les mêmes.
+ */
+class ReloadingClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Path classesDir;
+
+    ReloadingClassLoader(Path classesDir, ClassLoader parent) {
+        super("hot-reload", parent);
+        this.classesDir = classesDir;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (isFrameworkClass(name)) {
+            return super.loadClass(name, resolve);
+        }
+
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                Path file = classesDir.resolve(name.replace('.', '/') + ".class");
+                if (!Files.isRegularFile(file)) {
+                    return super.loadClass(name, resolve);
+                }
+                clazz = define(name, file);
+            }
+            if (resolve) {
+                resolveClass(clazz);
+            }
+            return clazz;
+        }
+    }
+
+    private Class<?> define(String name, Path file) throws ClassNotFoundException {
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            return defineClass(name, bytes, 0, bytes.length);
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+    }
+
+    // Classes du framework lui-même, jamais rechargées (même si elles sont déployées dans /WEB-INF/classes)
+    private static boolean isFrameworkClass(String name) {
+        return name.startsWith("java.")
+                || name.startsWith("jakarta.")
+                || name.startsWith("servlet.annotation.")
+                || name.startsWith("servlet.util.")
+                || name.startsWith("servlet.models.")
+                || name.equals("servlet.DispatcherServlet")
+                || name.equals("servlet.FrameworkInitializer");
+    }
+}
@@ -0,0 +1,227 @@
+package servlet.util.routing;
+
+import java.util.regex.Pattern;
+
+/**
+ * Contrainte d'un paramètre de chemin ({@code {id:int}}, {@code {slug:[a-z-]+}}, {@code {uuid:uuid}}).
+ * Les types nommés et les classes de caractères sont vérifiés par des scanners écrits à la main,
+ * directement sur l'URI sans extraire de sous-chaîne ; seule une expression non reconnue passe par une regex.
+ */
+public abstract class ParamConstraint {
+    private final String spec;
+
+    private ParamConstraint(String spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Vérifie la portion {@code [start, end)} de la chaîne
+     */
+    public abstract boolean matches(String value, int start, int end);
+
+    // Expression régulière équivalente (segments mixtes et affichage)
+    public abstract String toRegex();
+
+    public String getSpec() { return spec; }
+
+    public static final ParamConstraint INT = new IntegerConstraint("int", 10, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    public static final ParamConstraint LONG = new IntegerConstraint("long", 19, Long.MIN_VALUE, Long.MAX_VALUE);
+    public static final ParamConstraint UUID = new UuidConstraint();
+
+    /**
+     * Analyse la contrainte écrite après le ":" d'un paramètre
+     *
+     * @param spec La contrainte (type nommé, classe de caractères ou expression régulière)
+     * @return La contrainte compilée
+     */
+    public static ParamConstraint parse(String spec) {
+        switch (spec) {
+            case "int": return INT;
+            case "long": return LONG;
+            case "uuid": return UUID;
+            case "alpha": return CharClassConstraint.parse("alpha", "[a-zA-Z]+");
+            case "alnum": return CharClassConstraint.parse("alnum", "[a-zA-Z0-9]+");
+            default: break;
+        }
+        if (spec.startsWith("[")) {
+            ParamConstraint charClass = CharClassConstraint.parse(spec, spec);
+            if (charClass != null) return charClass;
+        }
+        return new RegexConstraint(spec);
+    }
+
+    // Entier signé borné, sans allocation ni exception (contrairement à Integer.parseInt)
+    private static final class IntegerConstraint extends ParamConstraint {
+        private final int maxDigits;
+        private final long min;
+        private final long max;
+
+        IntegerConstraint(String spec, int maxDigits, long min, long max) {
+            super(spec);
+            this.maxDigits = maxDigits;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public boolean matches(String value, int start, int end) {
+            boolean negative = start < end && value.charAt(start) == '-';
+            int i = negative ? start + 1 : start;
+            int digits = end - i;
+            if (digits <= 0 || digits > maxDigits) return false;
+
+            // Accumulation en négatif pour accepter la valeur minimale
+            long limit = negative ? min : -max;
+            long multmin = limit / 10;
+            long result = 0;
+            for (; i < end; i++) {
+                int digit = value.charAt(i) - '0';
+                if (digit < 0 || digit > 9) return false;
+                if (result < multmin) return false;
+                result *= 10;
+                if (result < limit + digit) return false;
+                result -= digit;
+            }
+            return true;
+        }
+
+        @Override
+        public String toRegex() { return "-?[0-9]{1," + maxDigits + "}"; }
+    }
+
+    // UUID canonique 8-4-4-4-12 en hexadécimal
+    private static final class UuidConstraint extends ParamConstraint {
+
+        UuidConstraint() {
+            super("uuid");
+        }
+
+        @Override
+        public boolean matches(String value, int start, int end) {
+            if (end - start != 36) return false;
+            for (int i = 0; i < 36; i++) {
+                char c = value.charAt(start + i);
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    if (c != '-') return false;
+                } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toRegex() {
+            return "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}";
+        }
+    }
+
+    // Classe de caractères ASCII ([a-z-], [^.], ...) suivie d'un quantificateur (+, *, ?, {n}, {n,}, {n,m})
+    private static final class CharClassConstraint extends ParamConstraint {
+        private final boolean[] allowed = new boolean[128];
+        private boolean negated;
+        private int minLength = 1;
+        private int maxLength = 1;
+        private String regex;
+
+        private CharClassConstraint(String spec) {
+            super(spec);
+        }
+
+        // null si la syntaxe sort du sous-ensemble pris en charge (repli sur une regex)
+        static CharClassConstraint parse(String spec, String expression) {
+            CharClassConstraint constraint = new CharClassConstraint(spec);
+            int i = 1;
+            if (i < expression.length() && expression.charAt(i) == '^') {
+                constraint.negated = true;
+                i++;
+            }
+
+            boolean first = true;
+            while (i < expression.length() && (expression.charAt(i) != ']' || first)) {
+                char c = expression.charAt(i++);
+                if (c == '\\') {
+                    if (i >= expression.length()) return null;
+                    c = expression.charAt(i++);
+                    if (Character.isLetterOrDigit(c)) return null; // \d, \w... : laissés à la regex
+                }
+                if (c >= 128) return null;
+
+                // Intervalle a-z (un "-" en fin de classe est littéral)
+                if (i + 1 < expression.length() && expression.charAt(i) == '-' && expression.charAt(i + 1) != ']') {
+                    char to = expression.charAt(i + 1);
+                    if (to >= 128 || to < c || to == '\\') return null;
+                    for (char x = c; x <= to; x++) constraint.allowed[x] = true;
+                    i += 2;
+                } else {
+                    constraint.allowed[c] = true;
+                }
+                first = false;
+            }
+            if (i >= expression.length()) return null;
+            i++; // ']'
+
+            if (!constraint.parseQuantifier(expression.substring(i))) return null;
+            constraint.regex = expression;
+            return constraint;
+        }
+
+        private boolean parseQuantifier(String quantifier) {
+            switch (quantifier) {
+                case "": minLength = 1; maxLength = 1; return true;
+                case "+": minLength = 1; maxLength = Integer.MAX_VALUE; return true;
+                case "*": minLength = 0; maxLength = Integer.MAX_VALUE; return true;
+                case "?": minLength = 0; maxLength = 1; return true;
+                default: break;
+            }
+            if (!quantifier.startsWith("{") || !quantifier.endsWith("}")) return false;
+            String bounds = quantifier.substring(1, quantifier.length() - 1);
+            int comma = bounds.indexOf(',');
+            try {
+                if (comma < 0) {
+                    minLength = maxLength = Integer.parseInt(bounds);
+                } else {
+                    minLength = Integer.parseInt(bounds.substring(0, comma));
+                    String upper = bounds.substring(comma + 1);
+                    maxLength = upper.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(upper);
+                }
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            return minLength >= 0 && maxLength >= minLength;
+        }
+
+        @Override
+        public boolean matches(String value, int start, int end) {
+            int length = end - start;
+            if (length < minLength || length > maxLength) return false;
+            for (int i = start; i < end; i++) {
+                char c = value.charAt(i);
+                boolean inClass = c < 128 && allowed[c];
+                if (inClass == negated) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public String toRegex() { return regex; }
+    }
+
+    // Repli : expression régulière quelconque, appliquée au seul segment
+    private static final class RegexConstraint extends ParamConstraint {
+        private final Pattern pattern;
+
+        RegexConstraint(String spec) {
+            super(spec);
+            this.pattern = Pattern.compile(spec);
+        }
+
+        @Override
+        public boolean matches(String value, int start, int end) {
+            return pattern.matcher(value).region(start, end).matches();
+        }
+
+        @Override
+        public String toRegex() { return pattern.pattern(); }
+    }
+}
@@ -0,0 +1,143 @@
+package servlet.util.routing;
+
+import java.nio.CharBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Paramètres extraits d'un chemin, conservés sous forme de positions dans l'URI : une valeur n'est copiée
+ * en String qu'à la première lecture, et {@link #getSequence(String)} en donne une vue sans copie.
+ * Une instance peut être réutilisée d'une requête à l'autre via {@link #reset(String, String[])}.
+ */
+public class PathParameters extends AbstractMap<String, String> {
+    private static final String[] NO_NAMES = new String[0];
+
+    private String uri;
+    private String[] names;
+    private int[] offsets; // début et fin de chaque paramètre (-1 : absent)
+    private String[] values;
+
+    public PathParameters(String uri, String[] names, int[] offsets) {
+        this.uri = uri;
+        this.names = names;
+        this.offsets = offsets;
+        this.values = new String[names.length];
+    }
+
+    // Instance vide, destinée à être réutilisée
+    public PathParameters() {
+        this("", NO_NAMES, new int[0]);
+    }
+
+    /**
+     * Prépare l'instance pour un nouveau chemin : tous les paramètres sont marqués absents,
+     * les tableaux ne sont réalloués que s'ils sont trop petits
+     *
+     * @param uri   Le chemin de la requête
+     * @param names Les noms des paramètres du motif
+     * @return Le tableau des positions à remplir (début et fin de chaque paramètre)
+     */
+    public int[] reset(String uri, String[] names) {
+        this.uri = uri;
+        this.names = names;
+        if (offsets.length < 2 * names.length) {
+            offsets = new int[2 * names.length];
+            values = new String[names.length];
+        }
+        Arrays.fill(offsets, 0, 2 * names.length, -1);
+        Arrays.fill(values, null);
+        return offsets;
+    }
+
+    // Libère les références vers la requête précédente
+    public void clear() {
+        reset("", NO_NAMES);
+    }
+
+    /**
+     * Vue sur la valeur d'un paramètre, sans copie des caractères de l'URI
+     *
+     * @param name Le nom du paramètre
+     * @return La valeur, ou null si le paramètre est absent
+     */
+    public CharSequence getSequence(String name) {
+        int index = indexOf(name);
+        if (index < 0 || offsets[2 * index] < 0) return null;
+        if (values[index] != null) return values[index];
+        return CharBuffer.wrap(uri, offsets[2 * index], offsets[2 * index + 1]);
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = key instanceof String ? indexOf((String) key) : -1;
+        return index < 0 ? null : valueAt(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int index = key instanceof String ? indexOf((String) key) : -1;
+        return index >= 0 && offsets[2 * index] >= 0;
+    }
+
+    @Override
+    public int size() {
+        int count = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (offsets[2 * i] >= 0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int next = advance(0);
+
+                    private int advance(int from) {
+                        while (from < names.length && offsets[2 * from] < 0) from++;
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() { return next < names.length; }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        int index = next;
+                        next = advance(next + 1);
+                        return new SimpleImmutableEntry<>(names[index], valueAt(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() { return PathParameters.this.size(); }
+        };
+    }
+
+    private String valueAt(int index) {
+        if (offsets[2 * index] < 0) return null;
+        String value = values[index];
+        if (value == null) {
+            value = uri.substring(offsets[2 * index], offsets[2 * index + 1]);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+}
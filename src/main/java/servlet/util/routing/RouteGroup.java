@@ -0,0 +1,51 @@
+package servlet.util.routing;
+
+import servlet.util.ControllerInfo;
+import servlet.util.PathPattern;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Routes partageant le même motif de chemin, indexées par méthode HTTP.
+ * Le header Allow (réponses OPTIONS et 405) est calculé une seule fois à la construction.
+ */
+public class RouteGroup {
+    private final PathPattern pathPattern;
+    private final Map<String, ControllerInfo> byMethod;
+    private final Set<String> allowedMethods;
+    private final String allowHeader;
+
+    RouteGroup(PathPattern pathPattern, Map<String, ControllerInfo> byMethod) {
+        this.pathPattern = pathPattern;
+        this.byMethod = Collections.unmodifiableMap(new LinkedHashMap<>(byMethod));
+
+        Set<String> allowed = new TreeSet<>(byMethod.keySet());
+        if (allowed.contains("GET")) allowed.add("HEAD");
+        allowed.add("OPTIONS");
+        this.allowedMethods = Collections.unmodifiableSet(allowed);
+        this.allowHeader = String.join(", ", allowed);
+    }
+
+    /**
+     * Retrouve l'action pour une méthode HTTP ; HEAD est servi par la route GET à défaut de route HEAD
+     * 
+     * @param httpMethod La méthode HTTP de la requête
+     * @return Les informations du controller, ou null si la méthode n'est pas acceptée
+     */
+    public ControllerInfo get(String httpMethod) {
+        ControllerInfo info = byMethod.get(httpMethod);
+        if (info == null && "HEAD".equals(httpMethod)) {
+            info = byMethod.get("GET");
+        }
+        return info;
+    }
+
+    public PathPattern getPathPattern() { return pathPattern; }
+    public Map<String, ControllerInfo> getRoutes() { return byMethod; }
+    public Set<String> getAllowedMethods() { return allowedMethods; }
+    public String getAllowHeader() { return allowHeader; }
+}
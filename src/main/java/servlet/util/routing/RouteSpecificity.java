@@ -0,0 +1,68 @@
+package servlet.util.routing;
+
+import servlet.util.PathPattern;
+
+import java.util.Comparator;
+
+/**
+ * Ordre de correspondance des motifs : segment par segment, de gauche à droite, un littéral passe avant
+ * un segment mixte, lui-même avant un paramètre seul ; un joker final ({@code **}, {@code {path*}}) passe
+ * après tout motif de même préfixe. L'ordre est total (forme du chemin en dernier recours),
+ * donc indépendant de l'ordre de découverte des controllers.
+ */
+final class RouteSpecificity {
+
+    static final Comparator<PathPattern> ORDER = RouteSpecificity::compare;
+
+    private RouteSpecificity() {}
+
+    private static int compare(PathPattern a, PathPattern b) {
+        int common = Math.min(a.getSegmentCount(), b.getSegmentCount());
+        for (int i = 0; i < common; i++) {
+            int diff = b.getSegmentRank(i) - a.getSegmentRank(i);
+            if (diff != 0) return diff;
+        }
+        // À préfixe égal, le motif sans joker d'abord (/files avant /files/**), puis le plus long
+        if (a.getSegmentCount() == b.getSegmentCount() && a.hasCatchAll() != b.hasCatchAll()) {
+            return a.hasCatchAll() ? 1 : -1;
+        }
+        // Plus de segments d'abord, puis ordre alphabétique pour un résultat stable
+        int diff = b.getSegmentCount() - a.getSegmentCount();
+        return diff != 0 ? diff : a.getShape().compareTo(b.getShape());
+    }
+
+    /**
+     * Indique si un même chemin peut correspondre aux deux motifs
+     */
+    static boolean overlaps(PathPattern a, PathPattern b) {
+        int common = Math.min(a.getSegmentCount(), b.getSegmentCount());
+        if (a.getSegmentCount() != b.getSegmentCount()) {
+            // Un joker couvre tous les chemins plus longs que son préfixe
+            PathPattern shorter = a.getSegmentCount() < b.getSegmentCount() ? a : b;
+            if (!shorter.hasCatchAll()) return false;
+        }
+        for (int i = 0; i < common; i++) {
+            if (a.getSegmentRank(i) == PathPattern.SEGMENT_LITERAL
+                    && b.getSegmentRank(i) == PathPattern.SEGMENT_LITERAL
+                    && !a.getSegment(i).equals(b.getSegment(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indique si {@code a} est au moins aussi spécifique que {@code b} sur chaque segment.
+     * Les méthodes HTTP n'interviennent pas : le routage passe au motif suivant quand le plus spécifique
+     * ne sert pas la méthode (RouteTable.findGroup), un motif dominant ne masque donc que les méthodes
+     * qu'il sert lui-même.
+     */
+    static boolean dominates(PathPattern a, PathPattern b) {
+        if (a.getSegmentCount() < b.getSegmentCount()) return false;
+        if (a.hasCatchAll() && !b.hasCatchAll()) return false;
+        for (int i = 0; i < b.getSegmentCount(); i++) {
+            if (a.getSegmentRank(i) < b.getSegmentRank(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,236 @@
+package servlet.util.routing;
+
+import servlet.util.ControllerInfo;
+import servlet.util.PathPattern;
+import servlet.util.exceptions.ExceptionHandlerRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Table de routage immuable construite au démarrage : les routes sont regroupées par forme de chemin,
+ * si bien qu'une requête ne teste qu'une fois chaque motif, quelle que soit sa méthode HTTP.
+ * Les groupes sont triés par spécificité (littéraux avant paramètres) : le premier motif qui correspond
+ * et sert la méthode HTTP est le bon, indépendamment de l'ordre de découverte des controllers ; un motif
+ * plus spécifique ne masque donc pas les méthodes d'un motif plus général (GET /users/new, DELETE /users/{id}).
+ * Un index sur le premier segment littéral limite la recherche aux motifs de ce préfixe, suivis des motifs
+ * qui commencent par un paramètre ou un joker : le coût ne croît plus avec le nombre total de routes.
+ * Les handlers d'exception des controllers en font partie, pour être remplacés en même temps que les routes.
+ */
+public class RouteTable {
+    private final Map<PathPattern, ControllerInfo> routes;
+    private final RouteGroup[] groups;
+    private final String[] prefixes;                        // préfixes littéraux, adressage ouvert
+    private final RouteGroup[][] byFirstSegment;            // groupes candidats de chaque préfixe, triés
+    private final RouteGroup[] wildcardFirst;               // groupes sans premier segment littéral
+    private final List<String> conflicts;
+    private final ExceptionHandlerRegistry exceptionHandlers;
+
+    public RouteTable(Map<PathPattern, ControllerInfo> routes) {
+        this(routes, new ExceptionHandlerRegistry());
+    }
+
+    /**
+     * @throws IllegalStateException si deux routes ont la même forme de chemin et la même méthode HTTP
+     */
+    public RouteTable(Map<PathPattern, ControllerInfo> routes, ExceptionHandlerRegistry exceptionHandlers) {
+        this.exceptionHandlers = exceptionHandlers;
+        this.routes = Collections.unmodifiableMap(new LinkedHashMap<>(routes));
+
+        Map<String, PathPattern> patterns = new LinkedHashMap<>();
+        Map<String, Map<String, ControllerInfo>> byShape = new LinkedHashMap<>();
+        for (Map.Entry<PathPattern, ControllerInfo> entry : routes.entrySet()) {
+            PathPattern pattern = entry.getKey();
+            String shape = pattern.getShape();
+            patterns.putIfAbsent(shape, pattern);
+
+            ControllerInfo previous = byShape.computeIfAbsent(shape, k -> new LinkedHashMap<>())
+                    .putIfAbsent(pattern.getHttpMethod(), entry.getValue());
+            if (previous != null) {
+                throw new IllegalStateException("Route en double " + pattern.getHttpMethod() + " " + shape + " : "
+                        + describe(previous) + " et " + describe(entry.getValue()));
+            }
+        }
+
+        List<RouteGroup> built = new ArrayList<>(byShape.size());
+        for (Map.Entry<String, Map<String, ControllerInfo>> entry : byShape.entrySet()) {
+            built.add(new RouteGroup(patterns.get(entry.getKey()), entry.getValue()));
+        }
+        built.sort((a, b) -> RouteSpecificity.ORDER.compare(a.getPathPattern(), b.getPathPattern()));
+        this.groups = built.toArray(new RouteGroup[0]);
+
+        // Chaque liste candidate garde l'ordre global : littéraux du préfixe et motifs génériques mêlés
+        List<RouteGroup> wildcards = new ArrayList<>();
+        Map<String, List<RouteGroup>> buckets = new HashMap<>();
+        for (RouteGroup group : groups) {
+            String key = firstLiteral(group.getPathPattern());
+            if (key == null) {
+                wildcards.add(group);
+                buckets.values().forEach(bucket -> bucket.add(group));
+            } else {
+                buckets.computeIfAbsent(key, k -> new ArrayList<>(wildcards)).add(group);
+            }
+        }
+        this.wildcardFirst = wildcards.toArray(new RouteGroup[0]);
+        int capacity = Integer.highestOneBit(Math.max(1, buckets.size()) * 4);
+        this.prefixes = new String[capacity];
+        this.byFirstSegment = new RouteGroup[capacity][];
+        for (Map.Entry<String, List<RouteGroup>> bucket : buckets.entrySet()) {
+            int slot = bucket.getKey().hashCode() & (capacity - 1);
+            while (prefixes[slot] != null) slot = (slot + 1) & (capacity - 1);
+            prefixes[slot] = bucket.getKey();
+            byFirstSegment[slot] = bucket.getValue().toArray(new RouteGroup[0]);
+        }
+        this.conflicts = Collections.unmodifiableList(detectConflicts(groups));
+    }
+
+    /**
+     * Recherche le groupe de routes dont le motif correspond au chemin
+     *
+     * @param path Le chemin de la requête
+     * @return Le groupe de routes, ou null si aucun motif ne correspond
+     */
+    public RouteGroup findGroup(String path) {
+        for (RouteGroup group : candidates(path)) {
+            if (group.getPathPattern().matchesPath(path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recherche, par ordre de spécificité, le premier groupe dont le motif correspond au chemin et qui sert
+     * la méthode HTTP (HEAD servi par GET)
+     *
+     * @param path       Le chemin de la requête
+     * @param httpMethod La méthode HTTP de la requête
+     * @return Le groupe qui sert la méthode ; à défaut le premier groupe du chemin (réponse OPTIONS ou 405),
+     *         ou null si aucun motif ne correspond
+     */
+    public RouteGroup findGroup(String path, String httpMethod) {
+        RouteGroup first = null;
+        for (RouteGroup group : candidates(path)) {
+            if (group.getPathPattern().matchesPath(path)) {
+                if (group.get(httpMethod) != null) {
+                    return group;
+                }
+                if (first == null) {
+                    first = group;
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Header Allow d'un chemin : méthodes de tous les groupes dont le motif correspond
+     *
+     * @param path Le chemin de la requête
+     * @return Les méthodes acceptées, ou null si aucun motif ne correspond
+     */
+    public String allowHeader(String path) {
+        RouteGroup single = null;
+        Set<String> allowed = null;
+        for (RouteGroup group : candidates(path)) {
+            if (!group.getPathPattern().matchesPath(path)) continue;
+            if (single == null) {
+                single = group;
+                continue;
+            }
+            if (allowed == null) {
+                allowed = new TreeSet<>(single.getAllowedMethods());
+            }
+            allowed.addAll(group.getAllowedMethods());
+        }
+        if (allowed != null) return String.join(", ", allowed);
+        return single != null ? single.getAllowHeader() : null;
+    }
+
+    // Groupes à tester pour un chemin, d'après son premier segment (comparé sur place, sans sous-chaîne)
+    private RouteGroup[] candidates(String path) {
+        int start = Math.min(1, path.length());
+        int end = path.indexOf('/', start);
+        if (end < 0) end = path.length();
+
+        // Même calcul que String.hashCode, limité au segment
+        int hash = 0;
+        for (int i = start; i < end; i++) hash = 31 * hash + path.charAt(i);
+
+        int mask = prefixes.length - 1;
+        for (int slot = hash & mask; prefixes[slot] != null; slot = (slot + 1) & mask) {
+            String prefix = prefixes[slot];
+            if (prefix.length() == end - start && path.startsWith(prefix, start)) {
+                return byFirstSegment[slot];
+            }
+        }
+        return wildcardFirst;
+    }
+
+    private RouteGroup[] bucketOf(String prefix) {
+        int mask = prefixes.length - 1;
+        for (int slot = prefix.hashCode() & mask; prefixes[slot] != null; slot = (slot + 1) & mask) {
+            if (prefixes[slot].equals(prefix)) return byFirstSegment[slot];
+        }
+        return wildcardFirst;
+    }
+
+    /**
+     * Nombre de motifs testés avant d'atteindre le groupe, pour un chemin de même préfixe
+     */
+    int patternsTested(RouteGroup group) {
+        String key = firstLiteral(group.getPathPattern());
+        RouteGroup[] bucket = key != null ? bucketOf(key) : wildcardFirst;
+        for (int i = 0; i < bucket.length; i++) {
+            if (bucket[i] == group) return i + 1;
+        }
+        return bucket.length;
+    }
+
+    // Premier segment littéral ("" pour la racine), ou null s'il commence par un paramètre ou un joker
+    private static String firstLiteral(PathPattern pattern) {
+        if (pattern.getSegmentCount() == 0) {
+            return pattern.hasCatchAll() ? null : "";
+        }
+        return pattern.getSegmentRank(0) == PathPattern.SEGMENT_LITERAL ? pattern.getSegment(0) : null;
+    }
+
+    // Motifs qui se recouvrent sans que l'un soit plus spécifique que l'autre sur chaque segment ; un motif
+    // dominant ne masque pas les méthodes qu'il ne sert pas (findGroup passe au groupe suivant)
+    private static List<String> detectConflicts(RouteGroup[] groups) {
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < groups.length; i++) {
+            PathPattern first = groups[i].getPathPattern();
+            for (int j = i + 1; j < groups.length; j++) {
+                PathPattern second = groups[j].getPathPattern();
+                if (RouteSpecificity.overlaps(first, second)
+                        && !RouteSpecificity.dominates(first, second)
+                        && !RouteSpecificity.dominates(second, first)) {
+                    found.add("Routes ambiguës " + first.getPath() + " et " + second.getPath()
+                            + " : " + first.getPath() + " est testée en premier");
+                }
+            }
+        }
+        return found;
+    }
+
+    private static String describe(ControllerInfo info) {
+        return info.getControllerClass().getName() + "." + info.getMethod().getName();
+    }
+
+    // Toutes les routes (motif + méthode), dans l'ordre d'enregistrement
+    public Map<PathPattern, ControllerInfo> getRoutes() { return routes; }
+
+    // Groupes dans l'ordre de correspondance (du plus spécifique au plus général)
+    public List<RouteGroup> getGroups() { return List.of(groups); }
+
+    public List<String> getConflicts() { return conflicts; }
+
+    public ExceptionHandlerRegistry getExceptionHandlers() { return exceptionHandlers; }
+}
@@ -0,0 +1,19 @@
+package servlet.util.routing;
+
+/**
+ * Référence copy-on-write vers la table de routage courante : une requête lit un instantané immuable
+ * par une seule lecture volatile, un rechargement publie une nouvelle table sans verrou ni attente.
+ */
+public class RouteTableHolder {
+    private volatile RouteTable current;
+
+    public RouteTableHolder(RouteTable initial) {
+        this.current = initial;
+    }
+
+    // Instantané à conserver pour toute la durée d'une requête
+    public RouteTable get() { return current; }
+
+    // Remplace la table ; les requêtes en cours gardent l'instantané qu'elles ont lu
+    public void set(RouteTable routeTable) { this.current = routeTable; }
+}
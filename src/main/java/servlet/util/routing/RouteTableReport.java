@@ -0,0 +1,73 @@
+package servlet.util.routing;
+
+import servlet.util.ControllerInfo;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rapport JSON de la table de routage : routes dans l'ordre de correspondance, nombre de motifs testés
+ * pour les atteindre (coût du routage), requêtes servies, et motifs ambigus détectés au démarrage
+ */
+public final class RouteTableReport {
+
+    private RouteTableReport() {}
+
+    public static void write(RouteTable routeTable, PrintWriter out) {
+        out.print("{\"routes\":[");
+        if (routeTable != null) {
+            List<RouteGroup> groups = routeTable.getGroups();
+            boolean first = true;
+            for (int i = 0; i < groups.size(); i++) {
+                for (Map.Entry<String, ControllerInfo> route : groups.get(i).getRoutes().entrySet()) {
+                    if (!first) out.print(',');
+                    first = false;
+                    writeRoute(routeTable.patternsTested(groups.get(i)), route.getKey(), route.getValue(), out);
+                }
+            }
+        }
+        out.print("],\"conflicts\":[");
+        if (routeTable != null) {
+            List<String> conflicts = routeTable.getConflicts();
+            for (int i = 0; i < conflicts.size(); i++) {
+                if (i > 0) out.print(',');
+                quote(conflicts.get(i), out);
+            }
+        }
+        out.print("]}");
+        out.flush();
+    }
+
+    private static void writeRoute(int patternsTested, String httpMethod, ControllerInfo info, PrintWriter out) {
+        out.print("{\"method\":");
+        quote(httpMethod, out);
+        out.print(",\"path\":");
+        quote(info.getPathPattern().getPath(), out);
+        out.print(",\"controller\":");
+        quote(info.getControllerClass().getName(), out);
+        out.print(",\"action\":");
+        quote(info.getMethod().getName(), out);
+        out.print(",\"patternsTested\":");
+        out.print(patternsTested);
+        out.print(",\"hits\":");
+        out.print(info.getHits());
+        out.print('}');
+    }
+
+    private static void quote(String value, PrintWriter out) {
+        out.print('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.print('\\');
+                out.print(c);
+            } else if (c < 0x20) {
+                out.print(String.format("\\u%04x", (int) c));
+            } else {
+                out.print(c);
+            }
+        }
+        out.print('"');
+    }
+}
@@ -0,0 +1,35 @@
+package servlet.util.security;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Identité de l'utilisateur courant telle que résolue par un SecurityContextProvider
+public class SecurityContext {
+    private final String subject;
+    private final Set<String> roles;
+
+    public SecurityContext(String subject, Set<String> roles) {
+        this.subject = subject;
+        this.roles = roles == null
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(new LinkedHashSet<>(roles));
+    }
+
+    public String getSubject() { return subject; }
+    public Set<String> getRoles() { return roles; }
+
+    /**
+     * Vérifie si l'utilisateur possède au moins un des rôles demandés
+     * 
+     * @param allowedRoles Les rôles autorisés (vide = tout utilisateur authentifié)
+     * @return true si l'accès est accordé
+     */
+    public boolean hasAnyRole(String[] allowedRoles) {
+        if (allowedRoles == null || allowedRoles.length == 0) return true;
+        for (String role : allowedRoles) {
+            if (roles.contains(role)) return true;
+        }
+        return false;
+    }
+}
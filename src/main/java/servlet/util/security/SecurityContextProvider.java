@@ -0,0 +1,19 @@
+package servlet.util.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * SPI de résolution de l'identité pour @Authorized.
+ * Une implémentation est choisie au démarrage via le paramètre d'init "securityProvider"
+ * ("session", "token" ou nom de classe complet avec constructeur sans argument).
+ */
+public interface SecurityContextProvider {
+
+    /**
+     * Résout l'identité de l'utilisateur à partir de la requête
+     * 
+     * @param req La requête HTTP
+     * @return Le contexte de sécurité, ou null si l'utilisateur n'est pas authentifié
+     */
+    SecurityContext resolve(HttpServletRequest req);
+}
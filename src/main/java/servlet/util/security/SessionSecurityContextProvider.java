@@ -0,0 +1,28 @@
+package servlet.util.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.Set;
+
+// Comportement historique : le rôle est lu en session sous la clé "sessionRoleKey"
+public class SessionSecurityContextProvider implements SecurityContextProvider {
+    private final String sessionRoleKey;
+
+    public SessionSecurityContextProvider(String sessionRoleKey) {
+        this.sessionRoleKey = sessionRoleKey;
+    }
+
+    @Override
+    public SecurityContext resolve(HttpServletRequest req) {
+        if (sessionRoleKey == null) return null;
+
+        HttpSession session = req.getSession(false);
+        if (session == null) return null;
+
+        Object role = session.getAttribute(sessionRoleKey);
+        if (role == null) return null;
+
+        return new SecurityContext(null, Set.of(role.toString()));
+    }
+}
@@ -0,0 +1,200 @@
+package servlet.util.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import servlet.util.cache.LruCache;
+import servlet.util.codec.JsonMappers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Authentification sans état par jeton signé HMAC-SHA256 (format JWT compact, alg HS256).
+ * Le jeton est lu dans un header (par défaut "Authorization: Bearer ...") ou dans un cookie.
+ * Les jetons déjà vérifiés sont gardés dans un petit cache LRU indexé par leur signature,
+ * ce qui évite de refaire le calcul HMAC et le parsing JSON à chaque requête.
+ */
+public class TokenSecurityContextProvider implements SecurityContextProvider {
+
+    private static final String HEADER_HS256 = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
+    private static final Base64.Encoder B64_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+    private final String headerName;
+    private final String cookieName;
+    private final String roleClaim;
+    private final LruCache<String, CachedToken> verifiedTokens;
+
+    // Mac n'est pas thread-safe : une instance par thread
+    private final ThreadLocal<Mac> macs;
+
+    public TokenSecurityContextProvider(byte[] secret, String headerName, String cookieName,
+            String roleClaim, int cacheSize) {
+        if (secret == null || secret.length == 0) {
+            throw new IllegalArgumentException("Le secret HMAC du jeton ne peut pas être vide");
+        }
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        this.headerName = headerName;
+        this.cookieName = cookieName;
+        this.roleClaim = roleClaim;
+        this.verifiedTokens = new LruCache<>(cacheSize);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    public SecurityContext resolve(HttpServletRequest req) {
+        String token = extractToken(req);
+        if (token == null) return null;
+
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || lastDot == token.length() - 1) return null;
+
+        // Jeton déjà vérifié : seule l'expiration est recontrôlée
+        String signature = token.substring(lastDot + 1);
+        CachedToken cached = verifiedTokens.get(signature);
+        if (cached != null && cached.token.equals(token)) {
+            if (cached.isExpired(System.currentTimeMillis())) {
+                verifiedTokens.remove(signature);
+                return null;
+            }
+            return cached.context;
+        }
+
+        CachedToken verified = verify(token, firstDot, lastDot);
+        if (verified == null) return null;
+
+        verifiedTokens.put(signature, verified);
+        return verified.context;
+    }
+
+    /**
+     * Génère un jeton signé, à utiliser par exemple dans l'action de connexion
+     * 
+     * @param subject    L'identifiant de l'utilisateur (claim "sub")
+     * @param roles      Les rôles de l'utilisateur
+     * @param ttlSeconds La durée de validité en secondes (0 = sans expiration)
+     * @return Le jeton au format header.payload.signature
+     */
+    public String createToken(String subject, Collection<String> roles, long ttlSeconds) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        if (subject != null) claims.put("sub", subject);
+        claims.put(roleClaim, roles);
+        long now = System.currentTimeMillis() / 1000;
+        claims.put("iat", now);
+        if (ttlSeconds > 0) claims.put("exp", now + ttlSeconds);
+
+        try {
+            String signingInput = encode(HEADER_HS256.getBytes(StandardCharsets.UTF_8)) + "."
+                    + encode(JsonMappers.shared().writeValueAsBytes(claims));
+            byte[] signature = macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + encode(signature);
+        } catch (Exception e) {
+            throw new IllegalStateException("Impossible de générer le jeton : " + e.getMessage(), e);
+        }
+    }
+
+    private String extractToken(HttpServletRequest req) {
+        if (headerName != null) {
+            String value = req.getHeader(headerName);
+            if (value != null && !value.isEmpty()) {
+                return value.startsWith(BEARER_PREFIX) ? value.substring(BEARER_PREFIX.length()).trim() : value.trim();
+            }
+        }
+        if (cookieName != null) {
+            Cookie[] cookies = req.getCookies();
+            if (cookies != null) {
+                for (Cookie cookie : cookies) {
+                    if (cookieName.equals(cookie.getName())) return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private CachedToken verify(String token, int firstDot, int lastDot) {
+        try {
+            byte[] expected = macs.get().doFinal(token.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+            byte[] actual = B64_DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(expected, actual)) return null;
+
+            // Refuser tout autre algorithme (notamment "none")
+            ObjectMapper mapper = JsonMappers.shared();
+            Map<?, ?> header = mapper.readValue(B64_DECODER.decode(token.substring(0, firstDot)), Map.class);
+            if (!"HS256".equals(header.get("alg"))) return null;
+
+            Map<?, ?> claims = mapper.readValue(B64_DECODER.decode(token.substring(firstDot + 1, lastDot)), Map.class);
+            long now = System.currentTimeMillis();
+            long expiresAt = claims.get("exp") instanceof Number n ? n.longValue() * 1000 : Long.MAX_VALUE;
+            if (expiresAt <= now) return null;
+            if (claims.get("nbf") instanceof Number n && n.longValue() * 1000 > now) return null;
+
+            Object sub = claims.get("sub");
+            SecurityContext context = new SecurityContext(sub == null ? null : sub.toString(),
+                    readRoles(claims.get(roleClaim)));
+            return new CachedToken(token, context, expiresAt);
+
+        } catch (Exception e) {
+            // Jeton malformé : traité comme non authentifié
+            return null;
+        }
+    }
+
+    private Set<String> readRoles(Object claim) {
+        Set<String> roles = new LinkedHashSet<>();
+        if (claim instanceof Collection<?> values) {
+            for (Object value : values) {
+                if (value != null) roles.add(value.toString());
+            }
+        } else if (claim != null) {
+            roles.add(claim.toString());
+        }
+        return roles;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponible : " + e.getMessage(), e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return B64_ENCODER.encodeToString(bytes);
+    }
+
+    // Entrée du cache : le jeton complet est conservé pour écarter toute collision de signature
+    private static final class CachedToken {
+        private final String token;
+        private final SecurityContext context;
+        private final long expiresAt;
+
+        private CachedToken(String token, SecurityContext context, long expiresAt) {
+            this.token = token;
+            this.context = context;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package servlet.util.session;
+
+import jakarta.servlet.http.HttpSession;
+import servlet.util.maps.CopyOnWriteMapView;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Map des attributs de session remise aux paramètres @SessionParam.
+ * Les lectures passent directement à la session ; à la première écriture (ou au premier parcours)
+ * les attributs sont copiés et cette copie sert de photographie de référence. Les clés écrites
+ * via put sont notées, afin que seuls les attributs modifiés ou supprimés soient réappliqués.
+ * Un objet modifié sur place sans nouveau put n'est pas considéré comme modifié.
+ */
+public class SessionAttributeMap extends CopyOnWriteMapView<Object> {
+    private final HttpSession session;
+    private final String sessionId;
+    private Map<String, Object> baseline = Collections.emptyMap();
+    private final Set<String> written = new HashSet<>();
+
+    public SessionAttributeMap(HttpSession session) {
+        this.session = session;
+        this.sessionId = session.getId();
+    }
+
+    @Override
+    protected Object lookup(String key) {
+        return session.getAttribute(key);
+    }
+
+    @Override
+    protected int sourceSize() {
+        int count = 0;
+        Enumeration<String> attributeNames = session.getAttributeNames();
+        while (attributeNames.hasMoreElements()) {
+            attributeNames.nextElement();
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    protected Map<String, Object> copySource() {
+        Map<String, Object> snapshot = new HashMap<>();
+        Enumeration<String> attributeNames = session.getAttributeNames();
+        while (attributeNames.hasMoreElements()) {
+            String key = attributeNames.nextElement();
+            snapshot.put(key, session.getAttribute(key));
+        }
+        return snapshot;
+    }
+
+    @Override
+    protected void onMaterialized(Map<String, Object> copy) {
+        this.baseline = new HashMap<>(copy);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = super.put(key, value);
+        written.add(key);
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Object> m) {
+        for (Entry<? extends String, ? extends Object> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object remove(Object key) {
+        written.remove(key);
+        return super.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        written.clear();
+        super.clear();
+    }
+
+    // Faux si la session a été invalidée puis recréée depuis la construction de la Map
+    public boolean isBoundTo(HttpSession session) {
+        return sessionId.equals(session.getId());
+    }
+
+    /**
+     * Applique à la session uniquement les différences avec l'état initial
+     * 
+     * @param session La session HTTP cible
+     * @return Le nombre d'attributs écrits ou supprimés
+     */
+    public int applyTo(HttpSession session) {
+        // Lecture seule : rien à réécrire
+        if (!isMaterialized()) return 0;
+
+        Map<String, Object> values = materialized();
+        int changes = 0;
+
+        for (String key : baseline.keySet()) {
+            if (!values.containsKey(key)) {
+                session.removeAttribute(key);
+                changes++;
+            }
+        }
+
+        for (Entry<String, Object> entry : values.entrySet()) {
+            String key = entry.getKey();
+            if (written.contains(key) || !baseline.containsKey(key) || baseline.get(key) != entry.getValue()) {
+                session.setAttribute(key, entry.getValue());
+                changes++;
+            }
+        }
+
+        return changes;
+    }
+}
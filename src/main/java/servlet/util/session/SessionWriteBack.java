@@ -0,0 +1,48 @@
+package servlet.util.session;
+
+import jakarta.servlet.http.HttpSession;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+// Réécriture différentielle de la session à partir de la Map renvoyée dans un ModelView
+public final class SessionWriteBack {
+
+    private SessionWriteBack() {}
+
+    /**
+     * Synchronise la session avec la Map donnée en n'écrivant que les attributs modifiés
+     * 
+     * @param session La session HTTP
+     * @param data    Le nouvel état complet de la session
+     * @return Le nombre d'attributs écrits ou supprimés
+     */
+    public static int apply(HttpSession session, Map<String, Object> data) {
+        if (data instanceof SessionAttributeMap && ((SessionAttributeMap) data).isBoundTo(session)) {
+            return ((SessionAttributeMap) data).applyTo(session);
+        }
+
+        // Map construite par le controller (ou session recréée) : différence calculée avec l'état courant
+        int changes = 0;
+        List<String> removed = new ArrayList<>();
+        Enumeration<String> attributeNames = session.getAttributeNames();
+        while (attributeNames.hasMoreElements()) {
+            String key = attributeNames.nextElement();
+            if (!data.containsKey(key)) removed.add(key);
+        }
+        for (String key : removed) {
+            session.removeAttribute(key);
+            changes++;
+        }
+
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            if (session.getAttribute(entry.getKey()) != entry.getValue()) {
+                session.setAttribute(entry.getKey(), entry.getValue());
+                changes++;
+            }
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,166 @@
+package servlet.util.streaming;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flux d'événements alimenté par le controller : l'action retourne l'instance, puis un autre thread
+ * y publie avec {@link #send(Object)} jusqu'à {@link #complete()}. Les événements envoyés avant que
+ * le framework ne s'abonne sont conservés. Le tampon est borné : quand le client lit moins vite
+ * que le producteur n'écrit, send() attend (contre-pression) et trySend() échoue.
+ * Un seul abonné (la réponse HTTP) ; {@link #onClose(Runnable)} prévient le producteur de la fin du flux,
+ * y compris quand le client se déconnecte.
+ */
+public class EventStream implements Flow.Publisher<Object> {
+    private final BlockingQueue<Object> buffer;
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicBoolean closeHandled = new AtomicBoolean();
+    private final List<Runnable> closeHandlers = new CopyOnWriteArrayList<>();
+    private volatile Flow.Subscriber<? super Object> subscriber;
+    private volatile boolean completed;
+    private volatile boolean cancelled;
+    private volatile Throwable failure;
+    private boolean terminated; // modifié dans drain() seulement
+
+    public EventStream() {
+        this(256);
+    }
+
+    /**
+     * @param capacity Le nombre maximal d'événements en attente d'envoi
+     */
+    public EventStream(int capacity) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Publie un événement, en attendant de la place dans le tampon si nécessaire
+     *
+     * @param event L'événement (ServerSentEvent, texte, ou objet sérialisé en JSON)
+     * @return false si le flux est terminé ou le client déconnecté
+     */
+    public boolean send(Object event) throws InterruptedException {
+        while (!isClosed()) {
+            if (buffer.offer(event, 100, TimeUnit.MILLISECONDS)) {
+                drain();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Publie un événement sans attendre
+     *
+     * @return false si le tampon est plein ou le flux terminé
+     */
+    public boolean trySend(Object event) {
+        if (isClosed() || !buffer.offer(event)) {
+            return false;
+        }
+        drain();
+        return true;
+    }
+
+    // Fin normale du flux : les événements en attente sont envoyés, puis la réponse est terminée
+    public void complete() {
+        completed = true;
+        drain();
+    }
+
+    public void completeWithError(Throwable error) {
+        failure = error;
+        completed = true;
+        drain();
+    }
+
+    // true après complete() ou la déconnexion du client
+    public boolean isClosed() {
+        return completed || cancelled;
+    }
+
+    // Action exécutée une fois à la fin du flux (libération des ressources du producteur)
+    public void onClose(Runnable handler) {
+        closeHandlers.add(handler);
+        if (closeHandled.get() && closeHandlers.remove(handler)) handler.run();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Object> newSubscriber) {
+        if (subscriber != null) {
+            newSubscriber.onSubscribe(new Flow.Subscription() {
+                @Override public void request(long n) {}
+                @Override public void cancel() {}
+            });
+            newSubscriber.onError(new IllegalStateException("EventStream accepte un seul abonné"));
+            return;
+        }
+        subscriber = newSubscriber;
+        newSubscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    completeWithError(new IllegalArgumentException("Demande invalide : " + n));
+                    return;
+                }
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                buffer.clear();
+                runCloseHandlers();
+            }
+        });
+        drain();
+    }
+
+    // Livraison sérialisée (un seul thread à la fois) des événements demandés par l'abonné
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super Object> target = subscriber;
+            if (target != null && !cancelled && !terminated) {
+                while (demand.get() > 0) {
+                    Object next = buffer.poll();
+                    if (next == null) break;
+                    demand.decrementAndGet();
+                    target.onNext(next);
+                }
+                if (completed && buffer.isEmpty()) {
+                    terminated = true;
+                    if (failure != null) target.onError(failure);
+                    else target.onComplete();
+                    runCloseHandlers();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void runCloseHandlers() {
+        if (closeHandled.compareAndSet(false, true)) {
+            for (Runnable handler : closeHandlers) {
+                if (!closeHandlers.remove(handler)) continue; // déjà exécutée par onClose()
+                try {
+                    handler.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Erreur à la fermeture d'un EventStream : " + e.getMessage());
+                }
+            }
+        }
+    }
+}
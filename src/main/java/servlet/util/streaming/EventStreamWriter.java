@@ -0,0 +1,199 @@
+package servlet.util.streaming;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Écriture non bloquante d'un flux SSE : les trames produites par le publisher, le thread de heartbeat
+ * et les rappels onWritePossible du conteneur passent par une seule boucle d'écriture sérialisée.
+ * Le publisher ne reçoit de nouvelle demande qu'une fois les trames précédentes écrites, si bien
+ * qu'au plus PREFETCH trames attendent en mémoire quand le client lit lentement.
+ */
+final class EventStreamWriter implements Flow.Subscriber<Object>, AsyncListener {
+    private static final int PREFETCH = 16;
+
+    private final EventStreams support;
+    private final AsyncContext async;
+    private final ServletOutputStream out;
+    private final Queue<byte[]> frames = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean done;
+    private volatile boolean writable; // premier onWritePossible reçu
+    private volatile long lastWrite = System.currentTimeMillis();
+    private ScheduledFuture<?> heartbeat;
+    private int written; // trames écrites depuis la dernière demande, modifié dans drain() seulement
+
+    EventStreamWriter(EventStreams support, AsyncContext async, ServletOutputStream out) {
+        this.support = support;
+        this.async = async;
+        this.out = out;
+    }
+
+    void start(Flow.Publisher<?> publisher) {
+        async.addListener(this);
+        long interval = support.heartbeatMillis();
+        heartbeat = support.scheduler().scheduleAtFixedRate(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        out.setWriteListener(new Output()); // le conteneur appelle onWritePossible dès que l'écriture est possible
+        publisher.subscribe(this);
+    }
+
+    // --- Flow.Subscriber : trames produites ---
+
+    @Override
+    public void onSubscribe(Flow.Subscription s) {
+        subscription = s;
+        if (closed.get()) {
+            s.cancel();
+        } else {
+            s.request(PREFETCH);
+        }
+    }
+
+    @Override
+    public void onNext(Object item) {
+        try {
+            frames.add(support.encode(item));
+        } catch (IOException e) {
+            onError(e);
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        EventStreams.logError(error);
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    private void heartbeat() {
+        if (System.currentTimeMillis() - lastWrite >= support.heartbeatMillis() && frames.isEmpty()) {
+            frames.add(EventStreams.HEARTBEAT);
+            drain();
+        }
+    }
+
+    // --- WriteListener : le conteneur signale que l'écriture est de nouveau possible ---
+
+    private final class Output implements WriteListener {
+        @Override
+        public void onWritePossible() {
+            writable = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close(true);
+        }
+    }
+
+    // --- AsyncListener : fin de la requête asynchrone ---
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close(false);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close(true);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close(false);
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {}
+
+    /**
+     * Boucle d'écriture : un seul thread à la fois, les appels concurrents sont rejoués par le thread actif.
+     * Elle s'arrête quand isReady() devient false ; le conteneur rappelle alors onWritePossible.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            try {
+                writeAvailable();
+            } catch (IOException | RuntimeException e) {
+                // Client déconnecté pendant l'écriture
+                close(true);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void writeAvailable() throws IOException {
+        if (closed.get()) {
+            frames.clear();
+            return;
+        }
+        if (!writable) return; // premier onWritePossible pas encore reçu
+        // Si isReady() répond false, le conteneur rappellera onWritePossible
+
+        boolean wrote = false;
+        byte[] frame;
+        while ((frame = frames.peek()) != null) {
+            if (!out.isReady()) return;
+            frames.poll();
+            out.write(frame);
+            wrote = true;
+            lastWrite = System.currentTimeMillis();
+            if (frame != EventStreams.HEARTBEAT && ++written >= PREFETCH / 2) {
+                subscription.request(written);
+                written = 0;
+            }
+        }
+
+        if (wrote) {
+            if (!out.isReady()) return;
+            out.flush();
+        }
+        if (done && frames.isEmpty() && out.isReady()) {
+            close(true);
+        }
+    }
+
+    // Libère le heartbeat, annule le publisher si le flux n'est pas terminé et termine la requête async
+    private void close(boolean complete) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (heartbeat != null) heartbeat.cancel(false);
+        Flow.Subscription s = subscription;
+        if (!done && s != null) s.cancel();
+        if (complete) {
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // Requête déjà terminée par le conteneur
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package servlet.util.streaming;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import servlet.util.codec.JsonMappers;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envoi en text/event-stream des actions qui retournent un Flow.Publisher (dont EventStream) :
+ * chaque élément devient une trame SSE dès son arrivée (objets sérialisés en JSON), un commentaire
+ * est envoyé à intervalle régulier pour maintenir la connexion, et la demande faite au publisher suit
+ * le rythme d'écriture vers le client. En mode asynchrone, l'écriture est non bloquante (WriteListener) ;
+ * sans support async (servlet non déclarée async-supported), le flux est écrit sur le thread de la requête.
+ */
+public class EventStreams {
+    static final byte[] HEARTBEAT = ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final Object END = new Object();
+
+    private final ScheduledExecutorService scheduler;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+
+    /**
+     * @param heartbeatMillis L'intervalle des commentaires de maintien de connexion
+     * @param timeoutMillis   La durée maximale d'un flux (0 : illimitée)
+     */
+    public EventStreams(long heartbeatMillis, long timeoutMillis) {
+        this.heartbeatMillis = heartbeatMillis;
+        this.timeoutMillis = timeoutMillis;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+    }
+
+    /**
+     * Diffuse les éléments du publisher vers le client
+     *
+     * @param req       La requête HTTP
+     * @param resp      La réponse HTTP
+     * @param publisher La source des événements retournée par l'action
+     */
+    public void stream(HttpServletRequest req, HttpServletResponse resp, Flow.Publisher<?> publisher)
+            throws IOException {
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("text/event-stream;charset=UTF-8");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.setHeader("X-Accel-Buffering", "no"); // pas de mise en tampon par un proxy nginx
+
+        // HEAD : en-têtes seulement, le flux n'est pas démarré
+        if ("HEAD".equals(req.getMethod())) {
+            publisher.subscribe(new CancellingSubscriber());
+            return;
+        }
+
+        // En-têtes envoyés tout de suite : le client voit le flux ouvert avant le premier événement
+        resp.flushBuffer();
+
+        if (req.isAsyncSupported()) {
+            AsyncContext async = req.isAsyncStarted() ? req.getAsyncContext() : req.startAsync(req, resp);
+            async.setTimeout(timeoutMillis);
+            ServletOutputStream out = resp.getOutputStream();
+            EventStreamWriter writer = new EventStreamWriter(this, async, out);
+            writer.start(publisher);
+        } else {
+            streamBlocking(resp.getOutputStream(), publisher);
+        }
+    }
+
+    // Repli sans async : écriture bloquante, un élément demandé à la fois
+    private void streamBlocking(ServletOutputStream out, Flow.Publisher<?> publisher) throws IOException {
+        BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        publisher.subscribe(new Flow.Subscriber<Object>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(Object item) { queue.add(item); }
+
+            @Override
+            public void onError(Throwable error) {
+                logError(error);
+                queue.add(END);
+            }
+
+            @Override
+            public void onComplete() { queue.add(END); }
+        });
+
+        long deadline = timeoutMillis > 0 ? System.currentTimeMillis() + timeoutMillis : Long.MAX_VALUE;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                Object item = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (item == END) return;
+                out.write(item == null ? HEARTBEAT : encode(item));
+                out.flush();
+                if (item != null) subscription[0].request(1);
+            }
+            subscription[0].cancel();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            subscription[0].cancel();
+        } catch (IOException e) {
+            // Client déconnecté : le producteur est prévenu par l'annulation
+            subscription[0].cancel();
+        }
+    }
+
+    /**
+     * Encode un élément en trame SSE (une ligne data: par ligne du contenu, quelle que soit sa fin de ligne)
+     */
+    byte[] encode(Object item) throws JsonProcessingException {
+        StringBuilder frame = new StringBuilder(64);
+        Object data = item;
+        if (item instanceof ServerSentEvent event) {
+            if (event.getId() != null) field(frame, "id", event.getId());
+            if (event.getEvent() != null) field(frame, "event", event.getEvent());
+            if (event.getRetry() != null) field(frame, "retry", event.getRetry().toString());
+            data = event.getData();
+        }
+        String text = data == null ? "" : data instanceof CharSequence ? data.toString() : JsonMappers.shared().writeValueAsString(data);
+        // Fins de ligne SSE : "\r\n", "\r" ou "\n" (un "\r" isolé laissé dans data: couperait la trame côté client)
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i == text.length() ? '\n' : text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                frame.append("data: ").append(text, start, i).append('\n');
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') i++;
+                start = i + 1;
+            }
+        }
+        return frame.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Les champs id/event ne peuvent pas contenir de saut de ligne (ils couperaient la trame)
+    private static void field(StringBuilder frame, String name, String value) {
+        frame.append(name).append(": ");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\n' && c != '\r') frame.append(c);
+        }
+        frame.append('\n');
+    }
+
+    static void logError(Throwable error) {
+        System.err.println("Flux SSE interrompu par une erreur du publisher : " + error);
+    }
+
+    ScheduledExecutorService scheduler() { return scheduler; }
+
+    long heartbeatMillis() { return heartbeatMillis; }
+
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    // Abonné d'une requête HEAD : annule immédiatement
+    private static final class CancellingSubscriber implements Flow.Subscriber<Object> {
+        @Override public void onSubscribe(Flow.Subscription s) { s.cancel(); }
+        @Override public void onNext(Object item) {}
+        @Override public void onError(Throwable error) {}
+        @Override public void onComplete() {}
+    }
+}
@@ -0,0 +1,42 @@
+package servlet.util.streaming;
+
+/**
+ * Événement SSE avec ses champs optionnels (id, type, délai de reconnexion).
+ * Un élément qui n'est pas un ServerSentEvent est envoyé comme simple champ data.
+ */
+public final class ServerSentEvent {
+    private final String id;
+    private final String event;
+    private final Object data;
+    private final Long retry;
+
+    private ServerSentEvent(String id, String event, Object data, Long retry) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+        this.retry = retry;
+    }
+
+    public static ServerSentEvent of(Object data) {
+        return new ServerSentEvent(null, null, data, null);
+    }
+
+    public static ServerSentEvent named(String event, Object data) {
+        return new ServerSentEvent(null, event, data, null);
+    }
+
+    // Copie avec l'identifiant renvoyé par le navigateur dans Last-Event-ID à la reconnexion
+    public ServerSentEvent withId(String id) {
+        return new ServerSentEvent(id, event, data, retry);
+    }
+
+    // Copie avec le délai de reconnexion conseillé au navigateur
+    public ServerSentEvent withRetry(long retryMillis) {
+        return new ServerSentEvent(id, event, data, retryMillis);
+    }
+
+    public String getId() { return id; }
+    public String getEvent() { return event; }
+    public Object getData() { return data; }
+    public Long getRetry() { return retry; }
+}
@@ -0,0 +1,102 @@
+package servlet.util.tracing;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Écriture de spans au format OTLP/JSON (ExportTraceServiceRequest), accepté tel quel par un collecteur
+ * OpenTelemetry sur /v1/traces : identifiants en hexadécimal, horodatages en nanosecondes sous forme de
+ * chaînes, attributs typés. Les attributs sans valeur sont omis.
+ */
+public final class OtlpJsonWriter {
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final String SCOPE = "servlet.DispatcherServlet";
+
+    private OtlpJsonWriter() {}
+
+    /**
+     * @param serviceName Le nom du service
+     * @param spans       Les spans à écrire
+     * @param out         Le flux de sortie (laissé ouvert)
+     */
+    public static void write(String serviceName, List<Span> spans, OutputStream out) throws IOException {
+        try (JsonGenerator json = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeArrayFieldStart("resourceSpans");
+            json.writeStartObject();
+
+            json.writeObjectFieldStart("resource");
+            json.writeArrayFieldStart("attributes");
+            writeAttribute(json, "service.name", serviceName);
+            json.writeEndArray();
+            json.writeEndObject();
+
+            json.writeArrayFieldStart("scopeSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("scope");
+            json.writeStringField("name", SCOPE);
+            json.writeEndObject();
+            json.writeArrayFieldStart("spans");
+            for (Span span : spans) {
+                writeSpan(json, span);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeSpan(JsonGenerator json, Span span) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("traceId", span.getTraceId());
+        json.writeStringField("spanId", span.getSpanId());
+        if (span.getParentSpanId() != null) {
+            json.writeStringField("parentSpanId", span.getParentSpanId());
+        }
+        json.writeStringField("name", span.getName());
+        json.writeNumberField("kind", span.getKind());
+        json.writeStringField("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+        json.writeStringField("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+
+        Object[] attributes = span.getAttributes();
+        if (attributes.length > 0) {
+            json.writeArrayFieldStart("attributes");
+            for (int i = 0; i + 1 < attributes.length; i += 2) {
+                writeAttribute(json, (String) attributes[i], attributes[i + 1]);
+            }
+            json.writeEndArray();
+        }
+
+        // STATUS_CODE_ERROR (2) ; le statut par défaut (UNSET) est omis
+        if (span.isError()) {
+            json.writeObjectFieldStart("status");
+            json.writeNumberField("code", 2);
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeAttribute(JsonGenerator json, String key, Object value) throws IOException {
+        if (value == null) return;
+        json.writeStartObject();
+        json.writeStringField("key", key);
+        json.writeObjectFieldStart("value");
+        if (value instanceof Long || value instanceof Integer) {
+            json.writeStringField("intValue", value.toString()); // int64 : chaîne en JSON
+        } else {
+            json.writeStringField("stringValue", value.toString());
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+}
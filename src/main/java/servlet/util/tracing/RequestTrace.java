@@ -0,0 +1,204 @@
+package servlet.util.tracing;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trace d'une requête : identifiants W3C (repris du header traceparent ou générés) et durées des phases
+ * du traitement (ressource statique, routage, arguments, action, rendu). Une action peut la recevoir en
+ * paramètre pour propager le contexte vers ses appels sortants ({@link #traceparent()}) ou mesurer ses
+ * propres étapes ({@link #span(String)}).
+ * Une trace non échantillonnée garde ses identifiants mais n'enregistre rien : ses méthodes ne lisent
+ * même pas l'horloge. Une instance n'est utilisée que par un thread à la fois.
+ */
+public final class RequestTrace {
+    public static final String ATTRIBUTE = "servlet.requestTrace";
+
+    // Traçage désactivé : aucun identifiant, aucun enregistrement
+    public static final RequestTrace NONE = new RequestTrace(null, null, null, null, false);
+
+    private static final Scope NO_SCOPE = () -> {};
+
+    private final Tracer tracer; // null : rien n'est enregistré
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final boolean sampled;
+    private final long startNanos;
+    private final long startEpochNanos;
+    private final List<Span> spans;
+
+    // Durées des phases du framework, pour Server-Timing
+    private String[] timingNames;
+    private long[] timingNanos;
+    private int timingCount;
+
+    private String currentSpanId;
+    private String route;
+    private String action;
+    private Throwable error;
+    private int depth;
+    private long suspendedAt = -1;
+
+    RequestTrace(Tracer tracer, String traceId, String spanId, String parentSpanId, boolean sampled) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.sampled = sampled;
+        this.currentSpanId = spanId;
+        if (tracer != null) {
+            this.startNanos = System.nanoTime();
+            this.startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+            this.spans = new ArrayList<>(8);
+            this.timingNames = new String[6];
+            this.timingNanos = new long[6];
+        } else {
+            this.startNanos = 0;
+            this.startEpochNanos = 0;
+            this.spans = null;
+        }
+    }
+
+    /**
+     * Instant de début d'une phase
+     *
+     * @return System.nanoTime(), ou 0 si la trace n'est pas enregistrée
+     */
+    public long clock() {
+        return tracer != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Enregistre une phase du framework, terminée maintenant
+     *
+     * @param name  Le nom de la phase (aussi utilisé dans Server-Timing)
+     * @param start L'instant retourné par {@link #clock()} au début de la phase
+     */
+    public void phase(String name, long start) {
+        if (tracer == null) return;
+        long end = System.nanoTime();
+        spans.add(newSpan(name, Span.KIND_INTERNAL, TraceParent.newSpanId(), spanId, start, end, null, false));
+        if (timingCount == timingNames.length) {
+            timingNames = Arrays.copyOf(timingNames, 2 * timingCount);
+            timingNanos = Arrays.copyOf(timingNanos, 2 * timingCount);
+        }
+        timingNames[timingCount] = name;
+        timingNanos[timingCount++] = end - start;
+    }
+
+    /**
+     * Ouvre un span enfant du span courant, enregistré à sa fermeture ; les spans ouverts dans le bloc
+     * en deviennent les enfants. À utiliser dans un try-with-resources :
+     * {@code try (RequestTrace.Scope s = trace.span("db.query")) { ... }}
+     *
+     * @param name Le nom du span
+     * @return Le span ouvert (sans effet si la trace n'est pas enregistrée)
+     */
+    public Scope span(String name) {
+        if (tracer == null) return NO_SCOPE;
+        String parent = currentSpanId;
+        String child = TraceParent.newSpanId();
+        long start = System.nanoTime();
+        currentSpanId = child;
+        return () -> {
+            currentSpanId = parent;
+            spans.add(newSpan(name, Span.KIND_INTERNAL, child, parent, start, System.nanoTime(), null, false));
+        };
+    }
+
+    /**
+     * Header à transmettre aux appels sortants : même trace, le span courant comme parent
+     *
+     * @return La valeur du header traceparent, ou null si le traçage est désactivé
+     */
+    public String traceparent() {
+        return traceId != null ? TraceParent.format(traceId, currentSpanId, sampled) : null;
+    }
+
+    /**
+     * Ajoute le header Server-Timing avec les phases déjà terminées (avant l'écriture du corps :
+     * le rendu n'y figure donc pas), si l'option est activée
+     *
+     * @param resp La réponse HTTP
+     */
+    public void writeServerTiming(HttpServletResponse resp) {
+        if (tracer == null || !tracer.isServerTiming() || resp.isCommitted()) return;
+        StringBuilder header = new StringBuilder(24 * (timingCount + 1));
+        for (int i = 0; i < timingCount; i++) {
+            appendTiming(header, timingNames[i], timingNanos[i]);
+        }
+        appendTiming(header, "total", System.nanoTime() - startNanos);
+        resp.addHeader("Server-Timing", header.toString());
+    }
+
+    // Durée en millisecondes avec trois décimales, sans String.format
+    private static void appendTiming(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) header.append(", ");
+        long micros = nanos / 1000;
+        long fraction = micros % 1000;
+        header.append(name).append(";dur=").append(micros / 1000).append('.');
+        if (fraction < 100) header.append('0');
+        if (fraction < 10) header.append('0');
+        header.append(fraction);
+    }
+
+    // Route retenue (motif de chemin) et action qui la traite
+    public void route(String route, String action) {
+        if (tracer == null) return;
+        this.route = route;
+        this.action = action;
+    }
+
+    // Exception levée par l'action, rapportée sur le span serveur
+    public void error(Throwable error) {
+        if (tracer != null) this.error = error;
+    }
+
+    Span newSpan(String name, int kind, String id, String parent, long start, long end, Object[] attributes,
+            boolean failed) {
+        return new Span(traceId, id, parent, name, kind, toEpoch(start), toEpoch(end), attributes, failed);
+    }
+
+    private long toEpoch(long nanos) {
+        return startEpochNanos + (nanos - startNanos);
+    }
+
+    // Imbrication des dispatchs (forward, erreur, reprise asynchrone) : seul le plus externe termine la trace
+    int enter() { return ++depth; }
+    int exit() { return --depth; }
+
+    // Traitement suspendu en attendant le corps de la requête, repris au redispatch ASYNC
+    void suspend() { suspendedAt = clock(); }
+    boolean isSuspended() { return suspendedAt >= 0; }
+
+    void resume() {
+        long since = suspendedAt;
+        suspendedAt = -1;
+        phase("body", since);
+    }
+
+    boolean isRecording() { return tracer != null; }
+    List<Span> getSpans() { return spans; }
+    long getStartNanos() { return startNanos; }
+    String getRoute() { return route; }
+    String getAction() { return action; }
+    Throwable getError() { return error; }
+
+    public String getTraceId() { return traceId; }
+    public String getSpanId() { return spanId; }
+    public String getParentSpanId() { return parentSpanId; }
+    public boolean isSampled() { return sampled; }
+
+    /**
+     * Span ouvert par {@link #span(String)}
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,50 @@
+package servlet.util.tracing;
+
+/**
+ * Span terminé : une phase du traitement d'une requête, la requête elle-même (span serveur racine),
+ * ou un span ouvert par un controller. Les horodatages sont en nanosecondes depuis l'epoch Unix, comme
+ * dans OTLP ; les attributs sont des paires clé / valeur (String ou Long).
+ */
+public final class Span {
+    public static final int KIND_INTERNAL = 1;
+    public static final int KIND_SERVER = 2;
+
+    private static final Object[] NO_ATTRIBUTES = new Object[0];
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final int kind;
+    private final long startEpochNanos;
+    private final long endEpochNanos;
+    private final Object[] attributes;
+    private final boolean error;
+
+    // Position dans l'anneau, fixée à la publication (voir SpanRing)
+    long sequence = -1;
+
+    public Span(String traceId, String spanId, String parentSpanId, String name, int kind,
+            long startEpochNanos, long endEpochNanos, Object[] attributes, boolean error) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = startEpochNanos;
+        this.endEpochNanos = endEpochNanos;
+        this.attributes = attributes != null ? attributes : NO_ATTRIBUTES;
+        this.error = error;
+    }
+
+    public String getTraceId() { return traceId; }
+    public String getSpanId() { return spanId; }
+    public String getParentSpanId() { return parentSpanId; }
+    public String getName() { return name; }
+    public int getKind() { return kind; }
+    public long getStartEpochNanos() { return startEpochNanos; }
+    public long getEndEpochNanos() { return endEpochNanos; }
+    public long getDurationNanos() { return endEpochNanos - startEpochNanos; }
+    public Object[] getAttributes() { return attributes; }
+    public boolean isError() { return error; }
+}
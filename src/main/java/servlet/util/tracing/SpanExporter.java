@@ -0,0 +1,112 @@
+package servlet.util.tracing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export périodique des spans de l'anneau, hors des threads de requête : chaque lot est un document
+ * OTLP/JSON, ajouté comme une ligne à un fichier (format du file exporter du collecteur OpenTelemetry)
+ * ou envoyé en POST à un collecteur (cible commençant par http:// ou https://, par exemple
+ * http://localhost:4318/v1/traces). Les spans écrasés avant l'export sont comptés et signalés.
+ */
+public class SpanExporter implements Closeable {
+    private static final int MAX_BATCH = 512;
+
+    private final Tracer tracer;
+    private final String target;
+    private final ScheduledExecutorService scheduler;
+    private final HttpClient client;
+    private final List<Span> batch = new ArrayList<>();
+    private long cursor;
+
+    /**
+     * @param tracer         Le traceur dont l'anneau est exporté
+     * @param target         Un chemin de fichier ou l'URL d'un collecteur OTLP/HTTP
+     * @param intervalMillis L'intervalle entre deux exports
+     */
+    public SpanExporter(Tracer tracer, String target, long intervalMillis) {
+        this.tracer = tracer;
+        this.target = target;
+        this.cursor = tracer.getRing().getHead();
+        this.client = target.startsWith("http://") || target.startsWith("https://")
+                ? HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build()
+                : null;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "trace-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::export, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        this.scheduler = executor;
+    }
+
+    // Exporte les spans publiés depuis le dernier passage (appelé par le thread d'export uniquement)
+    private synchronized void export() {
+        SpanRing ring = tracer.getRing();
+        long lost = Math.max(0, ring.getHead() - ring.getCapacity() - cursor);
+        if (lost > 0) {
+            System.err.println("Traces : " + lost + " span(s) écrasé(s) avant l'export (traceBufferSize trop petit)");
+        }
+        cursor = ring.read(cursor, batch);
+        try {
+            for (int from = 0; from < batch.size(); from += MAX_BATCH) {
+                send(batch.subList(from, Math.min(batch.size(), from + MAX_BATCH)));
+            }
+        } catch (IOException e) {
+            System.err.println("Traces : export vers " + target + " impossible : " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void send(List<Span> spans) throws IOException, InterruptedException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 * spans.size());
+        OtlpJsonWriter.write(tracer.getServiceName(), spans, buffer);
+
+        if (client == null) {
+            buffer.write('\n');
+            Path file = Paths.get(target);
+            Files.write(file, buffer.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(buffer.toByteArray()))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("statut " + response.statusCode());
+        }
+    }
+
+    // Arrêt du thread d'export, après un dernier passage
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        export();
+    }
+}
@@ -0,0 +1,64 @@
+package servlet.util.tracing;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Anneau sans verrou des derniers spans terminés : un thread de requête réserve une position par un
+ * incrément atomique puis y publie son span, en écrasant le plus ancien quand l'anneau est plein.
+ * Les lecteurs (export, rapport) parcourent les positions à partir de leur propre curseur, sans bloquer
+ * les écrivains ; un span écrasé avant d'être lu est perdu pour ce lecteur.
+ */
+public class SpanRing {
+    private final AtomicReferenceArray<Span> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity Le nombre de spans conservés (arrondi à la puissance de 2 supérieure)
+     */
+    public SpanRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void add(Span span) {
+        long sequence = head.getAndIncrement();
+        span.sequence = sequence;
+        slots.set((int) (sequence & mask), span); // écriture volatile : publie aussi la séquence
+    }
+
+    /**
+     * Lit les spans publiés depuis une position
+     *
+     * @param from La position du premier span à lire (curseur du lecteur)
+     * @param into La liste qui reçoit les spans, du plus ancien au plus récent
+     * @return La position à partir de laquelle reprendre la lecture suivante
+     */
+    public long read(long from, List<Span> into) {
+        long end = head.get();
+        for (long i = Math.max(Math.max(from, 0), end - slots.length()); i < end; i++) {
+            Span span = slots.get((int) (i & mask));
+            if (span == null || span.sequence < i) {
+                // Position réservée mais pas encore publiée : reprise au prochain passage
+                return i;
+            }
+            if (span.sequence == i) {
+                into.add(span);
+            }
+        }
+        return end;
+    }
+
+    // Les spans encore présents dans l'anneau
+    public void snapshot(List<Span> into) {
+        read(head.get() - slots.length(), into);
+    }
+
+    // Position du prochain span publié (nombre total de spans reçus)
+    public long getHead() { return head.get(); }
+
+    public int getCapacity() { return slots.length(); }
+}
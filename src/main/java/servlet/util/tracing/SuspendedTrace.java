@@ -0,0 +1,39 @@
+package servlet.util.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Termine la trace d'une requête suspendue pendant la lecture de son corps quand l'async s'achève sans
+ * redispatch (corps trop gros, client trop lent, lecture interrompue) ; après un redispatch, la trace est
+ * déjà terminée et rien n'est fait.
+ */
+public final class SuspendedTrace implements AsyncListener {
+    private final Tracer tracer;
+    private final RequestTrace trace;
+    private final HttpServletRequest req;
+    private final HttpServletResponse resp;
+
+    public SuspendedTrace(Tracer tracer, RequestTrace trace, HttpServletRequest req, HttpServletResponse resp) {
+        this.tracer = tracer;
+        this.trace = trace;
+        this.req = req;
+        this.resp = resp;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        tracer.finishSuspended(trace, req, resp);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {}
+
+    @Override
+    public void onTimeout(AsyncEvent event) {}
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {}
+}
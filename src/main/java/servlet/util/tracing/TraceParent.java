@@ -0,0 +1,103 @@
+package servlet.util.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contexte de trace W3C reçu dans le header {@code traceparent}
+ * ({@code 00-<trace-id 32 hex>-<parent-id 16 hex>-<flags 2 hex>}), et génération des identifiants
+ * des nouvelles traces et des spans.
+ */
+public final class TraceParent {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String traceId;
+    private final String parentId;
+    private final boolean sampled;
+
+    private TraceParent(String traceId, String parentId, boolean sampled) {
+        this.traceId = traceId;
+        this.parentId = parentId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Analyse un header traceparent
+     *
+     * @param header La valeur du header (peut être null)
+     * @return Le contexte de l'appelant, ou null si le header est absent ou invalide (une nouvelle trace
+     *         est alors démarrée, comme le prévoit la recommandation)
+     */
+    public static TraceParent parse(String header) {
+        if (header == null) return null;
+        header = header.trim();
+        // Une version future peut ajouter des champs après les quatre premiers
+        if (header.length() < 55 || (header.length() > 55 && header.charAt(55) != '-')) return null;
+        if (header.charAt(2) != '-' || header.charAt(35) != '-' || header.charAt(52) != '-') return null;
+        if (!isHex(header, 0, 2) || header.startsWith("ff")) return null;
+        if (header.startsWith("00") && header.length() != 55) return null;
+        if (!isHex(header, 3, 35) || isZero(header, 3, 35)) return null;
+        if (!isHex(header, 36, 52) || isZero(header, 36, 52)) return null;
+        if (!isHex(header, 53, 55)) return null;
+
+        int flags = Character.digit(header.charAt(54), 16);
+        return new TraceParent(header.substring(3, 35), header.substring(36, 52), (flags & 1) != 0);
+    }
+
+    // Identifiant de trace aléatoire (16 octets, jamais nul)
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = random.nextLong();
+        if (high == 0 && low == 0) low = 1;
+        char[] id = new char[32];
+        hex(high, id, 0);
+        hex(low, id, 16);
+        return new String(id);
+    }
+
+    // Identifiant de span aléatoire (8 octets, jamais nul)
+    public static String newSpanId() {
+        long value = ThreadLocalRandom.current().nextLong();
+        char[] id = new char[16];
+        hex(value == 0 ? 1 : value, id, 0);
+        return new String(id);
+    }
+
+    /**
+     * Formate un header traceparent (version 00)
+     *
+     * @param traceId L'identifiant de la trace
+     * @param spanId  Le span qui devient le parent de l'appel sortant
+     * @param sampled true si la trace est enregistrée
+     */
+    public static String format(String traceId, String spanId, boolean sampled) {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    private static void hex(long value, char[] into, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            into[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    // Chiffres hexadécimaux en minuscules uniquement
+    private static boolean isHex(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) return false;
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) != '0') return false;
+        }
+        return true;
+    }
+
+    public String getTraceId() { return traceId; }
+    public String getParentId() { return parentId; }
+    public boolean isSampled() { return sampled; }
+}
@@ -0,0 +1,126 @@
+package servlet.util.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traçage des requêtes du DispatcherServlet : reprend le contexte W3C du header traceparent (ou démarre
+ * une trace), décide de l'échantillonnage (la décision de l'appelant est suivie, sinon un ratio), puis publie
+ * dans l'anneau le span serveur de la requête et ceux de ses phases quand le dispatch se termine.
+ */
+public class Tracer {
+    private final String serviceName;
+    private final double sampleRatio;
+    private final boolean serverTiming;
+    private final SpanRing ring;
+
+    /**
+     * @param serviceName  Le nom du service (attribut de ressource service.name)
+     * @param sampleRatio  La part des nouvelles traces enregistrées (0 à 1)
+     * @param serverTiming true pour ajouter le header Server-Timing aux réponses
+     * @param ring         L'anneau qui reçoit les spans terminés
+     */
+    public Tracer(String serviceName, double sampleRatio, boolean serverTiming, SpanRing ring) {
+        this.serviceName = serviceName;
+        this.sampleRatio = sampleRatio;
+        this.serverTiming = serverTiming;
+        this.ring = ring;
+    }
+
+    /**
+     * Démarre la trace de la requête, ou reprend celle d'un dispatch englobant (forward, redispatch
+     * asynchrone après lecture du corps)
+     *
+     * @param req La requête HTTP
+     * @return La trace, à terminer par {@link #finish} ou {@link #suspend}
+     */
+    public RequestTrace start(HttpServletRequest req) {
+        Object existing = req.getAttribute(RequestTrace.ATTRIBUTE);
+        if (existing instanceof RequestTrace) {
+            RequestTrace trace = (RequestTrace) existing;
+            if (trace.isSuspended()) {
+                trace.resume();
+            }
+            trace.enter();
+            return trace;
+        }
+
+        TraceParent parent = TraceParent.parse(req.getHeader("traceparent"));
+        boolean sampled = parent != null ? parent.isSampled()
+                : sampleRatio >= 1 || (sampleRatio > 0 && ThreadLocalRandom.current().nextDouble() < sampleRatio);
+        RequestTrace trace = new RequestTrace(sampled ? this : null,
+                parent != null ? parent.getTraceId() : TraceParent.newTraceId(),
+                TraceParent.newSpanId(),
+                parent != null ? parent.getParentId() : null,
+                sampled);
+        trace.enter();
+        req.setAttribute(RequestTrace.ATTRIBUTE, trace);
+        return trace;
+    }
+
+    /**
+     * Le dispatch rend la main avant la fin du traitement (corps lu en asynchrone) : la trace reste ouverte
+     * et l'attente est mesurée jusqu'à la reprise
+     */
+    public void suspend(RequestTrace trace) {
+        trace.suspend();
+        trace.exit();
+    }
+
+    /**
+     * Fin de l'async d'une requête : si la trace est restée suspendue (lecture du corps en échec, sans
+     * redispatch), l'attente est mesurée puis la trace publiée ; sinon le redispatch l'a déjà terminée
+     *
+     * @param trace La trace suspendue par {@link #suspend}
+     * @param req   La requête HTTP
+     * @param resp  La réponse HTTP (statut de l'erreur)
+     */
+    public void finishSuspended(RequestTrace trace, HttpServletRequest req, HttpServletResponse resp) {
+        if (!trace.isSuspended()) {
+            return;
+        }
+        trace.resume();
+        trace.enter();
+        finish(trace, req, resp);
+    }
+
+    /**
+     * Termine un dispatch ; le plus externe publie le span serveur et ceux des phases
+     *
+     * @param trace La trace retournée par {@link #start}
+     * @param req   La requête HTTP
+     * @param resp  La réponse HTTP (statut final)
+     */
+    public void finish(RequestTrace trace, HttpServletRequest req, HttpServletResponse resp) {
+        if (trace.exit() > 0 || trace.isSuspended() || !trace.isRecording()) {
+            return;
+        }
+
+        int status = resp.getStatus();
+        Throwable error = trace.getError();
+        String route = trace.getRoute();
+        Object[] attributes = {
+                "http.request.method", req.getMethod(),
+                "url.path", req.getRequestURI(),
+                "http.route", route,
+                "code.function", trace.getAction(),
+                "http.response.status_code", (long) status,
+                "exception.type", error != null ? error.getClass().getName() : null
+        };
+        String name = route != null ? req.getMethod() + " " + route : req.getMethod();
+
+        List<Span> spans = trace.getSpans();
+        for (int i = 0; i < spans.size(); i++) {
+            ring.add(spans.get(i));
+        }
+        ring.add(trace.newSpan(name, Span.KIND_SERVER, trace.getSpanId(), trace.getParentSpanId(),
+                trace.getStartNanos(), System.nanoTime(), attributes, status >= 500 || error != null));
+    }
+
+    public String getServiceName() { return serviceName; }
+    public boolean isServerTiming() { return serverTiming; }
+    public SpanRing getRing() { return ring; }
+}
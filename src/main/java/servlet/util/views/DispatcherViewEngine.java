@@ -0,0 +1,22 @@
+package servlet.util.views;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletContext;
+
+// Moteur par défaut : forward vers la ressource (JSP, HTML...) via un RequestDispatcher mis en cache
+public class DispatcherViewEngine implements ViewEngine {
+
+    @Override
+    public boolean supports(String path) {
+        return true;
+    }
+
+    @Override
+    public View resolve(String path, ServletContext context) {
+        RequestDispatcher dispatcher = context.getRequestDispatcher(path);
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Aucun RequestDispatcher pour la vue : " + path);
+        }
+        return (model, req, resp) -> dispatcher.forward(req, resp);
+    }
+}
@@ -0,0 +1,22 @@
+package servlet.util.views;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Vue résolue et mise en cache par le ViewResolver, réutilisable entre requêtes (doit être thread-safe)
+public interface View {
+
+    /**
+     * Produit la réponse pour cette vue
+     * 
+     * @param model Les données du ModelView (déjà copiées en attributs de requête)
+     * @param req   La requête HTTP
+     * @param resp  La réponse HTTP
+     */
+    void render(Map<String, Object> model, HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException;
+}
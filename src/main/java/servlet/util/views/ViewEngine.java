@@ -0,0 +1,28 @@
+package servlet.util.views;
+
+import jakarta.servlet.ServletContext;
+
+/**
+ * SPI des moteurs de vue. Les moteurs sont déclarés par le paramètre d'init "viewEngines"
+ * (noms de classes séparés par des virgules, constructeur sans argument) et consultés dans l'ordre ;
+ * le forward via RequestDispatcher sert de moteur par défaut.
+ */
+public interface ViewEngine {
+
+    /**
+     * Indique si ce moteur sait produire la vue du chemin donné
+     * 
+     * @param path Le chemin complet de la vue (préfixe et suffixe appliqués)
+     * @return true si le moteur prend en charge ce chemin
+     */
+    boolean supports(String path);
+
+    /**
+     * Prépare la vue ; appelé une seule fois par nom de vue
+     * 
+     * @param path    Le chemin complet de la vue
+     * @param context Le contexte de la webapp
+     * @return La vue prête à être rendue
+     */
+    View resolve(String path, ServletContext context);
+}
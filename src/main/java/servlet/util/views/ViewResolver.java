@@ -0,0 +1,105 @@
+package servlet.util.views;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.util.cache.LruCache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résolution des noms de vue des ModelView, calculée une fois par nom puis mise en cache (cache borné : un nom
+ * construit à partir de données de la requête ne fait pas grossir la mémoire) :
+ * - "redirect:/chemin" : redirection relative au contexte
+ * - "forward:/chemin"  : forward vers le chemin exact, sans préfixe ni suffixe
+ * - "nom"              : préfixe + nom + suffixe, rendu par le premier ViewEngine compatible
+ * Un nom commençant par "/" reste traité comme une redirection (ancienne convention).
+ */
+public class ViewResolver {
+
+    public static final String REDIRECT_PREFIX = "redirect:";
+    public static final String FORWARD_PREFIX = "forward:";
+
+    private final ServletContext context;
+    private final String prefix;
+    private final String suffix;
+    private final List<ViewEngine> engines;
+    private final ViewEngine defaultEngine = new DispatcherViewEngine();
+    private final LruCache<String, View> cache = new LruCache<>(256);
+
+    public ViewResolver(ServletContext context, String prefix, String suffix, List<ViewEngine> engines) {
+        this.context = context;
+        this.prefix = normalizePrefix(prefix);
+        this.suffix = suffix == null ? "" : suffix;
+        this.engines = new ArrayList<>(engines);
+    }
+
+    // Vrai si le nom de vue désigne une redirection (aucun corps de réponse)
+    public static boolean isRedirect(String viewName) {
+        return viewName != null && (viewName.startsWith(REDIRECT_PREFIX) || viewName.startsWith("/"));
+    }
+
+    /**
+     * Rend la vue demandée par le ModelView
+     * 
+     * @param viewName Le nom de vue du ModelView
+     * @param model    Les données du ModelView
+     * @param req      La requête HTTP
+     * @param resp     La réponse HTTP
+     */
+    public void render(String viewName, Map<String, Object> model, HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        if (viewName == null || viewName.isEmpty()) {
+            throw new ServletException("Le ModelView ne désigne aucune vue");
+        }
+
+        // Les cibles de redirection contiennent souvent des identifiants : pas de mise en cache
+        if (viewName.startsWith(REDIRECT_PREFIX)) {
+            resp.sendRedirect(redirectLocation(viewName.substring(REDIRECT_PREFIX.length())));
+            return;
+        }
+        if (viewName.startsWith("/")) {
+            resp.sendRedirect(redirectLocation(viewName));
+            return;
+        }
+
+        View view = cache.get(viewName);
+        if (view == null) {
+            view = resolve(viewName);
+            cache.put(viewName, view);
+        }
+        view.render(model, req, resp);
+    }
+
+    private View resolve(String viewName) {
+        if (viewName.startsWith(FORWARD_PREFIX)) {
+            String path = viewName.substring(FORWARD_PREFIX.length());
+            return engineFor(path).resolve(path.startsWith("/") ? path : "/" + path, context);
+        }
+
+        String path = prefix + viewName + suffix;
+        return engineFor(path).resolve(path, context);
+    }
+
+    private ViewEngine engineFor(String path) {
+        for (ViewEngine engine : engines) {
+            if (engine.supports(path)) return engine;
+        }
+        return defaultEngine;
+    }
+
+    private String redirectLocation(String target) {
+        // URL absolue : redirection telle quelle ; sinon relative au contexte de la webapp
+        if (target.startsWith("http://") || target.startsWith("https://")) return target;
+        return context.getContextPath() + (target.startsWith("/") ? target : "/" + target);
+    }
+
+    private static String normalizePrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) return "/";
+        return prefix.startsWith("/") ? prefix : "/" + prefix;
+    }
+}
@@ -0,0 +1,148 @@
+package servlet.util.views.template;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Expression de template compilée : chemin pointé (ex: "user.address.city"),
+ * éventuellement précédé de "!" pour la négation. Chaque segment est lu, dans l'ordre,
+ * comme clé de Map, getter (getX / isX / x()) ou champ public.
+ */
+final class Expression {
+
+    // Accesseur résolu par (classe, propriété), partagé par tous les templates ; attaché à la classe elle-même
+    // (ClassValue) : les classes d'un ReloadingClassLoader remplacé au rechargement restent libérables
+    private static final ClassValue<ConcurrentHashMap<String, Object>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected ConcurrentHashMap<String, Object> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final Object MISSING = new Object();
+
+    private final String source;
+    private final String[] segments;
+    private final boolean negated;
+
+    Expression(String source) {
+        String trimmed = source.trim();
+        this.negated = trimmed.startsWith("!");
+        if (negated) trimmed = trimmed.substring(1).trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Expression vide dans le template");
+        }
+        this.source = source.trim();
+        this.segments = trimmed.split("\\.");
+    }
+
+    Object evaluate(Scope scope) {
+        Object value = scope.lookup(segments[0]);
+        for (int i = 1; i < segments.length && value != null; i++) {
+            value = property(value, segments[i]);
+        }
+        return negated ? !isTruthy(value) : value;
+    }
+
+    boolean test(Scope scope) {
+        return isTruthy(evaluate(scope));
+    }
+
+    static boolean isTruthy(Object value) {
+        if (value == null) return false;
+        if (value instanceof Boolean) return (Boolean) value;
+        if (value instanceof CharSequence) return ((CharSequence) value).length() > 0;
+        if (value instanceof Number) return ((Number) value).doubleValue() != 0;
+        if (value instanceof java.util.Collection) return !((java.util.Collection<?>) value).isEmpty();
+        if (value instanceof Map) return !((Map<?, ?>) value).isEmpty();
+        if (value.getClass().isArray()) return java.lang.reflect.Array.getLength(value) > 0;
+        return true;
+    }
+
+    private static Object property(Object target, String name) {
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(name);
+        }
+
+        Object accessor = ACCESSORS.get(target.getClass())
+                .computeIfAbsent(name, n -> findAccessor(target.getClass(), n));
+        try {
+            if (accessor instanceof Method) return ((Method) accessor).invoke(target);
+            if (accessor instanceof Field) return ((Field) accessor).get(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Lecture impossible de la propriété " + name + " sur "
+                    + target.getClass().getName(), e);
+        }
+        return null;
+    }
+
+    private static Object findAccessor(Class<?> type, String name) {
+        String capped = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String candidate : new String[] { "get" + capped, "is" + capped, name }) {
+            Method method;
+            try {
+                method = type.getMethod(candidate);
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+            if (method.getReturnType() == void.class) continue;
+
+            Method accessible = accessibleMethod(type, method);
+            if (accessible == null) {
+                throw new IllegalStateException("Propriété " + name + " inaccessible sur " + type.getName()
+                        + " : " + method + " n'est déclarée par aucun type public exporté");
+            }
+            return accessible;
+        }
+        try {
+            Field field = type.getField(name);
+            if (!Modifier.isStatic(field.getModifiers())) return field;
+        } catch (NoSuchFieldException e) {
+            // Propriété absente
+        }
+        return MISSING;
+    }
+
+    // Version invocable de la méthode : celle trouvée si son type déclarant est accessible (classes de
+    // l'application), sinon la même méthode déclarée par une superclasse ou une interface publique et
+    // exportée (ex: HashMap$Node.getKey -> Map.Entry.getKey, ImmutableCollections$ListN.size -> List.size)
+    private static Method accessibleMethod(Class<?> type, Method method) {
+        if (isExported(method.getDeclaringClass()) || method.trySetAccessible()) {
+            return method;
+        }
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            Method found = publicMethod(current, method);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    private static Method publicMethod(Class<?> type, Method method) {
+        if (isExported(type)) {
+            try {
+                Method found = type.getMethod(method.getName(), method.getParameterTypes());
+                if (isExported(found.getDeclaringClass())) return found;
+            } catch (NoSuchMethodException e) {
+                // Déclarée plus bas dans la hiérarchie
+            }
+        }
+        for (Class<?> contract : type.getInterfaces()) {
+            Method found = publicMethod(contract, method);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    private static boolean isExported(Class<?> type) {
+        return Modifier.isPublic(type.getModifiers())
+                && (type.getEnclosingClass() == null || isExported(type.getEnclosingClass()))
+                && type.getModule().isExported(type.getPackageName());
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,30 @@
+package servlet.util.views.template;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Échappement HTML écrit directement dans le Writer, sans chaîne intermédiaire
+final class HtmlEscaper {
+
+    private HtmlEscaper() {}
+
+    static void write(String value, Writer out) throws IOException {
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            String replacement;
+            switch (value.charAt(i)) {
+                case '&': replacement = "&amp;"; break;
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '"': replacement = "&quot;"; break;
+                case '\'': replacement = "&#39;"; break;
+                default: continue;
+            }
+            if (i > start) out.write(value, start, i - start);
+            out.write(replacement);
+            start = i + 1;
+        }
+        if (start < length) out.write(value, start, length - start);
+    }
+}
@@ -0,0 +1,42 @@
+package servlet.util.views.template;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Map;
+
+// Portée de résolution des noms : variables de boucle, puis données du ModelView, puis attributs de requête
+final class Scope {
+    private final Scope parent;
+    private final Map<String, Object> model;
+    private final HttpServletRequest request;
+    private final String name;
+    private Object value;
+
+    Scope(Map<String, Object> model, HttpServletRequest request) {
+        this(null, model, request, null);
+    }
+
+    private Scope(Scope parent, Map<String, Object> model, HttpServletRequest request, String name) {
+        this.parent = parent;
+        this.model = model;
+        this.request = request;
+        this.name = name;
+    }
+
+    // Portée enfant réutilisée à chaque itération d'une boucle
+    Scope child(String name) {
+        return new Scope(this, model, request, name);
+    }
+
+    void set(Object value) {
+        this.value = value;
+    }
+
+    Object lookup(String key) {
+        for (Scope scope = this; scope != null; scope = scope.parent) {
+            if (scope.name != null && scope.name.equals(key)) return scope.value;
+        }
+        if (model != null && model.containsKey(key)) return model.get(key);
+        return request != null ? request.getAttribute(key) : null;
+    }
+}
@@ -0,0 +1,134 @@
+package servlet.util.views.template;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template compilé : arbre d'instructions immuable, partagé entre les requêtes.
+ */
+final class Template {
+
+    interface Node {
+        void render(Scope scope, Writer out) throws IOException;
+    }
+
+    private final Node[] nodes;
+
+    Template(List<Node> nodes) {
+        this.nodes = nodes.toArray(new Node[0]);
+    }
+
+    void render(Scope scope, Writer out) throws IOException {
+        renderAll(nodes, scope, out);
+    }
+
+    static void renderAll(Node[] nodes, Scope scope, Writer out) throws IOException {
+        for (Node node : nodes) {
+            node.render(scope, out);
+        }
+    }
+
+    // Texte littéral
+    static final class Text implements Node {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(Scope scope, Writer out) throws IOException {
+            out.write(text);
+        }
+    }
+
+    // {{ expr }} (échappé) ou {{& expr }} (brut)
+    static final class Output implements Node {
+        private final Expression expression;
+        private final boolean escape;
+
+        Output(Expression expression, boolean escape) {
+            this.expression = expression;
+            this.escape = escape;
+        }
+
+        @Override
+        public void render(Scope scope, Writer out) throws IOException {
+            Object value = expression.evaluate(scope);
+            if (value == null) return;
+            if (escape) {
+                HtmlEscaper.write(value.toString(), out);
+            } else {
+                out.write(value.toString());
+            }
+        }
+    }
+
+    // {% if expr %} ... {% else %} ... {% endif %}
+    static final class If implements Node {
+        private final Expression condition;
+        private final Node[] then;
+        private final Node[] otherwise;
+
+        If(Expression condition, List<Node> then, List<Node> otherwise) {
+            this.condition = condition;
+            this.then = then.toArray(new Node[0]);
+            this.otherwise = otherwise.toArray(new Node[0]);
+        }
+
+        @Override
+        public void render(Scope scope, Writer out) throws IOException {
+            renderAll(condition.test(scope) ? then : otherwise, scope, out);
+        }
+    }
+
+    // {% for item in items %} ... {% else %} (si vide) ... {% endfor %}
+    static final class For implements Node {
+        private final String variable;
+        private final Expression iterable;
+        private final Node[] body;
+        private final Node[] empty;
+
+        For(String variable, Expression iterable, List<Node> body, List<Node> empty) {
+            this.variable = variable;
+            this.iterable = iterable;
+            this.body = body.toArray(new Node[0]);
+            this.empty = empty.toArray(new Node[0]);
+        }
+
+        @Override
+        public void render(Scope scope, Writer out) throws IOException {
+            Object source = iterable.evaluate(scope);
+            Scope loop = scope.child(variable);
+            int count = 0;
+
+            if (source instanceof Iterable) {
+                for (Object item : (Iterable<?>) source) {
+                    loop.set(item);
+                    renderAll(body, loop, out);
+                    count++;
+                }
+            } else if (source instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) source).entrySet()) {
+                    loop.set(entry);
+                    renderAll(body, loop, out);
+                    count++;
+                }
+            } else if (source != null && source.getClass().isArray()) {
+                int length = Array.getLength(source);
+                for (int i = 0; i < length; i++) {
+                    loop.set(Array.get(source, i));
+                    renderAll(body, loop, out);
+                }
+                count = length;
+            }
+
+            if (count == 0) {
+                renderAll(empty, scope, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package servlet.util.views.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compile le texte d'un template en arbre d'instructions.
+ * Syntaxe :
+ * - {{ expr }} : valeur échappée pour le HTML ; {{& expr }} : valeur brute
+ * - {% if expr %} ... {% else %} ... {% endif %}
+ * - {% for item in expr %} ... {% else %} ... {% endfor %} (le bloc else est rendu si la collection est vide)
+ * - {# commentaire #}
+ */
+final class TemplateCompiler {
+
+    private final String name;
+    private final String source;
+    private int position;
+
+    private TemplateCompiler(String name, String source) {
+        this.name = name;
+        this.source = source;
+    }
+
+    static Template compile(String name, String source) {
+        TemplateCompiler compiler = new TemplateCompiler(name, source);
+        List<Template.Node> nodes = new ArrayList<>();
+        String end = compiler.parseBlock(nodes);
+        if (end != null) {
+            throw compiler.error("balise {% " + end + " %} sans ouverture");
+        }
+        return new Template(nodes);
+    }
+
+    /**
+     * Lit des noeuds jusqu'à une balise de fin de bloc (else, endif, endfor) ou la fin du texte
+     * 
+     * @param nodes La liste à remplir
+     * @return Le mot-clé de la balise qui a arrêté la lecture, ou null en fin de texte
+     */
+    private String parseBlock(List<Template.Node> nodes) {
+        while (position < source.length()) {
+            int next = nextTag(position);
+            if (next < 0) {
+                nodes.add(new Template.Text(source.substring(position)));
+                position = source.length();
+                break;
+            }
+            if (next > position) {
+                nodes.add(new Template.Text(source.substring(position, next)));
+            }
+            position = next;
+
+            String opener = source.substring(position, position + 2);
+            if ("{{".equals(opener)) {
+                String content = readTag("}}");
+                boolean raw = content.startsWith("&");
+                nodes.add(new Template.Output(new Expression(raw ? content.substring(1) : content), !raw));
+            } else if ("{#".equals(opener)) {
+                readTag("#}");
+            } else {
+                String statement = readTag("%}");
+                String keyword = statement.split("\\s+", 2)[0];
+                switch (keyword) {
+                    case "if":
+                        nodes.add(parseIf(statement.substring(2)));
+                        break;
+                    case "for":
+                        nodes.add(parseFor(statement.substring(3)));
+                        break;
+                    case "else":
+                    case "endif":
+                    case "endfor":
+                        return keyword;
+                    default:
+                        throw error("instruction inconnue : " + keyword);
+                }
+            }
+        }
+        return null;
+    }
+
+    private Template.Node parseIf(String condition) {
+        List<Template.Node> then = new ArrayList<>();
+        List<Template.Node> otherwise = new ArrayList<>();
+        String end = parseBlock(then);
+        if ("else".equals(end)) {
+            end = parseBlock(otherwise);
+        }
+        if (!"endif".equals(end)) {
+            throw error("{% if " + condition.trim() + " %} non fermé");
+        }
+        return new Template.If(new Expression(condition), then, otherwise);
+    }
+
+    private Template.Node parseFor(String header) {
+        String[] parts = header.trim().split("\\s+");
+        if (parts.length != 3 || !"in".equals(parts[1])) {
+            throw error("syntaxe attendue : {% for item in expr %}");
+        }
+        List<Template.Node> body = new ArrayList<>();
+        List<Template.Node> empty = new ArrayList<>();
+        String end = parseBlock(body);
+        if ("else".equals(end)) {
+            end = parseBlock(empty);
+        }
+        if (!"endfor".equals(end)) {
+            throw error("{% for " + header.trim() + " %} non fermé");
+        }
+        return new Template.For(parts[0], new Expression(parts[2]), body, empty);
+    }
+
+    private int nextTag(int from) {
+        int index = source.indexOf('{', from);
+        while (index >= 0 && index + 1 < source.length()) {
+            char c = source.charAt(index + 1);
+            if (c == '{' || c == '%' || c == '#') return index;
+            index = source.indexOf('{', index + 1);
+        }
+        return -1;
+    }
+
+    private String readTag(String closer) {
+        int end = source.indexOf(closer, position + 2);
+        if (end < 0) {
+            throw error("balise non fermée, '" + closer + "' attendu");
+        }
+        String content = source.substring(position + 2, end).trim();
+        position = end + closer.length();
+        return content;
+    }
+
+    private IllegalArgumentException error(String message) {
+        int line = 1;
+        for (int i = 0; i < position && i < source.length(); i++) {
+            if (source.charAt(i) == '\n') line++;
+        }
+        return new IllegalArgumentException("Template " + name + " ligne " + line + " : " + message);
+    }
+}
@@ -0,0 +1,91 @@
+package servlet.util.views.template;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.util.views.View;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+// Vue d'un template compilé, recompilé uniquement quand la date de modification du fichier change
+final class TemplateView implements View {
+
+    private final String path;
+    private final ServletContext context;
+    private final long checkInterval;
+    private final Path file;
+
+    private volatile Compiled compiled;
+
+    TemplateView(String path, ServletContext context, long checkInterval) {
+        this.path = path;
+        this.context = context;
+        this.checkInterval = checkInterval;
+        String realPath = context.getRealPath(path);
+        this.file = realPath != null ? Paths.get(realPath) : null;
+        this.compiled = load();
+    }
+
+    @Override
+    public void render(Map<String, Object> model, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        PrintWriter out = resp.getWriter();
+        current().template.render(new Scope(model, req), out);
+        out.flush();
+    }
+
+    private Compiled current() throws IOException {
+        Compiled snapshot = compiled;
+        if (file == null || checkInterval < 0) return snapshot;
+
+        long now = System.currentTimeMillis();
+        if (now - snapshot.checkedAt < checkInterval) return snapshot;
+
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        if (modified == snapshot.lastModified) {
+            snapshot.checkedAt = now;
+            return snapshot;
+        }
+
+        // Plusieurs threads peuvent recompiler en même temps : le dernier gagne, sans incidence
+        Compiled reloaded = load();
+        compiled = reloaded;
+        return reloaded;
+    }
+
+    private Compiled load() {
+        try {
+            if (file != null) {
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                String source = Files.readString(file, StandardCharsets.UTF_8);
+                return new Compiled(TemplateCompiler.compile(path, source), modified);
+            }
+
+            // Webapp non dépliée : lecture via le contexte, sans rechargement possible
+            try (InputStream in = context.getResourceAsStream(path)) {
+                if (in == null) throw new IllegalArgumentException("Template introuvable : " + path);
+                return new Compiled(TemplateCompiler.compile(path, new String(in.readAllBytes(), StandardCharsets.UTF_8)), 0L);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Lecture impossible du template " + path + " : " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Compiled {
+        private final Template template;
+        private final long lastModified;
+        private volatile long checkedAt;
+
+        private Compiled(Template template, long lastModified) {
+            this.template = template;
+            this.lastModified = lastModified;
+            this.checkedAt = System.currentTimeMillis();
+        }
+    }
+}
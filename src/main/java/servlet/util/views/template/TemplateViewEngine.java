@@ -0,0 +1,28 @@
+package servlet.util.views.template;
+
+import jakarta.servlet.ServletContext;
+import servlet.util.views.View;
+import servlet.util.views.ViewEngine;
+
+/**
+ * Moteur de templates natif pour les vues "*.tpl" : le template est compilé une fois en arbre
+ * d'instructions et rendu directement dans le Writer de la réponse, sans forward JSP.
+ * À déclarer dans le paramètre d'init "viewEngines" ; "templateCheckInterval" (ms, défaut 2000,
+ * 0 = à chaque rendu, -1 = jamais) règle la fréquence de vérification de la date de modification.
+ */
+public class TemplateViewEngine implements ViewEngine {
+
+    public static final String EXTENSION = ".tpl";
+
+    @Override
+    public boolean supports(String path) {
+        return path.endsWith(EXTENSION);
+    }
+
+    @Override
+    public View resolve(String path, ServletContext context) {
+        String interval = context.getInitParameter("templateCheckInterval");
+        long checkInterval = (interval != null && !interval.isEmpty()) ? Long.parseLong(interval) : 2000L;
+        return new TemplateView(path, context, checkInterval);
+    }
+}
@@ -0,0 +1,70 @@
+package servlet.util.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Curseurs signés : un curseur n'est accepté que tel qu'il a été émis, par la route qui l'a émis.
+ * Sans dépendance de test : lancé par "script.bat test", échoue par une AssertionError.
+ */
+public final class CursorSignerTest {
+
+    private static final byte[] SECRET = "secret-de-test-0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private CursorSignerTest() {}
+
+    public static void main(String[] args) {
+        verifiesOwnCursor();
+        rejectsCursorFromAnotherRoute();
+        rejectsModifiedPayload();
+        rejectsForeignOrMalformedCursor();
+        System.out.println("CursorSignerTest OK");
+    }
+
+    static void verifiesOwnCursor() {
+        CursorSigner signer = new CursorSigner(SECRET);
+        String cursor = signer.sign("/items", ">42");
+        assertEquals(">42", signer.verify("/items", cursor));
+        // Position non ASCII : transportée en UTF-8
+        assertEquals(">é", signer.verify("/items", signer.sign("/items", ">é")));
+    }
+
+    static void rejectsCursorFromAnotherRoute() {
+        CursorSigner signer = new CursorSigner(SECRET);
+        String cursor = signer.sign("/items", ">42");
+        assertEquals(null, signer.verify("/admin/items", cursor));
+        assertEquals(null, signer.verify("/items/", cursor));
+        assertEquals(null, signer.verify("", cursor));
+    }
+
+    static void rejectsModifiedPayload() {
+        CursorSigner signer = new CursorSigner(SECRET);
+        String cursor = signer.sign("/items", ">42");
+        String signature = cursor.substring(cursor.indexOf('.'));
+        assertEquals(null, signer.verify("/items", encode(">43") + signature));
+        assertEquals(null, signer.verify("/items", encode("<42") + signature));
+        // Signature d'un autre curseur de la même route
+        String other = signer.sign("/items", ">100");
+        assertEquals(null, signer.verify("/items", cursor.substring(0, cursor.indexOf('.'))
+                + other.substring(other.indexOf('.'))));
+    }
+
+    static void rejectsForeignOrMalformedCursor() {
+        CursorSigner signer = new CursorSigner(SECRET);
+        String foreign = new CursorSigner("autre-secret".getBytes(StandardCharsets.UTF_8)).sign("/items", ">42");
+        assertEquals(null, signer.verify("/items", foreign));
+        assertEquals(null, signer.verify("/items", encode(">42")));
+        assertEquals(null, signer.verify("/items", encode(">42") + "."));
+        assertEquals(null, signer.verify("/items", "%%%.???"));
+    }
+
+    private static String encode(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertEquals(Object expected, Object actual) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new AssertionError("attendu <" + expected + "> mais obtenu <" + actual + ">");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package servlet.util.routing;
+
+import servlet.util.ControllerInfo;
+import servlet.util.PathPattern;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Choix de la route quand un motif littéral et un motif paramétré correspondent au même chemin avec des
+ * méthodes HTTP différentes : le littéral ne masque pas les méthodes du motif paramétré.
+ * Sans dépendance de test : lancé par "script.bat test", échoue par une AssertionError.
+ */
+public final class RouteTableTest {
+
+    private RouteTableTest() {}
+
+    public static void main(String[] args) throws Exception {
+        literalDoesNotShadowOtherMethods();
+        headFallsBackToGet();
+        allowCombinesMatchingGroups();
+        conflictsIgnoreDominatedPatterns();
+        System.out.println("RouteTableTest OK");
+    }
+
+    static void literalDoesNotShadowOtherMethods() throws Exception {
+        RouteTable table = table();
+        assertEquals("form", action(table, "/users/new", "GET"));
+        assertEquals("delete", action(table, "/users/new", "DELETE"));
+        assertEquals("delete", action(table, "/users/42", "DELETE"));
+        assertEquals("show", action(table, "/users/42", "GET"));
+    }
+
+    static void headFallsBackToGet() throws Exception {
+        RouteTable table = table();
+        assertEquals("form", action(table, "/users/new", "HEAD"));
+    }
+
+    static void allowCombinesMatchingGroups() throws Exception {
+        RouteTable table = table();
+        // Méthode servie par aucun motif : premier groupe du chemin, Allow de tous les motifs
+        RouteGroup group = table.findGroup("/users/new", "PUT");
+        assertEquals("/users/new", group.getPathPattern().getPath());
+        assertEquals(null, group.get("PUT"));
+        assertEquals("DELETE, GET, HEAD, OPTIONS", table.allowHeader("/users/new"));
+        assertEquals("DELETE, GET, HEAD, OPTIONS", table.allowHeader("/users/42"));
+        assertEquals(null, table.allowHeader("/orders"));
+        assertEquals(null, table.findGroup("/orders", "GET"));
+    }
+
+    static void conflictsIgnoreDominatedPatterns() throws Exception {
+        // /users/new domine /users/{id} : aucune méthode masquée, donc aucun avertissement
+        assertEquals(0, table().getConflicts().size());
+
+        Map<PathPattern, ControllerInfo> routes = new LinkedHashMap<>();
+        route(routes, "/a/{x}/c", "GET", "show");
+        route(routes, "/a/b/{y}", "GET", "form");
+        assertEquals(1, new RouteTable(routes).getConflicts().size());
+    }
+
+    private static RouteTable table() throws Exception {
+        Map<PathPattern, ControllerInfo> routes = new LinkedHashMap<>();
+        route(routes, "/users/{id}", "DELETE", "delete");
+        route(routes, "/users/{id}", "GET", "show");
+        route(routes, "/users/new", "GET", "form");
+        return new RouteTable(routes);
+    }
+
+    private static void route(Map<PathPattern, ControllerInfo> routes, String path, String httpMethod,
+            String action) throws Exception {
+        PathPattern pattern = new PathPattern(path, httpMethod);
+        routes.put(pattern, new ControllerInfo(Users.class, Users.class.getMethod(action), pattern));
+    }
+
+    private static String action(RouteTable table, String path, String httpMethod) {
+        RouteGroup group = table.findGroup(path, httpMethod);
+        if (group == null || group.get(httpMethod) == null) {
+            throw new AssertionError(httpMethod + " " + path + " : aucune route");
+        }
+        return group.get(httpMethod).getMethod().getName();
+    }
+
+    private static void assertEquals(Object expected, Object actual) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new AssertionError("attendu <" + expected + "> mais obtenu <" + actual + ">");
+        }
+    }
+
+    public static final class Users {
+        public String form() { return "form"; }
+        public String show() { return "show"; }
+        public String delete() { return "delete"; }
+    }
+}
@@ -0,0 +1,158 @@
+package servlet.util.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Vérification des jetons HS256 : seul un jeton signé par le secret, d'algorithme HS256 et dans sa période de
+ * validité (nbf, exp) donne un SecurityContext ; tout autre jeton est traité comme non authentifié.
+ * Les cas qui lisent les claims (Jackson) sont ignorés, avec un message, si jackson-annotations manque.
+ * Sans dépendance de test : lancé par "script.bat test", échoue par une AssertionError.
+ */
+public final class TokenSecurityContextProviderTest {
+
+    private static final byte[] SECRET = "secret-de-test-0123456789".getBytes(StandardCharsets.UTF_8);
+    private static final String HS256 = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+
+    private TokenSecurityContextProviderTest() {}
+
+    public static void main(String[] args) throws Exception {
+        // Refus sur la signature seule : aucun JSON lu
+        rejectsTamperedSignature();
+        rejectsTamperedPayload();
+        rejectsUnsignedToken();
+        if (!jsonAvailable()) {
+            System.err.println("TokenSecurityContextProviderTest : cas avec claims ignorés, jackson-annotations "
+                    + "absent du classpath (jackson-annotations-2.20.jar à copier dans lib/)");
+            System.out.println("TokenSecurityContextProviderTest OK");
+            return;
+        }
+        acceptsCreatedToken();
+        rejectsOtherAlgorithms();
+        rejectsExpiredToken();
+        rejectsTokenBeforeNotBefore();
+        System.out.println("TokenSecurityContextProviderTest OK");
+    }
+
+    static void acceptsCreatedToken() {
+        TokenSecurityContextProvider provider = provider();
+        String token = provider.createToken("alice", List.of("user"), 60);
+        SecurityContext context = provider.resolve(request(token));
+        assertEquals("alice", context.getSubject());
+        assertEquals(Set.of("user"), context.getRoles());
+        // Second passage : servi par le cache des jetons vérifiés
+        assertEquals("alice", provider.resolve(request(token)).getSubject());
+    }
+
+    static void rejectsTamperedSignature() {
+        TokenSecurityContextProvider provider = provider();
+        String token = sign(HS256, claims("\"sub\":\"alice\""), SECRET);
+        int middle = token.lastIndexOf('.') + 10;
+        char replaced = token.charAt(middle) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, middle) + replaced + token.substring(middle + 1);
+        assertEquals(null, provider.resolve(request(tampered)));
+
+        // Signature calculée avec un autre secret
+        String foreign = sign(HS256, claims("\"sub\":\"alice\""), "autre-secret".getBytes(StandardCharsets.UTF_8));
+        assertEquals(null, provider.resolve(request(foreign)));
+    }
+
+    static void rejectsTamperedPayload() {
+        TokenSecurityContextProvider provider = provider();
+        String token = sign(HS256, claims("\"sub\":\"alice\",\"roles\":[\"user\"]"), SECRET);
+        String forged = encode(HS256) + "." + encode(claims("\"sub\":\"alice\",\"roles\":[\"admin\"]"))
+                + token.substring(token.lastIndexOf('.'));
+        assertEquals(null, provider.resolve(request(forged)));
+    }
+
+    static void rejectsUnsignedToken() {
+        TokenSecurityContextProvider provider = provider();
+        String payload = encode(claims("\"sub\":\"alice\""));
+        assertEquals(null, provider.resolve(request(encode("{\"alg\":\"none\"}") + "." + payload + ".")));
+        assertEquals(null, provider.resolve(request(encode("{\"alg\":\"none\"}") + "." + payload)));
+    }
+
+    static void rejectsOtherAlgorithms() {
+        TokenSecurityContextProvider provider = provider();
+        String payload = claims("\"sub\":\"alice\"");
+        // Signature HMAC valide mais alg "none" ou HS512 annoncé : l'en-tête seul décide du refus
+        assertEquals(null, provider.resolve(request(sign("{\"alg\":\"none\",\"typ\":\"JWT\"}", payload, SECRET))));
+        assertEquals(null, provider.resolve(request(sign("{\"alg\":\"HS512\",\"typ\":\"JWT\"}", payload, SECRET))));
+        // Même secret, même contenu, alg HS256 : accepté
+        assertEquals("alice", provider.resolve(request(sign(HS256, payload, SECRET))).getSubject());
+    }
+
+    static void rejectsExpiredToken() {
+        TokenSecurityContextProvider provider = provider();
+        long now = System.currentTimeMillis() / 1000;
+        assertEquals(null, provider.resolve(request(sign(HS256, claims("\"sub\":\"alice\",\"exp\":" + (now - 10)), SECRET))));
+        assertEquals(null, provider.resolve(request(sign(HS256, claims("\"sub\":\"alice\",\"exp\":" + now), SECRET))));
+        assertEquals("alice", provider.resolve(
+                request(sign(HS256, claims("\"sub\":\"alice\",\"exp\":" + (now + 60)), SECRET))).getSubject());
+    }
+
+    static void rejectsTokenBeforeNotBefore() {
+        TokenSecurityContextProvider provider = provider();
+        long now = System.currentTimeMillis() / 1000;
+        assertEquals(null, provider.resolve(request(sign(HS256, claims("\"sub\":\"alice\",\"nbf\":" + (now + 60)), SECRET))));
+        assertEquals("alice", provider.resolve(
+                request(sign(HS256, claims("\"sub\":\"alice\",\"nbf\":" + (now - 10)), SECRET))).getSubject());
+    }
+
+    private static boolean jsonAvailable() {
+        try {
+            Class.forName("com.fasterxml.jackson.annotation.JsonView");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static TokenSecurityContextProvider provider() {
+        return new TokenSecurityContextProvider(SECRET, "Authorization", null, "roles", 16);
+    }
+
+    private static String claims(String members) {
+        return "{" + members + "}";
+    }
+
+    // Jeton compact signé HMAC-SHA256, quel que soit l'en-tête annoncé
+    private static String sign(String header, String claims, byte[] secret) {
+        String signingInput = encode(header) + "." + encode(claims);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] signature = mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Requête réduite au header Authorization (ni cookie, ni autre header)
+    private static HttpServletRequest request(String token) {
+        return (HttpServletRequest) Proxy.newProxyInstance(TokenSecurityContextProviderTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                (proxy, method, args) -> method.getName().equals("getHeader") && "Authorization".equals(args[0])
+                        ? "Bearer " + token
+                        : null);
+    }
+
+    private static void assertEquals(Object expected, Object actual) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new AssertionError("attendu <" + expected + "> mais obtenu <" + actual + ">");
+        }
+    }
+}
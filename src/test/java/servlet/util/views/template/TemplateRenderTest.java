@@ -0,0 +1,70 @@
+package servlet.util.views.template;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rendu des templates natifs sur des collections du JDK : les accesseurs des classes d'implémentation
+ * non exportées (HashMap$Node, ImmutableCollections$ListN) doivent être résolus via leurs interfaces.
+ * Sans dépendance de test : lancé par "script.bat test", échoue par une AssertionError.
+ */
+public final class TemplateRenderTest {
+
+    private TemplateRenderTest() {}
+
+    public static void main(String[] args) throws Exception {
+        mapEntriesAndListSize();
+        immutableMapEntries();
+        applicationBean();
+        missingPropertyRendersEmpty();
+        System.out.println("TemplateRenderTest OK");
+    }
+
+    static void mapEntriesAndListSize() throws Exception {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("a", 1);
+        m.put("b", 2);
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("m", m);
+        model.put("l", List.of("x", "y", "z"));
+
+        assertEquals("[a=1][b=2] size=3",
+                render("{% for e in m %}[{{ e.key }}={{ e.value }}]{% endfor %} size={{ l.size }}", model));
+        assertEquals("x,y,z,", render("{% for s in l %}{{ s }},{% endfor %}", model));
+    }
+
+    static void immutableMapEntries() throws Exception {
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("m", Map.of("k", "v"));
+        assertEquals("k=v", render("{% for e in m %}{{ e.key }}={{ e.value }}{% endfor %}", model));
+    }
+
+    static void applicationBean() throws Exception {
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("item", new Item("stylo", true));
+        assertEquals("stylo:true", render("{{ item.label }}:{{ item.available }}", model));
+    }
+
+    static void missingPropertyRendersEmpty() throws Exception {
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("l", List.of("x"));
+        assertEquals("[]", render("[{{ l.unknown }}]", model));
+    }
+
+    private record Item(String label, boolean available) {}
+
+    private static String render(String source, Map<String, Object> model) throws Exception {
+        Template template = TemplateCompiler.compile("test.tpl", source);
+        StringWriter out = new StringWriter();
+        template.render(new Scope(model, null), out);
+        return out.toString();
+    }
+
+    private static void assertEquals(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new AssertionError("attendu <" + expected + "> mais obtenu <" + actual + ">");
+        }
+    }
+}